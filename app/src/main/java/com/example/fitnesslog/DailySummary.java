@@ -0,0 +1,35 @@
+package com.example.fitnesslog;
+
+// The routine, workout number and capable weights of one day in DataTable, as stored in the
+// DailySummary table
+public class DailySummary {
+
+    private final String date;
+    private final int routineID;
+    private final int workoutNum;
+    private final double[] capableWeights;
+
+    public DailySummary(String date, int routineID, int workoutNum, double[] capableWeights) {
+        this.date = date;
+        this.routineID = routineID;
+        this.workoutNum = workoutNum;
+        this.capableWeights = capableWeights;
+    }
+
+    public String getDate() {
+        return date;
+    }
+
+    public int getRoutineID() {
+        return routineID;
+    }
+
+    public int getWorkoutNum() {
+        return workoutNum;
+    }
+
+    // EFFECTS: returns the capable weights in the order of the routine's exercise names
+    public double[] getCapableWeights() {
+        return capableWeights;
+    }
+}
@@ -0,0 +1,59 @@
+package com.example.fitnesslog;
+
+// Connection settings for fitness.db. They are applied every time the database is opened, see
+// DatabaseHelper.onOpen for which connections they reach
+public class DatabaseConfig {
+
+    public static final String SYNCHRONOUS_OFF = "OFF";
+    public static final String SYNCHRONOUS_NORMAL = "NORMAL";
+    public static final String SYNCHRONOUS_FULL = "FULL";
+
+    //WAL stays on since the shared helper relies on it for parallel reads; a config without it can be
+    //passed to DatabaseHelper.getInstance instead. WAL with NORMAL sync only syncs on checkpoints, a
+    //negative cache size is in KiB (2 MiB here) and memory mapping stays off unless it is asked for
+    public static final DatabaseConfig DEFAULT =
+            new DatabaseConfig(true, SYNCHRONOUS_NORMAL, -2048, 0, 10000);
+
+    private final boolean writeAheadLogging;
+    private final String synchronous;
+    private final int cacheSize;
+    private final long mmapSize;
+    private final long idleCheckpointDelay;
+
+    // REQUIRES: synchronous is one of the SYNCHRONOUS constants
+    // EFFECTS: cacheSize follows PRAGMA cache_size (pages if positive, KiB if negative), mmapSize is
+    //          in bytes with 0 turning it off, and idleCheckpointDelay is how long in ms the app has
+    //          to be without writes before the WAL is checkpointed (0 leaves it to SQLite)
+    public DatabaseConfig(boolean writeAheadLogging, String synchronous, int cacheSize, long mmapSize, long idleCheckpointDelay) {
+        this.writeAheadLogging = writeAheadLogging;
+        this.synchronous = synchronous;
+        this.cacheSize = cacheSize;
+        this.mmapSize = mmapSize;
+        this.idleCheckpointDelay = idleCheckpointDelay;
+    }
+
+    public boolean isWriteAheadLogging() {
+        return writeAheadLogging;
+    }
+
+    public String getSynchronous() {
+        return synchronous;
+    }
+
+    public int getCacheSize() {
+        return cacheSize;
+    }
+
+    public long getMmapSize() {
+        return mmapSize;
+    }
+
+    public long getIdleCheckpointDelay() {
+        return idleCheckpointDelay;
+    }
+
+    // EFFECTS: returns true if the WAL should be checkpointed when the app is idle
+    public boolean checkpointsWhenIdle() {
+        return writeAheadLogging && idleCheckpointDelay > 0;
+    }
+}
@@ -1,14 +1,21 @@
 package com.example.fitnesslog;
 
-import android.content.ContentValues;
 import android.content.Context;
 import android.database.Cursor;
 import android.database.sqlite.SQLiteDatabase;
+import android.database.sqlite.SQLiteDoneException;
 import android.database.sqlite.SQLiteOpenHelper;
+import android.database.sqlite.SQLiteStatement;
+import android.os.Build;
+import android.os.Looper;
 
+import java.nio.ByteBuffer;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Calendar;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 public class DatabaseHelper extends SQLiteOpenHelper {
 
@@ -26,15 +33,205 @@ public class DatabaseHelper extends SQLiteOpenHelper {
     private static final String REPS_COL = "Reps";
     private static final String ROUTINE_ID = "RoutineID";
     private static final String CAPABLE_WEIGHT_COL = "CapableWeight";
+    private static final String DAILY_SUMMARY_TABLE = "DailySummary";
+    private static final String WORKOUT_NUM_COL = "WorkoutNum";
+    private static final String CAPABLE_WEIGHTS_COL = "CapableWeights";
+    private static final String REST_INTERVAL_TABLE = "RestInterval";
+    private static final String DURATION_COL = "Duration";
+    private static final String WORKOUT_STATS_TABLE = "WorkoutStats";
+    private static final String SET_COUNT_COL = "SetCount";
+    private static final String VOLUME_COL = "Volume";
+    private static final String START_TIME_COL = "StartTime";
+    private static final String END_TIME_COL = "EndTime";
+    private static final String REST_COUNT_COL = "RestCount";
+    private static final String TOTAL_REST_COL = "TotalRest";
+    private static final String LONGEST_REST_COL = "LongestRest";
+    private static final String DIRTY_COL = "Dirty";
+    private static final String WATERMARK_TABLE = "Watermark";
+    private static final String JOB_COL = "Job";
+    private static final String WORKOUT_STATS_JOB = "WorkoutStats";
+
+    //Version 2 adds the secondary indexes below, version 3 adds DailySummary, version 4 adds RestInterval
+    //and version 5 adds WorkoutStats and Watermark
+    private static final int DATABASE_VERSION = 5;
+    private static final String DATA_DATE_ROUTINE_INDEX = "DataTableDateRoutineIndex";
+    private static final String DATA_TIME_INDEX = "DataTableTimeIndex";
+    private static final String REST_INTERVAL_SESSION_INDEX = "RestIntervalSessionIndex";
+
+    private static final String INSERT_DATA_SQL = "INSERT INTO " + DATA_TABLE + " ("
+            + CURRENT_TIME_COL + ", "
+            + CURRENT_DATE_COL + ", "
+            + ROUTINE_ID + ", "
+            + WORKOUT_EXERCISE_ID + ", "
+            + WEIGHT_COL + ", "
+            + REPS_COL + ", "
+            + CAPABLE_WEIGHT_COL + ") VALUES (?, ?, ?, ?, ?, ?, ?)";
+
+    private static final String UPDATE_SET_SQL = "UPDATE " + DATA_TABLE + " SET "
+            + WEIGHT_COL + " = ?, "
+            + REPS_COL + " = ?, "
+            + CAPABLE_WEIGHT_COL + " = ? WHERE ID = ?";
+
+    private static final String REPLACE_DAILY_SUMMARY_SQL = "INSERT OR REPLACE INTO " + DAILY_SUMMARY_TABLE
+            + " (" + CURRENT_DATE_COL + ", " + ROUTINE_ID + ", " + WORKOUT_NUM_COL + ", " + CAPABLE_WEIGHTS_COL
+            + ") VALUES (?, ?, ?, ?)";
+
+    //Takes the routine from the latest entry of the date, inserting nothing if the date has none
+    private static final String INSERT_REST_INTERVAL_SQL = "INSERT INTO " + REST_INTERVAL_TABLE + " ("
+            + CURRENT_TIME_COL + ", "
+            + CURRENT_DATE_COL + ", "
+            + ROUTINE_ID + ", "
+            + DURATION_COL + ") SELECT ?, " + CURRENT_DATE_COL + ", " + ROUTINE_ID + ", ? FROM " + DATA_TABLE
+            + " WHERE " + CURRENT_DATE_COL + " = ?"
+            + " ORDER BY " + CURRENT_TIME_COL + " DESC LIMIT 1";
+
+    private static final String WATERMARK_SQL = "SELECT " + CURRENT_TIME_COL + " FROM " + WATERMARK_TABLE
+            + " WHERE " + JOB_COL + " = ?";
+
+    private static final String UPDATE_WATERMARK_SQL = "INSERT OR REPLACE INTO " + WATERMARK_TABLE
+            + " (" + JOB_COL + ", " + CURRENT_TIME_COL + ") VALUES (?, ?)";
+
+    //Uses DataTableTimeIndex, so it only reads the last entry of the index
+    private static final String LATEST_TIME_SQL = "SELECT IFNULL(MAX(" + CURRENT_TIME_COL + "), 0) FROM " + DATA_TABLE;
+
+    //Dates with entries written since the watermark or edited without changing their time
+    private static final String CHANGED_DATES_SQL = "SELECT " + CURRENT_DATE_COL + " FROM " + DATA_TABLE
+            + " WHERE " + CURRENT_TIME_COL + " > ?"
+            + " UNION SELECT " + CURRENT_DATE_COL + " FROM " + WORKOUT_STATS_TABLE + " WHERE " + DIRTY_COL + " = 1";
+
+    private static final String INSERT_WORKOUT_STATS_SQL = "INSERT INTO " + WORKOUT_STATS_TABLE + " ("
+            + CURRENT_DATE_COL + ", "
+            + ROUTINE_ID + ", "
+            + SET_COUNT_COL + ", "
+            + VOLUME_COL + ", "
+            + START_TIME_COL + ", "
+            + END_TIME_COL + ", "
+            + REST_COUNT_COL + ", "
+            + TOTAL_REST_COL + ", "
+            + LONGEST_REST_COL + ", "
+            + DIRTY_COL + ") VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, 0)";
+
+    private static final String MARK_WORKOUT_STATS_DIRTY_SQL = "INSERT OR IGNORE INTO " + WORKOUT_STATS_TABLE + " ("
+            + CURRENT_DATE_COL + ", "
+            + ROUTINE_ID + ", "
+            + SET_COUNT_COL + ", "
+            + DIRTY_COL + ") VALUES (?, -1, 0, 1)";
+
+    private static final String IS_EMPTY_SQL = "SELECT EXISTS(SELECT 1 FROM " + DATA_TABLE + ")";
+
+    private static final String LATEST_ROUTINE_SQL = "SELECT " + ROUTINE_ID + " FROM " + DATA_TABLE
+            + " ORDER BY " + CURRENT_TIME_COL + " DESC LIMIT 1";
+
+    private static final String LATEST_ROUTINE_BY_DATE_SQL = "SELECT " + ROUTINE_ID + " FROM " + DATA_TABLE
+            + " WHERE " + CURRENT_DATE_COL + " = ?"
+            + " ORDER BY " + CURRENT_TIME_COL + " DESC LIMIT 1";
+
+    private static final String LATEST_WORKOUT_EXERCISE_SQL = "SELECT " + WORKOUT_EXERCISE_ID + " FROM " + DATA_TABLE
+            + " ORDER BY " + CURRENT_TIME_COL + " DESC LIMIT 1";
+
+    private static final String WORKOUT_EXERCISE_BY_DATE_SQL = "SELECT " + WORKOUT_EXERCISE_ID + " FROM " + DATA_TABLE
+            + " WHERE " + CURRENT_DATE_COL + " = ?"
+            + " ORDER BY " + CURRENT_TIME_COL + " DESC LIMIT 1";
+
+    private static final String TIME_OF_NEW_PROGRAM_SQL = "SELECT " + CURRENT_TIME_COL + " FROM " + DATA_TABLE
+            + " WHERE " + ROUTINE_ID + " = ? AND " + WEIGHT_COL + " = -1"
+            + " ORDER BY " + CURRENT_TIME_COL + " DESC LIMIT 1";
+
+    private static final String ENTRIES_ENTERED_SQL = "SELECT EXISTS(SELECT 1 FROM " + DATA_TABLE
+            + " WHERE " + CURRENT_DATE_COL + " = ?"
+            + " AND " + ROUTINE_ID + " = ?"
+            + " AND " + WORKOUT_EXERCISE_ID + " = ?)";
+
+    private static final String DATA_FROM_DATE_SQL = "SELECT EXISTS(SELECT 1 FROM " + DATA_TABLE
+            + " WHERE " + CURRENT_DATE_COL + " = ?)";
+
+    private static final String DATA_FROM_DATE_AND_ROUTINE_SQL = "SELECT EXISTS(SELECT 1 FROM " + DATA_TABLE
+            + " WHERE " + CURRENT_DATE_COL + " = ?"
+            + " AND " + ROUTINE_ID + " = ?)";
+
+    //Built on first use, since the routines' tables come from their templates
+    private static String historyPageSql;
+
+    private static DatabaseHelper instance;
+
+    //Set by tests, which then fail on any database work that runs on the main thread
+    private static volatile boolean mainThreadChecked;
+
+    private final DatabaseConfig config;
+
+    //Compiled statements, keyed by their SQL, that are reused for the lifetime of the helper. The
+    //bindings of a statement are shared, so every thread binds and executes statements of its own and
+    //reads of the same query on different threads do not wait for each other
+    private volatile ThreadLocal<Map<String, SQLiteStatement>> statements;
+
+    //Every statement of every thread, so that close() can release them
+    private final List<SQLiteStatement> allStatements;
+
+    private DatabaseHelper(Context context, DatabaseConfig config) {
+        super(context, DATABASE_NAME, null, DATABASE_VERSION);
+        this.config = config;
+        statements = newStatements();
+        allStatements = new ArrayList<>();
+
+        //From Q on, Android sets the sync level on every connection of its pool. It has to be set before
+        //WAL, since setOpenParams replaces the flags that setWriteAheadLoggingEnabled adds
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.Q) {
+            setOpenParams(new SQLiteDatabase.OpenParams.Builder()
+                    .setSynchronousMode(config.getSynchronous())
+                    .build());
+        }
+
+        //Lets the calendar, history and log screens read while a workout is being written
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.JELLY_BEAN) {
+            setWriteAheadLoggingEnabled(config.isWriteAheadLogging());
+        }
+    }
+
+    // EFFECTS: returns the process-wide helper. Every method only uses local state, so the helper can
+    //          be called from several threads at once
+    public static DatabaseHelper getInstance(Context context) {
+        return getInstance(context, DatabaseConfig.DEFAULT);
+    }
+
+    // EFFECTS: returns the process-wide helper, creating it with the given config if it does not exist
+    //          yet. The config of an existing helper is not changed
+    public static synchronized DatabaseHelper getInstance(Context context, DatabaseConfig config) {
+        if (instance == null) {
+            instance = new DatabaseHelper(context.getApplicationContext(), config);
+        }
+        return instance;
+    }
 
-    private SQLiteDatabase db;
-    private Cursor cursor;
-    private String selection;
-    private String orderBy;
-    private ContentValues contentValues;
+    // EFFECTS: closes and forgets the process-wide helper, so that the next getInstance opens the
+    //          database again. Only used by tests, which get a new application context each run
+    static synchronized void releaseInstance() {
+        if (instance != null) {
+            instance.close();
+            instance = null;
+        }
+        RoutineCache.invalidate();
+    }
+
+    // EFFECTS: makes every later database access from the main thread throw IllegalStateException.
+    //          Only used by tests, which check that the activities leave it to DatabaseRepository
+    static void setMainThreadChecked(boolean checked) {
+        mainThreadChecked = checked;
+    }
+
+    public DatabaseConfig getConfig() {
+        return config;
+    }
+
+    @Override
+    public SQLiteDatabase getWritableDatabase() {
+        checkThread();
+        return super.getWritableDatabase();
+    }
 
-    public DatabaseHelper(Context context) {
-        super(context, DATABASE_NAME, null, 1);
+    @Override
+    public SQLiteDatabase getReadableDatabase() {
+        checkThread();
+        return super.getReadableDatabase();
     }
 
     // EFFECTS: creates four SQL data tables - Beginner/Intermediate/Advanced and Data Tables
@@ -64,233 +261,607 @@ public class DatabaseHelper extends SQLiteOpenHelper {
                 + WEIGHT_COL + " REAL, "
                 + REPS_COL + " INTEGER, "
                 + CAPABLE_WEIGHT_COL + " REAL)");
+
+        createIndexes(db);
+        createDailySummaryTable(db);
+        createRestIntervalTable(db);
+        createWorkoutStatsTables(db);
+    }
+
+    // EFFECTS: migrates the schema one version at a time so that existing entries are kept
+    @Override
+    public void onUpgrade(SQLiteDatabase db, int oldVersion, int newVersion) {
+        if (oldVersion < 2) {
+            createIndexes(db);
+        }
+        if (oldVersion < 3) {
+            createDailySummaryTable(db);
+            rebuildDailySummaries(db);
+        }
+        if (oldVersion < 4) {
+            createRestIntervalTable(db);
+        }
+        if (oldVersion < 5) {
+            //Filled in by the first updateWorkoutStats, which starts from a watermark of 0
+            createWorkoutStatsTables(db);
+        }
+    }
+
+    // EFFECTS: applies the sync level, page cache size and mmap size from the config. SQLite keeps these
+    //          per connection and Android only calls onOpen on one of them, so with WAL the extra
+    //          connections that reads run on keep SQLite's default cache and mmap sizes, and before Q
+    //          its default sync level as well. Writes all go through the connection set up here
+    @Override
+    public void onOpen(SQLiteDatabase db) {
+        super.onOpen(db);
+        runPragma(db, "synchronous = " + config.getSynchronous());
+        runPragma(db, "cache_size = " + config.getCacheSize());
+        if (config.getMmapSize() > 0) {
+            runPragma(db, "mmap_size = " + config.getMmapSize());
+        }
+    }
+
+    // EFFECTS: copies what the WAL holds back into the database without blocking readers or writers
+    public void checkpoint() {
+        if (config.isWriteAheadLogging()) {
+            runPragma(getWritableDatabase(), "wal_checkpoint(PASSIVE)");
+        }
     }
 
+    // EFFECTS: releases the compiled statements before closing the database
     @Override
-    public void onUpgrade(SQLiteDatabase db, int i, int i1) {
-        db.execSQL("DROP TABLE IF EXISTS " + BEGINNER_TABLE);
-        db.execSQL("DROP TABLE IF EXISTS " + INTERMEDIATE_TABLE);
-        db.execSQL("DROP TABLE IF EXISTS " + ADVANCED_TABLE);
-        db.execSQL("DROP TABLE IF EXISTS " + DATA_TABLE);
-        onCreate(db);
+    public synchronized void close() {
+        synchronized (allStatements) {
+            for (SQLiteStatement statement : allStatements) {
+                statement.close();
+            }
+            allStatements.clear();
+            //The closed statements are still in the maps of the threads that compiled them
+            statements = newStatements();
+        }
+        super.close();
+    }
+
+    // EFFECTS: creates the table that holds the routine ID, workout number and capable weights
+    //          (a blob of doubles) of every date in DataTable
+    private void createDailySummaryTable(SQLiteDatabase db) {
+        db.execSQL("CREATE TABLE IF NOT EXISTS " + DAILY_SUMMARY_TABLE
+                + " (" + CURRENT_DATE_COL + " TEXT PRIMARY KEY, "
+                + ROUTINE_ID + " INTEGER, "
+                + WORKOUT_NUM_COL + " INTEGER, "
+                + CAPABLE_WEIGHTS_COL + " BLOB)");
+    }
+
+    // EFFECTS: creates the table of rests timed with the stopwatch. A rest belongs to the session of
+    //          the date and routine it was taken in, and is only linked to it by those two columns
+    private void createRestIntervalTable(SQLiteDatabase db) {
+        db.execSQL("CREATE TABLE IF NOT EXISTS " + REST_INTERVAL_TABLE
+                + " (ID INTEGER PRIMARY KEY AUTOINCREMENT, "
+                + CURRENT_TIME_COL + " INTEGER, "
+                + CURRENT_DATE_COL + " TEXT, "
+                + ROUTINE_ID + " INTEGER, "
+                + DURATION_COL + " INTEGER)");
+        db.execSQL("CREATE INDEX IF NOT EXISTS " + REST_INTERVAL_SESSION_INDEX + " ON " + REST_INTERVAL_TABLE
+                + " (" + CURRENT_DATE_COL + ", " + ROUTINE_ID + ")");
+    }
+
+    // EFFECTS: creates the table of the analytics of every workout, keyed by its date and routine, and
+    //          the table of the watermarks up to which DataTable has been processed
+    private void createWorkoutStatsTables(SQLiteDatabase db) {
+        db.execSQL("CREATE TABLE IF NOT EXISTS " + WORKOUT_STATS_TABLE
+                + " (" + CURRENT_DATE_COL + " TEXT, "
+                + ROUTINE_ID + " INTEGER, "
+                + SET_COUNT_COL + " INTEGER, "
+                + VOLUME_COL + " REAL, "
+                + START_TIME_COL + " INTEGER, "
+                + END_TIME_COL + " INTEGER, "
+                + REST_COUNT_COL + " INTEGER, "
+                + TOTAL_REST_COL + " INTEGER, "
+                + LONGEST_REST_COL + " INTEGER, "
+                + DIRTY_COL + " INTEGER DEFAULT 0, "
+                + "PRIMARY KEY (" + CURRENT_DATE_COL + ", " + ROUTINE_ID + "))");
+        db.execSQL("CREATE TABLE IF NOT EXISTS " + WATERMARK_TABLE
+                + " (" + JOB_COL + " TEXT PRIMARY KEY, "
+                + CURRENT_TIME_COL + " INTEGER)");
+    }
+
+    // EFFECTS: creates the indexes used by the date/routine lookups, the CurrentTime ordering and
+    //          the exercise name lookups in the beg/int/adv tables
+    private void createIndexes(SQLiteDatabase db) {
+        db.execSQL("CREATE INDEX IF NOT EXISTS " + DATA_DATE_ROUTINE_INDEX + " ON " + DATA_TABLE
+                + " (" + CURRENT_DATE_COL + ", " + ROUTINE_ID + ", " + WORKOUT_EXERCISE_ID + ")");
+        db.execSQL("CREATE INDEX IF NOT EXISTS " + DATA_TIME_INDEX + " ON " + DATA_TABLE
+                + " (" + CURRENT_TIME_COL + ")");
+
+        //NOCASE so that the LIKE comparisons on exercise names can use the index
+        for (String table : new String[]{BEGINNER_TABLE, INTERMEDIATE_TABLE, ADVANCED_TABLE}) {
+            db.execSQL("CREATE INDEX IF NOT EXISTS " + table + "ExerciseIndex ON " + table
+                    + " (" + EXERCISE_COL + " COLLATE NOCASE)");
+        }
     }
 
-    //Inserting data into data table
+    //Inserting data into data table. The entry and the summaries it changes are written in one
+    //transaction, so they cost a single commit
     public boolean insertData(long currentTime, String currentDate, int routineID, int workoutExerciseID, double weight, int reps, double capableWeight) {
-        db = this.getWritableDatabase();
-        contentValues = new ContentValues();
-
-        contentValues.put(CURRENT_TIME_COL, currentTime);
-        contentValues.put(CURRENT_DATE_COL, currentDate);
-        contentValues.put(ROUTINE_ID, routineID);
-        contentValues.put(WORKOUT_EXERCISE_ID, workoutExerciseID);
-        contentValues.put(WEIGHT_COL, weight);
-        contentValues.put(REPS_COL, reps);
-        contentValues.put(CAPABLE_WEIGHT_COL, capableWeight);
-        long result = db.insert(DATA_TABLE, null, contentValues);
+        SQLiteDatabase db = this.getWritableDatabase();
+        SQLiteStatement insert = getStatement(INSERT_DATA_SQL);
+        long result;
+
+        db.beginTransaction();
+        try {
+            bindArgs(insert, currentTime, currentDate, routineID, workoutExerciseID, weight, reps, capableWeight);
+            result = insert.executeInsert();
+            updateDailySummary(db, currentDate, getStatement(REPLACE_DAILY_SUMMARY_SQL));
+            markWorkoutStatsDirty(db, currentDate);
+            db.setTransactionSuccessful();
+        } finally {
+            db.endTransaction();
+            RoutineCache.invalidate();
+        }
         return !(result == -1);
     }
 
-    //Inserts exercise name and associated workout number into table if it does not already exist
-    public boolean insertBeginnerRoutineData(int workout, String exercise) {
-        db = this.getWritableDatabase();
-        selection = WORKOUT_COL + "=" + workout + " AND " + EXERCISE_COL + " LIKE '" + exercise + "'";
-        cursor = db.query(BEGINNER_TABLE, null, selection, null, null, null, null);
+    // EFFECTS: starts a new program on the given date. Removes what was logged on the date, then
+    //          inserts a -1 entry with the capable weight of every exercise, which marks where the
+    //          program starts. Everything is written in one transaction
+    public void insertNewProgram(long currentTime, String currentDate, int routineID, int[] workoutExerciseIDs, double[] capableWeights) {
+        SQLiteDatabase db = this.getWritableDatabase();
+        SQLiteStatement insert = getStatement(INSERT_DATA_SQL);
+
+        db.beginTransaction();
+        try {
+            db.delete(DATA_TABLE, CURRENT_DATE_COL + " = ?", new String[]{currentDate});
+            db.delete(REST_INTERVAL_TABLE, CURRENT_DATE_COL + " = ?", new String[]{currentDate});
+            for (int i = 0; i < workoutExerciseIDs.length; i++) {
+                bindArgs(insert, currentTime, currentDate, routineID, workoutExerciseIDs[i], -1.0, 0, capableWeights[i]);
+                insert.executeInsert();
+            }
+            updateDailySummary(db, currentDate, getStatement(REPLACE_DAILY_SUMMARY_SQL));
+            markWorkoutStatsDirty(db, currentDate);
+            db.setTransactionSuccessful();
+        } finally {
+            db.endTransaction();
+            RoutineCache.invalidate();
+        }
+    }
 
-        cursor.moveToFirst();
-        if (cursor.getCount() == 0) {
-            ContentValues contentValues = new ContentValues();
+    // EFFECTS: saves a rest of durationMillis that ended at currentTime in the session of the latest
+    //          entry on the date. Returns false if nothing was logged on the date, since the rest then
+    //          has no session to belong to
+    public boolean insertRestInterval(long currentTime, String currentDate, long durationMillis) {
+        SQLiteStatement insert = getStatement(INSERT_REST_INTERVAL_SQL);
+
+        bindArgs(insert, currentTime, durationMillis, currentDate);
+        return insert.executeUpdateDelete() > 0;
+    }
 
-            contentValues.put(WORKOUT_COL, workout);
-            contentValues.put(EXERCISE_COL, exercise);
-            long result = db.insert(BEGINNER_TABLE, null, contentValues);
+    // EFFECTS: returns the lengths of the rests of the session in the order they were taken
+    public long[] getRestIntervals(String currentDate, int routineID) {
+        Cursor cursor = getReadableDatabase().query(REST_INTERVAL_TABLE, new String[]{DURATION_COL},
+                CURRENT_DATE_COL + " = ? AND " + ROUTINE_ID + " = ?",
+                new String[]{currentDate, String.valueOf(routineID)}, null, null, CURRENT_TIME_COL + ", ID");
+        try {
+            long[] durations = new long[cursor.getCount()];
+
+            for (int i = 0; cursor.moveToNext(); i++) {
+                durations[i] = cursor.getLong(0);
+            }
+            return durations;
+        } finally {
             cursor.close();
-            return !(result == -1);
         }
-        cursor.close();
-        return false;
+    }
+
+    //Inserts exercise name and associated workout number into table if it does not already exist
+    public boolean insertBeginnerRoutineData(int workout, String exercise) {
+        return insertRoutineData(BEGINNER_TABLE, workout, exercise);
     }
 
     public boolean insertIntermediateRoutineData(int workout, String exercise) {
-        db = this.getWritableDatabase();
-        selection = WORKOUT_COL + "=" + workout + " AND " + EXERCISE_COL + " LIKE '" + exercise + "'";
-        cursor = db.query(INTERMEDIATE_TABLE, null, selection, null, null, null, null);
+        return insertRoutineData(INTERMEDIATE_TABLE, workout, exercise);
+    }
 
-        cursor.moveToFirst();
-        if (cursor.getCount() == 0) {
-            ContentValues contentValues = new ContentValues();
-            contentValues.put(WORKOUT_COL, workout);
-            contentValues.put(EXERCISE_COL, exercise);
-            long result = db.insert(INTERMEDIATE_TABLE, null, contentValues);
-            cursor.close();
-            return !(result == -1);
+    public boolean insertAdvancedRoutineData(int workout, String exercise) {
+        return insertRoutineData(ADVANCED_TABLE, workout, exercise);
+    }
+
+    //Returns workoutExerciseID in beg/int/adv table that corresponds to the workout and exercise
+    public int getWorkoutExerciseID(String table, String exerciseName, int workoutNum) {
+        String query = "SELECT ID FROM " + table
+                + " WHERE " + WORKOUT_COL + " = ? AND " + EXERCISE_COL + " LIKE ? LIMIT 1";
+
+        return (int) queryForLong(query, -1, workoutNum, exerciseName);
+    }
+
+    // EFFECTS: writes all sets of an exercise in a single transaction. The sets the date already has
+    //          entries for are updated and keep their time, the others are inserted with the current
+    //          time. The log writes every set as soon as it is filled out, so each set gets the time it
+    //          was done at and the gaps between them are the rests. Sets that are written together,
+    //          like the last ones of a past workout, share a time and count as one in WorkoutStats
+    public void upsertSets(int numSets, String currentDate, int routineID, int workoutExerciseID, double[] weights, int[] reps, double capableWeight) {
+        upsertSets(Calendar.getInstance().getTimeInMillis(), numSets, currentDate, routineID, workoutExerciseID,
+                weights, reps, capableWeight);
+    }
+
+    // EFFECTS: like upsertSets, with the given time as the current time
+    void upsertSets(long currentTime, int numSets, String currentDate, int routineID, int workoutExerciseID, double[] weights, int[] reps, double capableWeight) {
+        SQLiteDatabase db = this.getWritableDatabase();
+
+        db.beginTransaction();
+        try {
+            if (haveEntriesBeenEntered(currentDate, routineID, workoutExerciseID)) {
+                updateSets(db, currentTime, numSets, currentDate, routineID, workoutExerciseID, weights, reps, capableWeight);
+            } else {
+                insertSets(currentTime, currentDate, routineID, workoutExerciseID, weights, reps, 0, numSets, capableWeight);
+            }
+            updateDailySummary(db, currentDate, getStatement(REPLACE_DAILY_SUMMARY_SQL));
+            markWorkoutStatsDirty(db, currentDate);
+            db.setTransactionSuccessful();
+        } finally {
+            db.endTransaction();
+            RoutineCache.invalidate();
         }
-        cursor.close();
-        return false;
     }
 
-    public boolean insertAdvancedRoutineData(int workout, String exercise) {
-        db = this.getWritableDatabase();
-        selection = WORKOUT_COL + "=" + workout + " AND " + EXERCISE_COL + " LIKE '" + exercise + "'";
-        cursor = db.query(ADVANCED_TABLE, null, selection, null, null, null, null);
+    public void updateEntries(int numSets, String currentDate, int routineID, int workoutExerciseID, double[] weights, int[] reps, double capableWeight) {
+        SQLiteDatabase db = this.getWritableDatabase();
+
+        db.beginTransaction();
+        try {
+            updateSets(db, Calendar.getInstance().getTimeInMillis(), numSets, currentDate, routineID, workoutExerciseID, weights, reps, capableWeight);
+            updateDailySummary(db, currentDate, getStatement(REPLACE_DAILY_SUMMARY_SQL));
+            markWorkoutStatsDirty(db, currentDate);
+            db.setTransactionSuccessful();
+        } finally {
+            db.endTransaction();
+            RoutineCache.invalidate();
+        }
+    }
 
-        cursor.moveToFirst();
-        if (cursor.getCount() == 0) {
-            ContentValues contentValues = new ContentValues();
-            contentValues.put(WORKOUT_COL, workout);
-            contentValues.put(EXERCISE_COL, exercise);
-            long result = db.insert(ADVANCED_TABLE, null, contentValues);
-            cursor.close();
-            return !(result == -1);
+    //Checks if table is completely empty
+    public boolean isEmpty() {
+        return queryForLong(IS_EMPTY_SQL, 0) == 0;
+    }
+
+    // EFFECTS: returns 1 for beginner routine, 2 for intermediate routine, and 3 for advance routine
+    public int getLatestRoutineID() {
+        return (int) queryForLong(LATEST_ROUTINE_SQL, -1);
+    }
+
+    //Returns the id of the latest routine done on the given date
+    public int getLatestRoutineByDate(String currentDate) {
+        return (int) queryForLong(LATEST_ROUTINE_BY_DATE_SQL, -1, currentDate);
+    }
+
+    //Returns the workout num done on the given date
+    public int getWorkoutNumByDate(String table, String currentDate) {
+        int workoutExerciseID = getWorkoutExerciseIDByDate(currentDate);
+        return getWorkoutNum(table, workoutExerciseID);
+    }
+
+    //Returns an array of capable exercise weights from the given date and routineID
+    public double[] getCapableWeightArray(int routineID, String currentDate) {
+        return queryCapableWeights(getReadableDatabase(), routineID, currentDate);
+    }
+
+    // EFFECTS: returns the summary of the given date, or null if nothing was logged on that date
+    public DailySummary getDailySummary(String currentDate) {
+        SQLiteDatabase db = this.getReadableDatabase();
+        Cursor cursor = db.query(DAILY_SUMMARY_TABLE,
+                new String[]{ROUTINE_ID, WORKOUT_NUM_COL, CAPABLE_WEIGHTS_COL},
+                CURRENT_DATE_COL + " = ?", new String[]{currentDate}, null, null, null);
+        DailySummary summary = null;
+
+        if (cursor.moveToFirst()) {
+            summary = new DailySummary(currentDate, cursor.getInt(0), cursor.getInt(1), toDoubles(cursor.getBlob(2)));
         }
         cursor.close();
-        return false;
+        return summary;
     }
 
-    //Returns workoutExerciseID in beg/int/adv table that corresponds to the workout and exercise
-    public int getWorkoutExerciseID(String table, String exerciseName, int workoutNum) {
-        db = this.getWritableDatabase();
-        selection = WORKOUT_COL + "=" + workoutNum + " AND " + EXERCISE_COL + " LIKE '" + exerciseName + "'";
-        cursor = db.query(table, new String[]{"ID"}, selection, null, null, null, null);
-        int workoutExerciseID = -1;
+    // EFFECTS: returns up to limit sets of DataTable that come after the entry with the given time
+    //          and ID, in the order of their time and ID. The -1 rows that mark a new program are left
+    //          out. Every set has the workout number and the exercise name from its routine's table,
+    //          which are null if the routine has no table. The columns are ID, CurrentTime,
+    //          CurrentDate, RoutineID, Workout, Exercise, Weight, Reps and CapableWeight. Pass
+    //          Long.MIN_VALUE and -1 for the first page
+    public Cursor queryHistoryPage(long afterTime, long afterID, int limit) {
+        String[] args = {String.valueOf(afterTime), String.valueOf(afterTime), String.valueOf(afterID),
+                String.valueOf(limit)};
+
+        return getReadableDatabase().rawQuery(getHistoryPageSql(), args);
+    }
 
-        if (cursor != null && cursor.getCount() > 0) {
-            cursor.moveToFirst();
-            workoutExerciseID = cursor.getInt(cursor.getColumnIndex("ID"));
-            cursor.close();
+    //The entries are read through DataTableTimeIndex, which holds the ID as well, so a page starts
+    //where the last one ended and is never sorted
+    private static synchronized String getHistoryPageSql() {
+        if (historyPageSql == null) {
+            StringBuilder joins = new StringBuilder();
+            StringBuilder workout = new StringBuilder("COALESCE(NULL");
+            StringBuilder exercise = new StringBuilder("COALESCE(NULL");
+
+            for (int routineID = 1; routineID <= 3; routineID++) {
+                String table = RoutineTemplate.forRoutine(routineID).getTable();
+                String alias = "r" + routineID;
+
+                joins.append(" LEFT JOIN ").append(table).append(" ").append(alias)
+                        .append(" ON d.").append(ROUTINE_ID).append(" = ").append(routineID)
+                        .append(" AND ").append(alias).append(".ID = d.").append(WORKOUT_EXERCISE_ID);
+                workout.append(", ").append(alias).append(".").append(WORKOUT_COL);
+                exercise.append(", ").append(alias).append(".").append(EXERCISE_COL);
+            }
+            historyPageSql = "SELECT d.ID, d." + CURRENT_TIME_COL + ", d." + CURRENT_DATE_COL + ", d." + ROUTINE_ID
+                    + ", " + workout + "), " + exercise + "), d." + WEIGHT_COL + ", d." + REPS_COL
+                    + ", d." + CAPABLE_WEIGHT_COL + " FROM " + DATA_TABLE + " d" + joins
+                    + " WHERE d." + CURRENT_TIME_COL + " >= ? AND (d." + CURRENT_TIME_COL + " > ? OR d.ID > ?)"
+                    + " AND d." + WEIGHT_COL + " >= 0"
+                    + " ORDER BY d." + CURRENT_TIME_COL + ", d.ID LIMIT ?";
         }
-        return workoutExerciseID;
+        return historyPageSql;
     }
 
-    public void updateEntries(boolean isItToday, int numSets, String currentDate, int routineID, int workoutExerciseID, List<Double> weights, List<Integer> reps, double capableWeight) {
-        db = this.getWritableDatabase();
-        long time;
-        List<Integer> ids = new ArrayList<>();
-        long newProgramTime = getTimeOfNewProgram(routineID);
-        selection = CURRENT_DATE_COL + " = '" + currentDate
-                + "' AND " + ROUTINE_ID + " = " + routineID
-                + " AND " + WORKOUT_EXERCISE_ID + " = " + workoutExerciseID
-                + " AND " + CURRENT_TIME_COL + " > " + newProgramTime;
-        String orderBy = CURRENT_TIME_COL + " ASC";
-        cursor = db.query(DATA_TABLE, new String[]{"ID"}, selection, null, null, null, orderBy);
-
-        //Finds all entries with the matching date and workoutExerciseID and puts the primary key of those entries into an array
-        if (cursor.moveToFirst()) {
-            do {
-                int id = cursor.getInt(cursor.getColumnIndex("ID"));
+    // EFFECTS: returns the analytics of the workout done with the routine on the date, or null if there
+    //          are none yet. Only as recent as the last updateWorkoutStats
+    public WorkoutStats getWorkoutStats(String currentDate, int routineID) {
+        Cursor cursor = getReadableDatabase().query(WORKOUT_STATS_TABLE,
+                new String[]{SET_COUNT_COL, VOLUME_COL, START_TIME_COL, END_TIME_COL, REST_COUNT_COL,
+                        TOTAL_REST_COL, LONGEST_REST_COL},
+                CURRENT_DATE_COL + " = ? AND " + ROUTINE_ID + " = ?",
+                new String[]{currentDate, String.valueOf(routineID)}, null, null, null);
+        WorkoutStats stats = null;
 
-                ids.add(id);
-            } while (cursor.moveToNext());
+        if (cursor.moveToFirst()) {
+            stats = new WorkoutStats(currentDate, routineID, cursor.getInt(0), cursor.getDouble(1), cursor.getLong(2),
+                    cursor.getLong(3), cursor.getInt(4), cursor.getLong(5), cursor.getLong(6));
         }
         cursor.close();
+        return stats;
+    }
 
-        //Updates database entries with the new corresponding weights and reps value
-        for (int i = 0; i < ids.size(); i++) {
-            //not updating currentTime if the workout is done in the past
-            if (isItToday) {
-                time = Calendar.getInstance().getTimeInMillis();
-            } else {
-                time = getCurrentTimeFromID(ids.get(i));
+    // EFFECTS: brings WorkoutStats up to date with DataTable and returns the number of dates that were
+    //          recomputed. Only the dates with entries written after the watermark, or edited since
+    //          the last run, are read again, so a run after a few sets only reads their workouts.
+    //          Runs as one transaction, so the watermark never gets ahead of the stats
+    public int updateWorkoutStats() {
+        SQLiteDatabase db = getWritableDatabase();
+
+        db.beginTransaction();
+        try {
+            long watermark = queryForLong(WATERMARK_SQL, 0, WORKOUT_STATS_JOB);
+            long latestTime = queryForLong(LATEST_TIME_SQL, 0);
+            List<String> dates = new ArrayList<>();
+
+            Cursor cursor = db.rawQuery(CHANGED_DATES_SQL, new String[]{String.valueOf(watermark)});
+            try {
+                while (cursor.moveToNext()) {
+                    dates.add(cursor.getString(0));
+                }
+            } finally {
+                cursor.close();
             }
 
-            contentValues = new ContentValues();
+            for (String date : dates) {
+                updateWorkoutStats(db, date);
+            }
+            if (latestTime > watermark) {
+                SQLiteStatement update = getStatement(UPDATE_WATERMARK_SQL);
 
-            contentValues.put(CURRENT_TIME_COL, time);
-            contentValues.put(CURRENT_DATE_COL, currentDate);
-            contentValues.put(ROUTINE_ID, routineID);
-            contentValues.put(WEIGHT_COL, weights.get(i));
-            contentValues.put(REPS_COL, reps.get(i));
-            contentValues.put(WORKOUT_EXERCISE_ID, workoutExerciseID);
-            contentValues.put(CAPABLE_WEIGHT_COL, capableWeight);
-            db.update(DATA_TABLE, contentValues, "ID = " + ids.get(i), null);
+                bindArgs(update, WORKOUT_STATS_JOB, latestTime);
+                update.executeInsert();
+            }
+            db.setTransactionSuccessful();
+            return dates.size();
+        } finally {
+            db.endTransaction();
         }
-        //If the Lists are larger than the amount of entries that need to be updated, the rest of the inputs in the lists are inserted
-        for (int i = ids.size(); i < numSets; i++) {
-            time = Calendar.getInstance().getTimeInMillis();
+    }
 
-            insertData(time, currentDate, routineID, workoutExerciseID, weights.get(i), reps.get(i), capableWeight);
+    // EFFECTS: recomputes the stats of every workout on the date in one pass over its entries, which
+    //          are read in the order of their routine and time. The -1 entries that mark a new program
+    //          are not sets and are left out
+    private void updateWorkoutStats(SQLiteDatabase db, String currentDate) {
+        db.delete(WORKOUT_STATS_TABLE, CURRENT_DATE_COL + " = ?", new String[]{currentDate});
+
+        Cursor cursor = db.rawQuery("SELECT " + ROUTINE_ID + ", " + CURRENT_TIME_COL + ", " + WEIGHT_COL + ", "
+                + REPS_COL + " FROM " + DATA_TABLE
+                + " WHERE " + CURRENT_DATE_COL + " = ? AND " + WEIGHT_COL + " >= 0"
+                + " ORDER BY " + ROUTINE_ID + ", " + CURRENT_TIME_COL, new String[]{currentDate});
+        int routineID = -1;
+        int setCount = 0;
+        double volume = 0;
+        long startTime = 0;
+        long endTime = 0;
+        int restCount = 0;
+        long totalRest = 0;
+        long longestRest = 0;
+
+        try {
+            while (cursor.moveToNext()) {
+                int rowRoutineID = cursor.getInt(0);
+                long time = cursor.getLong(1);
+
+                if (setCount == 0 || rowRoutineID != routineID) {
+                    insertWorkoutStats(currentDate, routineID, setCount, volume, startTime, endTime,
+                            restCount, totalRest, longestRest);
+                    routineID = rowRoutineID;
+                    setCount = 0;
+                    volume = 0;
+                    startTime = time;
+                    endTime = time;
+                    restCount = 0;
+                    totalRest = 0;
+                    longestRest = 0;
+                } else if (time > endTime) {
+                    long rest = time - endTime;
+
+                    restCount++;
+                    totalRest += rest;
+                    longestRest = Math.max(longestRest, rest);
+                    endTime = time;
+                }
+                setCount++;
+                volume += cursor.getDouble(2) * cursor.getInt(3);
+            }
+        } finally {
+            cursor.close();
         }
+        insertWorkoutStats(currentDate, routineID, setCount, volume, startTime, endTime, restCount, totalRest,
+                longestRest);
     }
 
-    //Checks if table is completely empty
-    public boolean isEmpty() {
-        db = this.getWritableDatabase();
-        cursor = db.query(DATA_TABLE, new String[]{"ID"}, null, null, null, null, null);
+    //Does nothing for a workout without sets, which is what the first row of a date starts from
+    private void insertWorkoutStats(String currentDate, int routineID, int setCount, double volume, long startTime,
+                                    long endTime, int restCount, long totalRest, long longestRest) {
+        if (setCount == 0) {
+            return;
+        }
+        SQLiteStatement insert = getStatement(INSERT_WORKOUT_STATS_SQL);
 
-        cursor.moveToFirst();
-        int count = cursor.getCount();
-        cursor.close();
-        return count == 0;
+        bindArgs(insert, currentDate, routineID, setCount, volume, startTime, endTime, restCount, totalRest,
+                longestRest);
+        insert.executeInsert();
     }
 
-    // EFFECTS: returns 1 for beginner routine, 2 for intermediate routine, and 3 for advance routine
-    public int getLatestRoutineID() {
-        db = this.getWritableDatabase();
-        orderBy = CURRENT_TIME_COL + " DESC";
-        cursor = db.query(DATA_TABLE, null, null, null, null, null, orderBy, "1");
-        int id = -1;
-
-        if (cursor != null && cursor.getCount() > 0) {
-            cursor.moveToFirst();
-            id = cursor.getInt(cursor.getColumnIndex(ROUTINE_ID));
-            cursor.close();
+    // EFFECTS: marks the stats of the date to be recomputed by adding a dirty placeholder row for the
+    //          routine ID -1, which no workout has. Needed for edits and deletions, which do not write
+    //          entries with a time after the watermark, and for entries inserted with a time before it.
+    //          The placeholder is removed with the other rows of the date when they are recomputed
+    private void markWorkoutStatsDirty(SQLiteDatabase db, String currentDate) {
+        SQLiteStatement insert = getStatement(MARK_WORKOUT_STATS_DIRTY_SQL);
+
+        bindArgs(insert, currentDate);
+        insert.executeInsert();
+    }
+
+    // EFFECTS: recomputes the summary of every date in DataTable, e.g. for databases that were
+    //          written before DailySummary existed
+    public void rebuildDailySummaries() {
+        SQLiteDatabase db = this.getWritableDatabase();
+
+        db.beginTransaction();
+        try {
+            rebuildDailySummaries(db);
+            db.setTransactionSuccessful();
+        } finally {
+            db.endTransaction();
         }
-        return id;
     }
 
-    //Returns the id of the latest routine done on the given date
-    public int getLatestRoutineByDate(String currentDate) {
-        db = this.getWritableDatabase();
-        orderBy = CURRENT_TIME_COL + " DESC";
-        selection = CURRENT_DATE_COL + " = '" + currentDate + "' ";
-        cursor = db.query(DATA_TABLE, null, selection, null, null, null, orderBy);
-        int routineid = -1;
-
-        if (cursor != null && cursor.getCount() > 0) {
-            cursor.moveToFirst();
-            routineid = cursor.getInt(cursor.getColumnIndex(ROUTINE_ID));
+    //Works on the given database so that it can also run from onUpgrade
+    private static void rebuildDailySummaries(SQLiteDatabase db) {
+        db.delete(DAILY_SUMMARY_TABLE, null, null);
+
+        //Compiled here rather than taken from the statement cache, which cannot be used from onUpgrade
+        SQLiteStatement replace = db.compileStatement(REPLACE_DAILY_SUMMARY_SQL);
+        Cursor cursor = db.rawQuery("SELECT DISTINCT " + CURRENT_DATE_COL + " FROM " + DATA_TABLE, null);
+        try {
+            while (cursor.moveToNext()) {
+                updateDailySummary(db, cursor.getString(0), replace);
+            }
+        } finally {
             cursor.close();
+            replace.close();
         }
-        return routineid;
     }
 
-    //Returns the workout num done on the given date
-    public int getWorkoutNumByDate(String table, String currentDate) {
-        int workoutExerciseID = getWorkoutExerciseIDByDate(currentDate);
-        db = this.getWritableDatabase();
-        selection = "ID = " + workoutExerciseID;
-        cursor = db.query(table, null, selection, null, null, null, null);
+    // EFFECTS: recomputes the summary of the given date from DataTable with the given compiled
+    //          REPLACE_DAILY_SUMMARY_SQL, removing it if the date has no entries left. Called after
+    //          every write to DataTable
+    private static void updateDailySummary(SQLiteDatabase db, String currentDate, SQLiteStatement replace) {
+        //Latest entry of the day gives the routine and the workout, like getLatestRoutineByDate does
+        Cursor cursor = db.rawQuery("SELECT " + ROUTINE_ID + ", " + WORKOUT_EXERCISE_ID + " FROM " + DATA_TABLE
+                + " WHERE " + CURRENT_DATE_COL + " = ?"
+                + " ORDER BY " + CURRENT_TIME_COL + " DESC LIMIT 1", new String[]{currentDate});
+        int routineID = -1;
+        int workoutExerciseID = -1;
+
+        if (cursor.moveToFirst()) {
+            routineID = cursor.getInt(0);
+            workoutExerciseID = cursor.getInt(1);
+        }
+        cursor.close();
+
+        if (routineID == -1) {
+            db.delete(DAILY_SUMMARY_TABLE, CURRENT_DATE_COL + " = ?", new String[]{currentDate});
+            return;
+        }
+
+        String table = RoutineTemplate.forRoutine(routineID).getTable();
         int workoutNum = -1;
 
-        if (cursor != null && cursor.getCount() > 0) {
-            cursor.moveToFirst();
-            workoutNum = cursor.getInt(cursor.getColumnIndex("Workout"));
-            cursor.close();
+        cursor = db.rawQuery("SELECT " + WORKOUT_COL + " FROM " + table + " WHERE ID = ?",
+                new String[]{String.valueOf(workoutExerciseID)});
+        if (cursor.moveToFirst()) {
+            workoutNum = cursor.getInt(0);
         }
-        return workoutNum;
+        cursor.close();
+
+        byte[] capableWeights = toBytes(queryCapableWeights(db, routineID, currentDate));
+
+        bindArgs(replace, currentDate, routineID, workoutNum);
+        replace.bindBlob(4, capableWeights);
+        replace.executeInsert();
     }
 
-    //Returns an array of capable exercise weights from the given date and routineID
-    public double[] getCapableWeightArray(int routineID, String currentDate) {
-        db = this.getWritableDatabase();
-        Routine routine = new Routine(routineID);
-        String[] exerciseNames = routine.getExerciseNames();
-        String table = routine.getTable();
-        double[] weights;
+    private static byte[] toBytes(double[] values) {
+        ByteBuffer buffer = ByteBuffer.allocate(values.length * 8);
+
+        for (double value : values) {
+            buffer.putDouble(value);
+        }
+        return buffer.array();
+    }
 
-        weights = new double[exerciseNames.length];
+    private static double[] toDoubles(byte[] bytes) {
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        double[] values = new double[bytes.length / 8];
 
-        for (int i = 0; i < exerciseNames.length; i++) {
-            weights[i] = getCapableWeightByDate(table, routineID, exerciseNames[i], currentDate);
+        for (int i = 0; i < values.length; i++) {
+            values[i] = buffer.getDouble();
         }
+        return values;
+    }
+
+    // EFFECTS: returns the capable weights of every exercise of the routine on the given date, -1 for
+    //          exercises without entries
+    private static double[] queryCapableWeights(SQLiteDatabase db, int routineID, String currentDate) {
+        RoutineTemplate template = RoutineTemplate.forRoutine(routineID);
+        String[] exerciseNames = template.getExerciseNames();
+        String table = template.getTable();
+        double[] weights = new double[exerciseNames.length];
+        boolean[] found = new boolean[exerciseNames.length];
+
+        Arrays.fill(weights, -1);
+
+        //Fetches every entry of that day in a single JOIN instead of one query per exercise
+        String query = "SELECT " + EXERCISE_COL + ", " + CAPABLE_WEIGHT_COL + " FROM " + DATA_TABLE
+                + " INNER JOIN " + table + " ON DataTable.WorkoutExerciseID = " + table
+                + ".ID WHERE " + CURRENT_DATE_COL + " = ?"
+                + " AND " + ROUTINE_ID + " = ?"
+                + " ORDER BY " + CURRENT_TIME_COL + " ASC";
+        Cursor cursor = db.rawQuery(query, new String[]{currentDate, String.valueOf(routineID)});
 
+        //Rows are oldest first, so the first row of each exercise holds its capable weight
+        if (cursor.moveToFirst()) {
+            int exerciseIndex = cursor.getColumnIndex(EXERCISE_COL);
+            int weightIndex = cursor.getColumnIndex(CAPABLE_WEIGHT_COL);
+
+            do {
+                int i = template.indexOfExerciseName(cursor.getString(exerciseIndex));
+
+                if (i != -1 && !found[i]) {
+                    weights[i] = cursor.getDouble(weightIndex);
+                    found[i] = true;
+                }
+            } while (cursor.moveToNext());
+        }
+        cursor.close();
         return weights;
     }
 
     // EFFECTS: given beg/int/adv table and an exercise name, returns a double representing the
     //          weight that the user is capable of lifting
     public double getCapableWeightRecent(String table, String exerciseName, int routineID, int workoutNum, String date) {
-        db = this.getWritableDatabase();
         int workoutExerciseID = getWorkoutExerciseID(table, exerciseName, workoutNum);
 
         //If the current day has entries, use the oldest entries from that day as capable weight
@@ -298,128 +869,77 @@ public class DatabaseHelper extends SQLiteOpenHelper {
             return getCapableWeightByDate(table, routineID, exerciseName, date);
         }
 
-        String query = "SELECT CapableWeight FROM DataTable INNER JOIN " + table +
-                " ON DataTable.WorkoutExerciseID = " + table +
-                ".ID WHERE Exercise = " + "'" + exerciseName + "' " + "ORDER BY " + CURRENT_TIME_COL + " DESC";
-        cursor = db.rawQuery(query, null);
-        double weight = -1;
-
-        if (cursor != null && cursor.getCount() > 0) {
-            cursor.moveToFirst();
-            weight = cursor.getDouble(cursor.getColumnIndex(CAPABLE_WEIGHT_COL));
-            cursor.close();
-        }
-        return weight;
+        String query = "SELECT " + CAPABLE_WEIGHT_COL + " FROM " + DATA_TABLE + " INNER JOIN " + table
+                + " ON DataTable.WorkoutExerciseID = " + table
+                + ".ID WHERE " + EXERCISE_COL + " = ?"
+                + " ORDER BY " + CURRENT_TIME_COL + " DESC LIMIT 1";
+        return queryForDouble(query, -1, exerciseName);
     }
 
-    private double getCapableWeightByDate(String table, int routineID, String exerciseName, String currentDate) {
-        db = this.getWritableDatabase();
-        String query = "SELECT CapableWeight FROM DataTable INNER JOIN " + table +
-                " ON DataTable.WorkoutExerciseID = " + table +
-                ".ID WHERE Exercise LIKE '" + exerciseName
-                + "' AND " + CURRENT_DATE_COL + " LIKE '" + currentDate
-                + "' AND " + ROUTINE_ID + " = " + routineID
-                + " ORDER BY " + CURRENT_TIME_COL + " ASC";
-        cursor = db.rawQuery(query, null);
-        double weight = -1;
-
-        if (cursor != null && cursor.getCount() > 0) {
-            cursor.moveToFirst();
-            weight = cursor.getDouble(cursor.getColumnIndex(CAPABLE_WEIGHT_COL));
-            cursor.close();
-        }
-        return weight;
+    // EFFECTS: returns the capable weight of the oldest entry of the exercise on the given date, -1 if
+    //          there is none. getCapableWeightArray used to run this once per exercise, so tests and
+    //          benchmarks compare the two
+    double getCapableWeightByDate(String table, int routineID, String exerciseName, String currentDate) {
+        String query = "SELECT " + CAPABLE_WEIGHT_COL + " FROM " + DATA_TABLE + " INNER JOIN " + table
+                + " ON DataTable.WorkoutExerciseID = " + table
+                + ".ID WHERE " + EXERCISE_COL + " LIKE ?"
+                + " AND " + CURRENT_DATE_COL + " = ?"
+                + " AND " + ROUTINE_ID + " = ?"
+                + " ORDER BY " + CURRENT_TIME_COL + " ASC LIMIT 1";
+        return queryForDouble(query, -1, exerciseName, currentDate, routineID);
     }
 
     //Returns true if the most recent entry in DataTable for that exercise is -1
     //since AskingForWeights puts -1 in DataTable as weight done
     public boolean wasExerciseReset(String table, String exerciseName) {
-        db = this.getWritableDatabase();
         String shortenedName = exerciseName.substring(0, exerciseName.length() - 1);
         String query = "SELECT " + WEIGHT_COL + " FROM " + DATA_TABLE
-                + " INNER JOIN " + table + " ON DataTable.WorkoutExerciseID = " + table +
-                ".ID WHERE " + EXERCISE_COL + " LIKE '" + exerciseName
-                + "' OR " + EXERCISE_COL + " LIKE '" + shortenedName
-                + "' ORDER BY " + CURRENT_TIME_COL + " DESC";
-        cursor = db.rawQuery(query, null);
-        int weight = -1;
-
-        if (cursor != null && cursor.getCount() > 0) {
-            cursor.moveToFirst();
-            weight = cursor.getInt(cursor.getColumnIndex(WEIGHT_COL));
-            cursor.close();
-        }
+                + " INNER JOIN " + table + " ON DataTable.WorkoutExerciseID = " + table
+                + ".ID WHERE " + EXERCISE_COL + " LIKE ?"
+                + " OR " + EXERCISE_COL + " LIKE ?"
+                + " ORDER BY " + CURRENT_TIME_COL + " DESC LIMIT 1";
 
-        return weight == -1;
+        return queryForLong(query, -1, exerciseName, shortenedName) == -1;
     }
 
     //Checks if database contains any entries with the current date and workoutExerciseID
     public boolean haveEntriesBeenEntered(String currentDate, int routineID, int workoutExerciseID) {
-        int count;
-        db = this.getWritableDatabase();
-        selection = CURRENT_DATE_COL + " = '" + currentDate + "' AND " + ROUTINE_ID + " = " + routineID + " AND " + WORKOUT_EXERCISE_ID + " = " + workoutExerciseID;
-        cursor = db.query(DATA_TABLE, null, selection, null, null, null, null);
-
-        cursor.moveToFirst();
-        count = cursor.getCount();
-        cursor.close();
-        return count != 0;
+        return queryForLong(ENTRIES_ENTERED_SQL, 0, currentDate, routineID, workoutExerciseID) != 0;
     }
 
     //Returns true if there are entries in DataTable containing the given date and routineID
     public boolean isThereDataFromToday(String currentDate, int routineID) {
-        int count;
-        db = this.getWritableDatabase();
-        selection = CURRENT_DATE_COL + " LIKE '" + currentDate + "'";
-
-        if (routineID != -1) {
-            selection += " AND " + ROUTINE_ID + " = " + routineID;
+        if (routineID == -1) {
+            return queryForLong(DATA_FROM_DATE_SQL, 0, currentDate) != 0;
         }
-
-        cursor = db.query(DATA_TABLE, null, selection, null, null, null, null);
-
-        cursor.moveToFirst();
-        count = cursor.getCount();
-        cursor.close();
-        return count != 0;
+        return queryForLong(DATA_FROM_DATE_AND_ROUTINE_SQL, 0, currentDate, routineID) != 0;
     }
 
     public void deleteTodaysData(String currentDate) {
-        db = this.getWritableDatabase();
-        selection = CURRENT_DATE_COL + " LIKE '" + currentDate + "'";
-        db.delete(DATA_TABLE, selection, null);
+        SQLiteDatabase db = this.getWritableDatabase();
+        db.beginTransaction();
+        try {
+            db.delete(DATA_TABLE, CURRENT_DATE_COL + " = ?", new String[]{currentDate});
+            db.delete(REST_INTERVAL_TABLE, CURRENT_DATE_COL + " = ?", new String[]{currentDate});
+            updateDailySummary(db, currentDate, getStatement(REPLACE_DAILY_SUMMARY_SQL));
+            markWorkoutStatsDirty(db, currentDate);
+            db.setTransactionSuccessful();
+        } finally {
+            db.endTransaction();
+        }
+        RoutineCache.invalidate();
     }
 
     //Returns true if the exercise in that workout contains any entries in DataTable
     public boolean isThereDataInExercise(String table, String exerciseName, int workoutNum, int routineID, String date) {
-        db = this.getWritableDatabase();
         int workoutExerciseID = getWorkoutExerciseID(table, exerciseName, workoutNum);
-        String query = "SELECT * FROM " + DATA_TABLE + " WHERE "
-                + WORKOUT_EXERCISE_ID + " = " + workoutExerciseID
-                + " AND " + CURRENT_DATE_COL + " LIKE '" + date
-                + "' AND " + ROUTINE_ID + " = " + routineID;
-
-        cursor = db.rawQuery(query, null);
-
-        cursor.moveToFirst();
-        int count = cursor.getCount();
-        cursor.close();
-        return count != 0;
+        return haveEntriesBeenEntered(date, routineID, workoutExerciseID);
     }
 
     // EFFECTS: returns a list of reps done for the given exercise on the given date
     public List<Integer> getRepsByExerciseAndDate(String table, String exerciseName, int workoutNum, int routineID, String currentDate) {
-        db = this.getWritableDatabase();
-        long time = getTimeOfNewProgram(routineID);
-        int workoutExerciseID = getWorkoutExerciseID(table, exerciseName, workoutNum);
+        Cursor cursor = queryExerciseEntries(REPS_COL, table, exerciseName, workoutNum, routineID, currentDate);
         List<Integer> reps = new ArrayList<>();
-        String query = "SELECT " + REPS_COL + " FROM " + DATA_TABLE + " WHERE "
-                + WORKOUT_EXERCISE_ID + " = " + workoutExerciseID
-                + " AND " + CURRENT_DATE_COL + " LIKE '" + currentDate
-                + "' AND " + ROUTINE_ID + " = " + routineID
-                + " AND " + CURRENT_TIME_COL + " > " + time
-                + " ORDER BY " + CURRENT_TIME_COL + " DESC";
-        cursor = db.rawQuery(query, null);
 
         if (cursor.moveToFirst()) {
             while (!cursor.isAfterLast()) {
@@ -428,22 +948,14 @@ public class DatabaseHelper extends SQLiteOpenHelper {
                 cursor.moveToNext();
             }
         }
+        cursor.close();
         return reps;
     }
 
     // EFFECTS: returns a list of weights done for the given exercise on the given date
     public List<Double> getWeightByExerciseAndDate(String table, String exerciseName, int workoutNum, int routineID, String currentDate) {
-        db = this.getWritableDatabase();
-        int workoutExerciseID = getWorkoutExerciseID(table, exerciseName, workoutNum);
-        long time = getTimeOfNewProgram(routineID);
+        Cursor cursor = queryExerciseEntries(WEIGHT_COL, table, exerciseName, workoutNum, routineID, currentDate);
         List<Double> weights = new ArrayList<>();
-        String query = "SELECT " + WEIGHT_COL + " FROM " + DATA_TABLE + " WHERE "
-                + WORKOUT_EXERCISE_ID + " = " + workoutExerciseID
-                + " AND " + CURRENT_DATE_COL + " LIKE '" + currentDate
-                + "' AND " + ROUTINE_ID + " = " + routineID
-                + " AND " + CURRENT_TIME_COL + " > " + time
-                + " ORDER BY " + CURRENT_TIME_COL + " DESC";
-        cursor = db.rawQuery(query, null);
 
         if (cursor.moveToFirst()) {
             while (!cursor.isAfterLast()) {
@@ -452,15 +964,16 @@ public class DatabaseHelper extends SQLiteOpenHelper {
                 cursor.moveToNext();
             }
         }
+        cursor.close();
         return weights;
     }
 
     //Returns all unique date strings from DataTable
     public List<String> returnAllDistinctDates() {
-        db = this.getWritableDatabase();
+        SQLiteDatabase db = this.getReadableDatabase();
         List<String> dates = new ArrayList<>();
         String query = "SELECT DISTINCT " + CURRENT_DATE_COL + " FROM " + DATA_TABLE;
-        cursor = db.rawQuery(query, null);
+        Cursor cursor = db.rawQuery(query, null);
 
         if (cursor.moveToFirst()) {
             do {
@@ -473,83 +986,210 @@ public class DatabaseHelper extends SQLiteOpenHelper {
         return dates;
     }
 
+    //Returns the unique date strings from DataTable from startDate (inclusive) to endDate (exclusive)
+    public List<String> returnDistinctDatesBetween(String startDate, String endDate) {
+        SQLiteDatabase db = this.getReadableDatabase();
+        List<String> dates = new ArrayList<>();
+        String query = "SELECT DISTINCT " + CURRENT_DATE_COL + " FROM " + DATA_TABLE
+                + " WHERE " + CURRENT_DATE_COL + " >= ? AND " + CURRENT_DATE_COL + " < ?";
+        Cursor cursor = db.rawQuery(query, new String[]{startDate, endDate});
+
+        if (cursor.moveToFirst()) {
+            do {
+                dates.add(cursor.getString(0));
+            } while (cursor.moveToNext());
+        }
+        cursor.close();
+        return dates;
+    }
+
     //Gets the latest workout number from beg/int/adv tables using the latest workoutExerciseID
     public int getLatestWorkout(String table) {
         int workoutExerciseID = getLatestWorkoutExerciseID();
-        db = this.getWritableDatabase();
-        selection = "ID = " + workoutExerciseID;
-        cursor = db.query(table, null, selection, null, null, null, null);
-        int workoutNum = -1;
+        return getWorkoutNum(table, workoutExerciseID);
+    }
+
+    //Inserts the exercise and workout number into the given beg/int/adv table if it is not there yet
+    private boolean insertRoutineData(String table, int workout, String exercise) {
+        if (getWorkoutExerciseID(table, exercise, workout) != -1) {
+            return false;
+        }
+        SQLiteStatement insert = getStatement("INSERT INTO " + table
+                + " (" + WORKOUT_COL + ", " + EXERCISE_COL + ") VALUES (?, ?)");
+        long result;
+
+        bindArgs(insert, workout, exercise);
+        result = insert.executeInsert();
+        return !(result == -1);
+    }
 
-        if (cursor != null && cursor.getCount() > 0) {
-            cursor.moveToFirst();
-            workoutNum = cursor.getInt(cursor.getColumnIndex("Workout"));
+    // EFFECTS: updates the entries with the matching date and workoutExerciseID with the new weights
+    //          and reps, then inserts the sets that do not have an entry yet with the current time.
+    //          The entries keep their time, which is when the set was done, so edits change neither
+    //          the order of the sets nor the rests between them. Must run inside a transaction
+    private void updateSets(SQLiteDatabase db, long currentTime, int numSets, String currentDate, int routineID, int workoutExerciseID, double[] weights, int[] reps, double capableWeight) {
+        long newProgramTime = getTimeOfNewProgram(routineID);
+        String selection = CURRENT_DATE_COL + " = ?"
+                + " AND " + ROUTINE_ID + " = ?"
+                + " AND " + WORKOUT_EXERCISE_ID + " = ?"
+                + " AND " + CURRENT_TIME_COL + " > ?";
+        String[] selectionArgs = {currentDate, String.valueOf(routineID),
+                String.valueOf(workoutExerciseID), String.valueOf(newProgramTime)};
+        String orderBy = CURRENT_TIME_COL + " ASC, ID ASC";
+        Cursor cursor = db.query(DATA_TABLE, new String[]{"ID"}, selection, selectionArgs, null, null, orderBy);
+        SQLiteStatement update = getStatement(UPDATE_SET_SQL);
+        int updated = 0;
+
+        //Updates the existing entries in order with the new corresponding weights and reps value
+        try {
+            int idIndex = cursor.getColumnIndex("ID");
+
+            while (updated < numSets && cursor.moveToNext()) {
+                bindArgs(update, weights[updated], reps[updated], capableWeight, cursor.getLong(idIndex));
+                update.executeUpdateDelete();
+                updated++;
+            }
+        } finally {
             cursor.close();
         }
-        return workoutNum;
+
+        //If there are more sets than entries that were updated, the rest of the sets are inserted
+        insertSets(currentTime, currentDate, routineID, workoutExerciseID, weights, reps, updated, numSets, capableWeight);
     }
 
-    //Gets the latest workoutExerciseID from DataTable
-    private int getLatestWorkoutExerciseID() {
-        db = this.getWritableDatabase();
-        orderBy = CURRENT_TIME_COL + " DESC";
-        cursor = db.query(DATA_TABLE, null, null, null, null, null, orderBy, "1");
-        int workoutExerciseID = -1;
+    // EFFECTS: inserts the sets from index start (inclusive) to end (exclusive) with one compiled statement
+    private void insertSets(long currentTime, String currentDate, int routineID, int workoutExerciseID, double[] weights, int[] reps, int start, int end, double capableWeight) {
+        SQLiteStatement insert = getStatement(INSERT_DATA_SQL);
 
-        if (cursor != null && cursor.getCount() > 0) {
-            cursor.moveToFirst();
-            workoutExerciseID = cursor.getInt(cursor.getColumnIndex(WORKOUT_EXERCISE_ID));
-            cursor.close();
+        for (int i = start; i < end; i++) {
+            bindArgs(insert, currentTime, currentDate, routineID, workoutExerciseID, weights[i], reps[i], capableWeight);
+            insert.executeInsert();
         }
-        return workoutExerciseID;
+    }
+
+    // EFFECTS: returns a cursor over the given column of the entries for the exercise on the given
+    //          date since the latest new program, last set first
+    private Cursor queryExerciseEntries(String column, String table, String exerciseName, int workoutNum, int routineID, String currentDate) {
+        long time = getTimeOfNewProgram(routineID);
+        int workoutExerciseID = getWorkoutExerciseID(table, exerciseName, workoutNum);
+        String query = "SELECT " + column + " FROM " + DATA_TABLE + " WHERE "
+                + WORKOUT_EXERCISE_ID + " = ?"
+                + " AND " + CURRENT_DATE_COL + " = ?"
+                + " AND " + ROUTINE_ID + " = ?"
+                + " AND " + CURRENT_TIME_COL + " > ?"
+                + " ORDER BY " + CURRENT_TIME_COL + " DESC, ID DESC";
+
+        return getReadableDatabase().rawQuery(query, new String[]{String.valueOf(workoutExerciseID), currentDate,
+                String.valueOf(routineID), String.valueOf(time)});
+    }
+
+    //Returns the workout number of the given workoutExerciseID in a beg/int/adv table
+    private int getWorkoutNum(String table, int workoutExerciseID) {
+        String query = "SELECT " + WORKOUT_COL + " FROM " + table + " WHERE ID = ?";
+        return (int) queryForLong(query, -1, workoutExerciseID);
+    }
+
+    //Gets the latest workoutExerciseID from DataTable
+    private int getLatestWorkoutExerciseID() {
+        return (int) queryForLong(LATEST_WORKOUT_EXERCISE_SQL, -1);
     }
 
     //Gets latest time that new program was pressed
     private long getTimeOfNewProgram(int routineID) {
-        db = this.getWritableDatabase();
-        orderBy = CURRENT_TIME_COL + " DESC";
-        selection = ROUTINE_ID + " = " + routineID + " AND " + WEIGHT_COL + " = -1";
-        cursor = db.query(DATA_TABLE, null, selection, null, null, null, orderBy);
-        long time = -1;
-
-        if (cursor != null && cursor.getCount() > 0) {
-            cursor.moveToFirst();
-            time = cursor.getLong(cursor.getColumnIndex(CURRENT_TIME_COL));
-            cursor.close();
-        }
+        long time = queryForLong(TIME_OF_NEW_PROGRAM_SQL, -1, routineID);
+
         assert time != -1;
         return time;
     }
 
-    private long getCurrentTimeFromID(int id) {
-        db = this.getWritableDatabase();
-        String query = "SELECT " + CURRENT_TIME_COL + " FROM " + DATA_TABLE + " WHERE ID = " + id;
-        cursor = db.rawQuery(query, null);
-        long time;
+    private int getWorkoutExerciseIDByDate(String currentDate) {
+        return (int) queryForLong(WORKOUT_EXERCISE_BY_DATE_SQL, -1, currentDate);
+    }
 
-        if (cursor != null && cursor.getCount() > 0) {
-            cursor.moveToFirst();
-            time = cursor.getLong(cursor.getColumnIndex(CURRENT_TIME_COL));
-            cursor.close();
-        } else {
-            throw new AssertionError();
+    //Cached statements do not go through getReadableDatabase, so getStatement checks as well
+    private static void checkThread() {
+        if (mainThreadChecked && Looper.myLooper() == Looper.getMainLooper()) {
+            throw new IllegalStateException("database accessed on the main thread");
         }
+    }
 
-        return time;
+    //Some pragmas return a row, which execSQL does not allow, so they are run as a query
+    private static void runPragma(SQLiteDatabase db, String pragma) {
+        Cursor cursor = db.rawQuery("PRAGMA " + pragma, null);
+
+        cursor.moveToFirst();
+        cursor.close();
     }
 
-    private int getWorkoutExerciseIDByDate(String currentDate) {
-        db = this.getWritableDatabase();
-        orderBy = CURRENT_TIME_COL + " DESC";
-        selection = CURRENT_DATE_COL + " = '" + currentDate + "'";
-        cursor = db.query(DATA_TABLE, null, selection, null, null, null, orderBy);
-        int workoutExerciseID = -1;
+    // EFFECTS: returns the first column of the first row of the query, or defaultValue if there are no rows
+    private long queryForLong(String sql, long defaultValue, Object... args) {
+        SQLiteStatement statement = getStatement(sql);
 
-        if (cursor != null && cursor.getCount() > 0) {
-            cursor.moveToFirst();
-            workoutExerciseID = cursor.getInt(cursor.getColumnIndex(WORKOUT_EXERCISE_ID));
+        bindArgs(statement, args);
+        try {
+            return statement.simpleQueryForLong();
+        } catch (SQLiteDoneException e) {
+            return defaultValue;
+        }
+    }
+
+    // EFFECTS: returns the first column of the first row of the query as a double, or defaultValue
+    //          if there are no rows. SQLiteStatement can only return a REAL as text, which SQLite
+    //          rounds to 15 digits, so this reads it through a cursor. The connection's own statement
+    //          cache still reuses the compiled query, since the SQL never changes
+    private double queryForDouble(String sql, double defaultValue, Object... args) {
+        String[] selectionArgs = new String[args.length];
+
+        for (int i = 0; i < args.length; i++) {
+            selectionArgs[i] = String.valueOf(args[i]);
+        }
+        Cursor cursor = getReadableDatabase().rawQuery(sql, selectionArgs);
+        try {
+            return cursor.moveToFirst() && !cursor.isNull(0) ? cursor.getDouble(0) : defaultValue;
+        } finally {
             cursor.close();
         }
-        return workoutExerciseID;
+    }
+
+    // EFFECTS: returns this thread's compiled statement for the given SQL, compiling it the first time
+    //          the thread uses it
+    private SQLiteStatement getStatement(String sql) {
+        checkThread();
+        Map<String, SQLiteStatement> threadStatements = statements.get();
+        SQLiteStatement statement = threadStatements.get(sql);
+
+        if (statement == null) {
+            statement = getWritableDatabase().compileStatement(sql);
+            threadStatements.put(sql, statement);
+            synchronized (allStatements) {
+                allStatements.add(statement);
+            }
+        }
+        return statement;
+    }
+
+    private static ThreadLocal<Map<String, SQLiteStatement>> newStatements() {
+        return new ThreadLocal<Map<String, SQLiteStatement>>() {
+            @Override
+            protected Map<String, SQLiteStatement> initialValue() {
+                return new HashMap<>();
+            }
+        };
+    }
+
+    //Binds the arguments in order, so values never have to be concatenated into the SQL
+    private static void bindArgs(SQLiteStatement statement, Object... args) {
+        statement.clearBindings();
+        for (int i = 0; i < args.length; i++) {
+            Object arg = args[i];
+
+            if (arg instanceof String) {
+                statement.bindString(i + 1, (String) arg);
+            } else if (arg instanceof Double) {
+                statement.bindDouble(i + 1, (Double) arg);
+            } else {
+                statement.bindLong(i + 1, ((Number) arg).longValue());
+            }
+        }
     }
 }
@@ -0,0 +1,260 @@
+package com.example.fitnesslog;
+
+import android.content.Context;
+import android.os.Handler;
+import android.os.Looper;
+import android.os.MessageQueue;
+import android.util.Log;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+// Runs DatabaseHelper work off the main thread. Each activity owns one repository and cancels it
+// when it is destroyed, which drops queued reads and any results that have not been delivered yet.
+public class DatabaseRepository {
+
+    //Reads run in parallel on a small pool. Writes run one at a time in the order they were
+    //submitted. Idle threads are released again
+    private static final int READ_THREADS = 3;
+    private static final ExecutorService READ_EXECUTOR = createExecutor("fitness-db-read", READ_THREADS);
+    private static final ExecutorService WRITE_EXECUTOR = createExecutor("fitness-db-write", 1);
+
+    //Reads that take long, like exporting the history, run one at a time on their own thread so the
+    //calendar and the log never wait behind them for a read thread
+    private static final ExecutorService LONG_READ_EXECUTOR = createExecutor("fitness-db-long-read", 1);
+
+    //The last write that was submitted. Reads wait for it so they always see earlier writes
+    private static Future<?> lastWrite;
+
+    //Checkpoints the WAL once no write has been submitted for the configured delay
+    private static final Handler CHECKPOINT_HANDLER = new Handler(Looper.getMainLooper());
+
+    //Updates the workout stats once no write has been submitted for a moment, so the sets of one
+    //submit are processed together instead of after every write
+    private static final long WORKOUT_STATS_DELAY = 2000;
+    private static final Handler WORKOUT_STATS_HANDLER = new Handler(Looper.getMainLooper());
+
+    private final DatabaseHelper databaseHelper;
+    private final Handler mainHandler;
+    private final List<Future<?>> pendingReads;
+    private volatile boolean cancelled;
+
+    public interface Task<T> {
+        // EFFECTS: runs on the database thread, never on the main thread
+        T run(DatabaseHelper databaseHelper);
+    }
+
+    public interface Callback<T> {
+        // EFFECTS: runs on the main thread with the result of the task
+        void onResult(T result);
+    }
+
+    public interface FailureCallback {
+        // EFFECTS: runs on the main thread with the exception the task threw
+        void onFailure(RuntimeException e);
+    }
+
+    public DatabaseRepository(Context context) {
+        mainHandler = new Handler(Looper.getMainLooper());
+        pendingReads = new ArrayList<>();
+        databaseHelper = DatabaseHelper.getInstance(context);
+    }
+
+    // EFFECTS: runs the task on the database thread and passes its result to the callback on the
+    //          main thread. Nothing is delivered once the repository has been cancelled. A read that
+    //          fails is only logged
+    public <T> void read(Task<T> task, Callback<T> callback) {
+        read(task, callback, null);
+    }
+
+    // EFFECTS: like read(task, callback), but a read that fails passes its exception to onFailure on
+    //          the main thread instead, so the caller can undo what it set up for the result
+    public <T> void read(Task<T> task, Callback<T> callback, FailureCallback onFailure) {
+        submitRead(READ_EXECUTOR, task, callback, onFailure);
+    }
+
+    // EFFECTS: like read(task, callback), but on the long read thread instead of the read threads
+    public <T> void longRead(Task<T> task, Callback<T> callback) {
+        submitRead(LONG_READ_EXECUTOR, task, callback, null);
+    }
+
+    private <T> void submitRead(ExecutorService executor, final Task<T> task, final Callback<T> callback,
+                                final FailureCallback onFailure) {
+        if (cancelled) {
+            return;
+        }
+        final Future<?> precedingWrite = getLastWrite();
+        Future<?> future = executor.submit(new Runnable() {
+            @Override
+            public void run() {
+                awaitWrite(precedingWrite);
+                if (cancelled) {
+                    return;
+                }
+                final T result;
+                try {
+                    result = task.run(databaseHelper);
+                } catch (final RuntimeException e) {
+                    Log.e("myTag", "database read failed", e);
+                    if (onFailure != null) {
+                        mainHandler.post(new Runnable() {
+                            @Override
+                            public void run() {
+                                if (!cancelled) {
+                                    onFailure.onFailure(e);
+                                }
+                            }
+                        });
+                    }
+                    return;
+                }
+                mainHandler.post(new Runnable() {
+                    @Override
+                    public void run() {
+                        if (!cancelled) {
+                            callback.onResult(result);
+                        }
+                    }
+                });
+            }
+        });
+
+        synchronized (pendingReads) {
+            removeFinishedReads();
+            pendingReads.add(future);
+        }
+    }
+
+    // EFFECTS: runs the task on the database thread. Writes are never cancelled, so that data the
+    //          user submitted is saved even if the activity is destroyed right after
+    public void write(final Task<?> task) {
+        synchronized (DatabaseRepository.class) {
+            lastWrite = WRITE_EXECUTOR.submit(new Runnable() {
+                @Override
+                public void run() {
+                    try {
+                        task.run(databaseHelper);
+                    } catch (RuntimeException e) {
+                        Log.e("myTag", "database write failed", e);
+                    }
+                }
+            });
+        }
+        scheduleWorkoutStats(databaseHelper);
+        scheduleCheckpoint(databaseHelper);
+    }
+
+    // EFFECTS: drops queued reads and results that have not been delivered yet. Called from onDestroy
+    public void cancel() {
+        cancelled = true;
+        synchronized (pendingReads) {
+            for (Future<?> future : pendingReads) {
+                future.cancel(false);
+            }
+            pendingReads.clear();
+        }
+        mainHandler.removeCallbacksAndMessages(null);
+    }
+
+    private void removeFinishedReads() {
+        Iterator<Future<?>> iterator = pendingReads.iterator();
+        while (iterator.hasNext()) {
+            if (iterator.next().isDone()) {
+                iterator.remove();
+            }
+        }
+    }
+
+    // EFFECTS: restarts the checkpoint delay. When it runs out, the checkpoint waits until the main
+    //          thread has nothing left to do and then runs after the pending writes
+    private static void scheduleCheckpoint(final DatabaseHelper databaseHelper) {
+        DatabaseConfig config = databaseHelper.getConfig();
+
+        if (!config.checkpointsWhenIdle()) {
+            return;
+        }
+        scheduleWhenIdle(CHECKPOINT_HANDLER, config.getIdleCheckpointDelay(), new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    databaseHelper.checkpoint();
+                } catch (RuntimeException e) {
+                    Log.e("myTag", "checkpoint failed", e);
+                }
+            }
+        });
+    }
+
+    // EFFECTS: restarts the workout stats delay, after which the stats job processes what was written
+    //          since its last run
+    private static void scheduleWorkoutStats(final DatabaseHelper databaseHelper) {
+        scheduleWhenIdle(WORKOUT_STATS_HANDLER, WORKOUT_STATS_DELAY, new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    databaseHelper.updateWorkoutStats();
+                } catch (RuntimeException e) {
+                    Log.e("myTag", "workout stats failed", e);
+                }
+            }
+        });
+    }
+
+    // EFFECTS: runs the work on the write thread once the delay has passed without another call for
+    //          the same handler and the main thread has nothing left to do
+    private static void scheduleWhenIdle(Handler handler, long delay, final Runnable work) {
+        handler.removeCallbacksAndMessages(null);
+        handler.postDelayed(new Runnable() {
+            @Override
+            public void run() {
+                Looper.myQueue().addIdleHandler(new MessageQueue.IdleHandler() {
+                    @Override
+                    public boolean queueIdle() {
+                        WRITE_EXECUTOR.execute(work);
+                        return false;
+                    }
+                });
+            }
+        }, delay);
+    }
+
+    private static synchronized Future<?> getLastWrite() {
+        return lastWrite;
+    }
+
+    //Blocks the read thread until the given write has finished
+    private static void awaitWrite(Future<?> write) {
+        if (write == null) {
+            return;
+        }
+        try {
+            write.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            Log.e("myTag", "database write failed", e);
+        }
+    }
+
+    private static ExecutorService createExecutor(final String name, int threads) {
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(threads, threads, 30, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<Runnable>(), new ThreadFactory() {
+            @Override
+            public Thread newThread(Runnable runnable) {
+                Thread thread = new Thread(runnable, name);
+                thread.setPriority(Thread.NORM_PRIORITY - 1);
+                return thread;
+            }
+        });
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+}
@@ -1,9 +1,5 @@
 package com.example.fitnesslog;
 
-import java.util.ArrayList;
-import java.util.Arrays;
-import java.util.List;
-
 public class DefaultWeights {
 
     //Default weights that are assigned when checkbox for exercises in NewProgramActivity are unchecked
@@ -34,25 +30,27 @@ public class DefaultWeights {
     public static final double LATERAL_RAISE = 10;
     public static final double FACE_PULLS = 10;
 
-    public static final List<Double> defaultWeights = new ArrayList<>(Arrays.asList(
+    //In the order of each routine's exercise names
+    public static final double[] BEGINNER = {
             BENCH_PRESS_BEGINNER,
             OVERHEAD_PRESS_BEGINNER,
             SQUAT_BEGINNER,
             DEADLIFT_BEGINNER,
-            BARBELL_ROW_BEGINNER,
+            BARBELL_ROW_BEGINNER};
 
+    public static final double[] INTERMEDIATE = {
             BENCH_PRESS_INTERMEDIATE,
             OVERHEAD_PRESS_INTERMEDIATE,
             SQUAT_INTERMEDIATE,
             DEADLIFT_INTERMEDIATE,
-            BARBELL_ROW_INTERMEDIATE,
+            BARBELL_ROW_INTERMEDIATE};
 
+    public static final double[] ADVANCED = {
             BENCH_PRESS_ADVANCED,
             OVERHEAD_PRESS_ADVANCED,
             SQUAT_ADVANCED,
             DEADLIFT_ADVANCED,
             BARBELL_ROW_ADVANCED,
-
             INCLINE_DUMBBELL_PRESS,
             LAT_PULLDOWN,
             BARBELL_CURL,
@@ -60,6 +58,5 @@ public class DefaultWeights {
             ROPE_PULLDOWN,
             OVERHEAD_TRICEP_EXTENSION,
             LATERAL_RAISE,
-            FACE_PULLS
-    ));
+            FACE_PULLS};
 }
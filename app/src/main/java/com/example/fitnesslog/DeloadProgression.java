@@ -0,0 +1,54 @@
+package com.example.fitnesslog;
+
+// Follows another engine, but every interval-th session is a deload at a fraction of its goal weight
+// that does not move the capable weight
+public class DeloadProgression implements ProgressionEngine {
+
+    private final ProgressionEngine base;
+    private final int interval;
+    private final double factor;
+
+    // REQUIRES: interval > 0
+    public DeloadProgression(ProgressionEngine base, int interval, double factor) {
+        this.base = base;
+        this.interval = interval;
+        this.factor = factor;
+    }
+
+    @Override
+    public double getStartingWeight(int nameIndex, double enteredWeight) {
+        return base.getStartingWeight(nameIndex, enteredWeight);
+    }
+
+    @Override
+    public double getGoalWeight(ProgressionTable table, int slot, double capableWeight, int session) {
+        double goalWeight = base.getGoalWeight(table, slot, capableWeight, session);
+        return isDeload(session) ? ProgressionTable.round(goalWeight * factor) : goalWeight;
+    }
+
+    @Override
+    public double getNextCapableWeight(ProgressionTable table, int slot, double capableWeight, boolean passed, int session) {
+        if (isDeload(session)) {
+            return capableWeight;
+        }
+        return base.getNextCapableWeight(table, slot, capableWeight, passed, session);
+    }
+
+    @Override
+    public double getExerciseGoalWeight(double weight, double percentage, int increment, int session) {
+        double goalWeight = base.getExerciseGoalWeight(weight, percentage, increment, session);
+        return isDeload(session) ? ProgressionTable.round(goalWeight * factor) : goalWeight;
+    }
+
+    @Override
+    public double getNextExerciseWeight(double weight, double liftedWeight, boolean passed, int session) {
+        if (isDeload(session)) {
+            return weight;
+        }
+        return base.getNextExerciseWeight(weight, liftedWeight, passed, session);
+    }
+
+    private boolean isDeload(int session) {
+        return session % interval == interval - 1;
+    }
+}
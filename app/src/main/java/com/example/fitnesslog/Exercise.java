@@ -3,64 +3,82 @@ package com.example.fitnesslog;
 import android.os.Parcel;
 import android.os.Parcelable;
 
-import java.util.ArrayList;
-import java.util.Collections;
-import java.util.List;
+import java.util.Arrays;
 
 public class Exercise implements Parcelable {
 
     private String name;
 
-    private List<Integer> actualRepsDone;
-    private List<Integer> goalReps;
-    private List<Double> actualWeightList;
+    //The routine whose progression engine moves the weights, and how many times the exercise was
+    //done before in the block
+    private int routineID;
+    private int session;
 
+    //Sets done by the user. Reps are kept in descending order as they are added, weights are kept in
+    //the order they were done, and only the first numSetsDone entries are used
+    private int[] actualRepsDone;
+    private double[] actualWeights;
+    private int numSetsDone;
+
+    //Goal reps in descending order. Shared with the routine's ProgressionTable, so never changed
+    private int[] goalReps;
+
+    //Exercises that no sets have been added to yet do not allocate their set arrays
+    private static final int[] NO_REPS = new int[0];
+    private static final double[] NO_WEIGHTS = new double[0];
+
+    //The weight the goal weight is based on, and what it was before the last increase
+    private double weight;
+    private double weightBeforeIncrease;
     private double goalWeight;
 
     private int increment;
     private double percentage;
 
+    //Updated as sets are added, so passOrFail and getNewCapableWeight do not go over the sets
     private boolean pass;
+    private boolean repsComplete;
+    private double minWeight;
+
     private boolean weightIncreased;
 
-    public Exercise(String name, double weight, int increment, double percentage, List<Integer> reps) {
+    // EFFECTS: creates the exercise in the first session of a block, see setSession
+    public Exercise(String name, int routineID, double weight, int increment, double percentage, int[] reps) {
         this.name = name;
+        this.routineID = routineID;
         this.increment = increment;
         this.percentage = percentage;
-        goalWeight = weight * percentage + increment;
-        actualRepsDone = new ArrayList<>();
-        actualWeightList = new ArrayList<>();
-        goalReps = reps;
-        pass = true;
+        setActualAndGoalWeight(weight);
+        weightBeforeIncrease = weight;
+        goalReps = isDescending(reps) ? reps : sortDescending(reps.clone());
+        actualRepsDone = NO_REPS;
+        actualWeights = NO_WEIGHTS;
         weightIncreased = false;
+        removeRepsDone();
     }
 
     //Making Exercise class Parcelable
     public Exercise(Parcel in) {
         name = in.readString();
-        if (in.readByte() == 0x01) {
-            actualRepsDone = new ArrayList<Integer>();
-            in.readList(actualRepsDone, Integer.class.getClassLoader());
-        } else {
-            actualRepsDone = null;
-        }
-        if (in.readByte() == 0x01) {
-            goalReps = new ArrayList<Integer>();
-            in.readList(goalReps, Integer.class.getClassLoader());
-        } else {
-            goalReps = null;
-        }
-        if (in.readByte() == 0x01) {
-            actualWeightList = new ArrayList<Double>();
-            in.readList(actualWeightList, Double.class.getClassLoader());
-        } else {
-            actualWeightList = null;
-        }
+        routineID = in.readInt();
+        session = in.readInt();
+        weight = in.readDouble();
+        weightBeforeIncrease = in.readDouble();
+        actualRepsDone = in.createIntArray();
+        goalReps = in.createIntArray();
+        actualWeights = in.createDoubleArray();
+        numSetsDone = actualWeights.length;
         goalWeight = in.readDouble();
         increment = in.readInt();
         percentage = in.readDouble();
         pass = in.readByte() != 0x00;
         weightIncreased = in.readByte() != 0x00;
+
+        minWeight = Double.POSITIVE_INFINITY;
+        for (double weight : actualWeights) {
+            minWeight = Math.min(minWeight, weight);
+        }
+        repsComplete = completeExercise();
     }
 
     @Override
@@ -71,24 +89,13 @@ public class Exercise implements Parcelable {
     @Override
     public void writeToParcel(Parcel dest, int flags) {
         dest.writeString(name);
-        if (actualRepsDone == null) {
-            dest.writeByte((byte) (0x00));
-        } else {
-            dest.writeByte((byte) (0x01));
-            dest.writeList(actualRepsDone);
-        }
-        if (goalReps == null) {
-            dest.writeByte((byte) (0x00));
-        } else {
-            dest.writeByte((byte) (0x01));
-            dest.writeList(goalReps);
-        }
-        if (actualWeightList == null) {
-            dest.writeByte((byte) (0x00));
-        } else {
-            dest.writeByte((byte) (0x01));
-            dest.writeList(actualWeightList);
-        }
+        dest.writeInt(routineID);
+        dest.writeInt(session);
+        dest.writeDouble(weight);
+        dest.writeDouble(weightBeforeIncrease);
+        dest.writeIntArray(Arrays.copyOf(actualRepsDone, numSetsDone));
+        dest.writeIntArray(goalReps);
+        dest.writeDoubleArray(Arrays.copyOf(actualWeights, numSetsDone));
         dest.writeDouble(goalWeight);
         dest.writeInt(increment);
         dest.writeDouble(percentage);
@@ -116,38 +123,69 @@ public class Exercise implements Parcelable {
         if (weight < goalWeight) {
             pass = false;
         }
-        actualWeightList.add(weight);
-        actualRepsDone.add(reps);
+        if (numSetsDone == actualWeights.length) {
+            int capacity = Math.max(goalReps.length, 2 * numSetsDone + 1);
+            actualWeights = Arrays.copyOf(actualWeights, capacity);
+            actualRepsDone = Arrays.copyOf(actualRepsDone, capacity);
+        }
+        actualWeights[numSetsDone] = weight;
+        minWeight = Math.min(minWeight, weight);
+
+        //Inserting the reps in descending order
+        int i = numSetsDone;
+        while (i > 0 && actualRepsDone[i - 1] < reps) {
+            actualRepsDone[i] = actualRepsDone[i - 1];
+            i--;
+        }
+        actualRepsDone[i] = reps;
+        numSetsDone++;
+        repsComplete = completeExercise();
     }
 
     // EFFECTS: empties all user input for weight and reps
     public void removeRepsDone() {
-        actualWeightList.clear();
-        actualRepsDone.clear();
+        numSetsDone = 0;
         pass = true;
+        repsComplete = goalReps.length == 0;
+        minWeight = Double.POSITIVE_INFINITY;
     }
 
     // EFFECTS: if user passed the prescribed goal reps/sets/weight, and set the new capable
-    //          and goal weight
+    //          and goal weight the way the routine's progression engine moves them
     public void increaseWeight() {
         if (passOrFail()) {
-            setActualAndGoalWeight(getNewCapableWeight());
+            weightBeforeIncrease = weight;
+            setActualAndGoalWeight(getEngine().getNextExerciseWeight(weight, getNewCapableWeight(), true, session));
         }
     }
 
+    // EFFECTS: goes back to the capable and goal weight from before the last increaseWeight, so sets
+    //          that are submitted again are not counted twice
+    public void undoIncrease() {
+        setActualAndGoalWeight(weightBeforeIncrease);
+    }
+
     public double getGoalWeight() {
         return goalWeight;
     }
 
-    public void setGoalWeight(double d) {
-        goalWeight = d;
+    public int getSession() {
+        return session;
+    }
+
+    // EFFECTS: sets how many times the exercise was done before in the current block, which decides
+    //          the goal weight of engines that change from session to session
+    public void setSession(int session) {
+        this.session = session;
+        setActualAndGoalWeight(weight);
     }
 
     public String getName() {
         return name;
     }
 
-    public List<Integer> getGoalReps() {
+    // EFFECTS: returns the goal reps of every set in descending order. Must not be changed
+    public int[] getGoalReps() {
         return goalReps;
     }
 
@@ -160,7 +198,7 @@ public class Exercise implements Parcelable {
     }
 
     public boolean passOrFail() {
-        return pass && completeExercise();
+        return pass && repsComplete;
     }
 
     public boolean isWeightIncreased() {
@@ -173,20 +211,18 @@ public class Exercise implements Parcelable {
 
     // EFFECTS: returns the capable weight that was used to determine the goal weight
     public double getCapableWeight() {
-        return (goalWeight - increment) / percentage;
+        return weight;
     }
 
     // EFFECTS: Determines if an exercise is complete. Returns false if the required number of sets
     //          is not done or if any of the reps done by the user is less than required. Otherwise,
-    //          returns true
+    //          returns true. Both reps arrays are already in descending order
     private boolean completeExercise() {
-        if (actualRepsDone.size() < goalReps.size()) {
+        if (numSetsDone < goalReps.length) {
             return false;
         }
-        Collections.sort(actualRepsDone, Collections.<Integer>reverseOrder());
-        Collections.sort(goalReps, Collections.<Integer>reverseOrder());
-        for (int i = 0; i < goalReps.size(); i++) {
-            if (actualRepsDone.get(i) < goalReps.get(i)) {
+        for (int i = 0; i < goalReps.length; i++) {
+            if (actualRepsDone[i] < goalReps[i]) {
                 return false;
             }
         }
@@ -195,12 +231,35 @@ public class Exercise implements Parcelable {
 
     // EFFECTS: sets the weight that the user is capable of lifting and sets the goal weight
     private void setActualAndGoalWeight(double weight) {
-        goalWeight = weight * percentage + increment;
+        this.weight = weight;
+        goalWeight = getEngine().getExerciseGoalWeight(weight, percentage, increment, session);
+    }
+
+    private ProgressionEngine getEngine() {
+        return ProgressionEngines.get(routineID);
     }
 
     // EFFECTS: returns the lowest weight completed by the user in the current workout
     private double getNewCapableWeight() {
-        Collections.sort(actualWeightList);
-        return actualWeightList.get(0);
+        return minWeight;
+    }
+
+    private static boolean isDescending(int[] values) {
+        for (int i = 1; i < values.length; i++) {
+            if (values[i - 1] < values[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static int[] sortDescending(int[] values) {
+        Arrays.sort(values);
+        for (int i = 0, j = values.length - 1; i < j; i++, j--) {
+            int value = values[i];
+            values[i] = values[j];
+            values[j] = value;
+        }
+        return values;
     }
 }
@@ -1,29 +1,22 @@
 package com.example.fitnesslog;
 
-import java.util.ArrayList;
-import java.util.Arrays;
-import java.util.List;
-
+//The names that the capable weights of each routine are indexed by
 public class ExerciseNames {
-    public static final List<String> BEGINNER_NAMES_LIST = new ArrayList<>(Arrays.asList(
+    public static final String[] BEGINNER_NAMES = {
             "Bench Press",
             "Overhead Press",
             "Squat",
             "Deadlift",
-            "Barbell Row"));
-
-    public static final String[] BEGINNER_NAMES = getStringArray(BEGINNER_NAMES_LIST);
+            "Barbell Row"};
 
-    public static final List<String> INTERMEDIATE_NAMES_LIST = new ArrayList<>(Arrays.asList(
+    public static final String[] INTERMEDIATE_NAMES = {
             "Bench Press",
             "Overhead Press",
             "Squat",
             "Deadlift",
-            "Barbell Row"));
-
-    public static final String[] INTERMEDIATE_NAMES = getStringArray(INTERMEDIATE_NAMES_LIST);
+            "Barbell Row"};
 
-    public static final List<String> ADVANCED_NAMES_LIST = new ArrayList<>(Arrays.asList(
+    public static final String[] ADVANCED_NAMES = {
             "Bench Press",
             "Overhead Press",
             "Squat",
@@ -36,16 +29,5 @@ public class ExerciseNames {
             "Rope Pulldown",
             "Overhead Tricep Extension",
             "Lateral Raise",
-            "Face Pulls"));
-
-    public static final String[] ADVANCED_NAMES = getStringArray(ADVANCED_NAMES_LIST);
-
-    //Turning String List to String[]
-    private static String[] getStringArray(List<String> exerciseNameList) {
-        String[] exerciseNames = new String[exerciseNameList.size()];
-        for (int i = 0; i < exerciseNames.length; i++) {
-            exerciseNames[i] = exerciseNameList.get(i);
-        }
-        return exerciseNames;
-    }
+            "Face Pulls"};
 }
@@ -0,0 +1,73 @@
+package com.example.fitnesslog;
+
+import android.app.Application;
+import android.util.Log;
+
+import com.example.fitnesslog.parsers.ExerciseParser;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
+
+public class FitnessLogApplication extends Application {
+
+    //Definitions of the routines' programs, see ExerciseParser for the format
+    public static final String PROGRAMS_ASSET = "programs.json";
+
+    @Override
+    public void onCreate() {
+        super.onCreate();
+        loadPrograms();
+    }
+
+    // EFFECTS: replaces the built in routine templates with the programs in the assets before any
+    //          activity creates a Routine. The compiled catalog is used if it can be read, otherwise the
+    //          JSON definitions are parsed. If neither can be read the built in templates are kept
+    private void loadPrograms() {
+        List<RoutineTemplate> templates;
+
+        try {
+            templates = ProgramCatalog.read(ProgramCatalog.open(getAssets()));
+        } catch (IOException | RuntimeException e) {
+            Log.e("myTag", "could not load " + ProgramCatalog.ASSET, e);
+            templates = parsePrograms();
+        }
+
+        if (templates != null) {
+            registerPrograms(templates);
+        }
+    }
+
+    // EFFECTS: registers the programs, skipping the ones whose routine ID has no tables so they can't
+    //          keep the others from loading
+    static void registerPrograms(List<RoutineTemplate> templates) {
+        for (RoutineTemplate template : templates) {
+            try {
+                RoutineTemplate.register(template);
+            } catch (IllegalArgumentException e) {
+                Log.e("myTag", "skipped program " + template.getName(), e);
+            }
+        }
+    }
+
+    // EFFECTS: returns the programs in the JSON definitions, or null if they cannot be read
+    private List<RoutineTemplate> parsePrograms() {
+        InputStream in = null;
+
+        try {
+            in = getAssets().open(PROGRAMS_ASSET);
+            return new ExerciseParser().parse(in);
+        } catch (IOException | RuntimeException e) {
+            Log.e("myTag", "could not load " + PROGRAMS_ASSET, e);
+            return null;
+        } finally {
+            if (in != null) {
+                try {
+                    in.close();
+                } catch (IOException e) {
+                    Log.e("myTag", "could not close " + PROGRAMS_ASSET, e);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,170 @@
+package com.example.fitnesslog;
+
+import android.database.Cursor;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+
+// Writes every entry of DataTable, with the workout and exercise of its routine's table, to an
+// OutputStream as CSV or as newline delimited JSON. The entries are read in pages of PAGE_SIZE, each
+// page starting after the last entry of the one before, so a cursor never holds more than one page
+// and every line is written as soon as it is read. The memory used is the same for any number of
+// entries. Entries that are written while the export runs may or may not be in it
+public class HistoryExporter {
+
+    public static final String CSV = "csv";
+    public static final String NDJSON = "ndjson";
+
+    public static final String CSV_HEADER = "time,date,routine,workout,exercise,weight,reps,capable_weight";
+
+    //Small enough that a page fits into one cursor window, large enough that the query is rarely run
+    static final int PAGE_SIZE = 1024;
+
+    private static final int BUFFER_SIZE = 16 * 1024;
+
+    private final DatabaseHelper databaseHelper;
+
+    //Every line is built here and then copied into chars, so no String is made of the whole line. The
+    //date and exercise still come from the cursor as Strings
+    private final StringBuilder line = new StringBuilder(256);
+    private char[] chars = new char[256];
+
+    public HistoryExporter(DatabaseHelper databaseHelper) {
+        this.databaseHelper = databaseHelper;
+    }
+
+    // REQUIRES: format is CSV or NDJSON
+    // EFFECTS: writes the history to out in UTF-8 and returns the number of entries written. The
+    //          output is flushed but not closed
+    public long export(OutputStream out, String format) throws IOException {
+        boolean csv = CSV.equals(format);
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, "UTF-8"), BUFFER_SIZE);
+        long afterTime = Long.MIN_VALUE;
+        long afterID = -1;
+        long count = 0;
+        int pageCount;
+
+        if (csv) {
+            writer.write(CSV_HEADER);
+            writer.write('\n');
+        }
+        do {
+            Cursor cursor = databaseHelper.queryHistoryPage(afterTime, afterID, PAGE_SIZE);
+            pageCount = 0;
+
+            try {
+                while (cursor.moveToNext()) {
+                    line.setLength(0);
+                    if (csv) {
+                        appendCsv(cursor);
+                    } else {
+                        appendJson(cursor);
+                    }
+                    writeLine(writer);
+
+                    afterID = cursor.getLong(0);
+                    afterTime = cursor.getLong(1);
+                    pageCount++;
+                }
+            } finally {
+                cursor.close();
+            }
+            count += pageCount;
+        } while (pageCount == PAGE_SIZE);
+
+        writer.flush();
+        return count;
+    }
+
+    private void appendCsv(Cursor cursor) {
+        line.append(cursor.getLong(1)).append(',');
+        appendCsvString(cursor.getString(2));
+        line.append(',').append(cursor.getInt(3)).append(',');
+        if (!cursor.isNull(4)) {
+            line.append(cursor.getInt(4));
+        }
+        line.append(',');
+        appendCsvString(cursor.getString(5));
+        line.append(',').append(cursor.getDouble(6))
+                .append(',').append(cursor.getInt(7))
+                .append(',').append(cursor.getDouble(8));
+    }
+
+    private void appendJson(Cursor cursor) {
+        line.append("{\"time\":").append(cursor.getLong(1)).append(",\"date\":");
+        appendJsonString(cursor.getString(2));
+        line.append(",\"routine\":").append(cursor.getInt(3)).append(",\"workout\":");
+        if (cursor.isNull(4)) {
+            line.append("null");
+        } else {
+            line.append(cursor.getInt(4));
+        }
+        line.append(",\"exercise\":");
+        appendJsonString(cursor.getString(5));
+        line.append(",\"weight\":").append(cursor.getDouble(6))
+                .append(",\"reps\":").append(cursor.getInt(7))
+                .append(",\"capableWeight\":").append(cursor.getDouble(8))
+                .append('}');
+    }
+
+    // EFFECTS: appends the value, quoted if it has a comma, quote or line break. Null is left empty
+    private void appendCsvString(String value) {
+        if (value == null) {
+            return;
+        }
+        boolean quoted = false;
+
+        for (int i = 0; i < value.length() && !quoted; i++) {
+            char c = value.charAt(i);
+            quoted = c == ',' || c == '"' || c == '\n' || c == '\r';
+        }
+        if (!quoted) {
+            line.append(value);
+            return;
+        }
+        line.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+
+            if (c == '"') {
+                line.append('"');
+            }
+            line.append(c);
+        }
+        line.append('"');
+    }
+
+    private void appendJsonString(String value) {
+        if (value == null) {
+            line.append("null");
+            return;
+        }
+        line.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+
+            if (c == '"' || c == '\\') {
+                line.append('\\').append(c);
+            } else if (c < 0x20) {
+                line.append("\\u00").append(Character.forDigit(c >> 4, 16)).append(Character.forDigit(c & 0xf, 16));
+            } else {
+                line.append(c);
+            }
+        }
+        line.append('"');
+    }
+
+    private void writeLine(Writer writer) throws IOException {
+        line.append('\n');
+
+        int length = line.length();
+        if (length > chars.length) {
+            chars = new char[Math.max(length, 2 * chars.length)];
+        }
+        line.getChars(0, length, chars, 0);
+        writer.write(chars, 0, length);
+    }
+}
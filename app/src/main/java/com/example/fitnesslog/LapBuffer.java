@@ -0,0 +1,90 @@
+package com.example.fitnesslog;
+
+// The latest laps of the stopwatch in a ring of longs. Once it is full every new lap overwrites the
+// oldest one, so a long session keeps a fixed amount of memory. Laps are numbered from 1 in the order
+// they were taken, including the ones that were overwritten, and index 0 is always the newest lap
+public class LapBuffer {
+
+    //Stopwatch time of every lap, the time the stopwatch was at when the lap was taken
+    private final long[] splits;
+
+    private int next;
+    private int size;
+    private int count;
+
+    //Split of the last lap that was overwritten, so the oldest lap kept still knows its length
+    private long overwrittenSplit;
+
+    // REQUIRES: capacity > 0
+    public LapBuffer(int capacity) {
+        splits = new long[capacity];
+    }
+
+    // EFFECTS: adds a lap at the given stopwatch time, overwriting the oldest lap if the buffer is full,
+    //          and returns the length of the new lap
+    public long add(long split) {
+        long lapTime = split - getLatestSplit();
+
+        if (size == splits.length) {
+            overwrittenSplit = splits[next];
+        } else {
+            size++;
+        }
+        splits[next] = split;
+        next = (next + 1) % splits.length;
+        count++;
+        return lapTime;
+    }
+
+    public void clear() {
+        next = 0;
+        size = 0;
+        count = 0;
+        overwrittenSplit = 0;
+    }
+
+    // EFFECTS: returns the number of laps that are kept
+    public int size() {
+        return size;
+    }
+
+    public int getCapacity() {
+        return splits.length;
+    }
+
+    public boolean isFull() {
+        return size == splits.length;
+    }
+
+    // EFFECTS: returns the number of laps taken since the last clear, including overwritten ones
+    public int getCount() {
+        return count;
+    }
+
+    // REQUIRES: 0 <= index < size()
+    // EFFECTS: returns the number of the lap, starting from 1 for the first lap taken
+    public int getNumber(int index) {
+        return count - index;
+    }
+
+    // REQUIRES: 0 <= index < size()
+    public long getSplit(int index) {
+        return splits[slot(index)];
+    }
+
+    // REQUIRES: 0 <= index < size()
+    // EFFECTS: returns the time between the lap and the one before it
+    public long getLapTime(int index) {
+        long previous = index + 1 < size ? splits[slot(index + 1)] : overwrittenSplit;
+        return getSplit(index) - previous;
+    }
+
+    // EFFECTS: returns the split of the newest lap, or 0 if there is none
+    public long getLatestSplit() {
+        return size == 0 ? 0 : getSplit(0);
+    }
+
+    private int slot(int index) {
+        return (next - 1 - index + 2 * splits.length) % splits.length;
+    }
+}
@@ -0,0 +1,59 @@
+package com.example.fitnesslog;
+
+// Adds the slot's increment after every passed session. A new program can start from a fraction of
+// the entered weights for the first few exercise names
+public class LinearProgression implements ProgressionEngine {
+
+    private final double startingFactor;
+    private final int reducedNames;
+
+    public LinearProgression() {
+        this(1, 0);
+    }
+
+    // EFFECTS: the first reducedNames exercise names start at startingFactor of the entered weight,
+    //          rounded to the nearest 5
+    public LinearProgression(double startingFactor, int reducedNames) {
+        this.startingFactor = startingFactor;
+        this.reducedNames = reducedNames;
+    }
+
+    // EFFECTS: returns the goal weight for an exercise with the given capable weight, percentage and
+    //          increment
+    public static double getGoalWeight(double capableWeight, double percentage, int increment) {
+        return capableWeight * percentage + increment;
+    }
+
+    @Override
+    public double getStartingWeight(int nameIndex, double enteredWeight) {
+        if (nameIndex < reducedNames) {
+            return ProgressionTable.round(enteredWeight * startingFactor);
+        }
+        return enteredWeight;
+    }
+
+    @Override
+    public double getGoalWeight(ProgressionTable table, int slot, double capableWeight, int session) {
+        return getGoalWeight(table.getSlotWeight(slot, capableWeight), table.getPercentage(slot), table.getIncrement(slot));
+    }
+
+    //Only slots with an increment move the capable weight, the others are percentages of it
+    @Override
+    public double getNextCapableWeight(ProgressionTable table, int slot, double capableWeight, boolean passed, int session) {
+        if (passed && table.getIncrement(slot) > 0) {
+            return capableWeight + table.getIncrement(slot);
+        }
+        return capableWeight;
+    }
+
+    @Override
+    public double getExerciseGoalWeight(double weight, double percentage, int increment, int session) {
+        return getGoalWeight(weight, percentage, increment);
+    }
+
+    //A passed exercise continues from the weight that was lifted
+    @Override
+    public double getNextExerciseWeight(double weight, double liftedWeight, boolean passed, int session) {
+        return passed ? liftedWeight : weight;
+    }
+}
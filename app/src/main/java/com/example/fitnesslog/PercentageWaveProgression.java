@@ -0,0 +1,51 @@
+package com.example.fitnesslog;
+
+// Works up through a wave of percentages of the goal weight of another engine, e.g. 85%, 90%, 95%,
+// and only moves the capable weight on when the last session of a wave is passed
+public class PercentageWaveProgression implements ProgressionEngine {
+
+    private final ProgressionEngine base;
+    private final double[] wave;
+
+    // REQUIRES: wave is not empty
+    public PercentageWaveProgression(ProgressionEngine base, double[] wave) {
+        this.base = base;
+        this.wave = wave.clone();
+    }
+
+    @Override
+    public double getStartingWeight(int nameIndex, double enteredWeight) {
+        return base.getStartingWeight(nameIndex, enteredWeight);
+    }
+
+    @Override
+    public double getGoalWeight(ProgressionTable table, int slot, double capableWeight, int session) {
+        double goalWeight = base.getGoalWeight(table, slot, capableWeight, session / wave.length);
+        return ProgressionTable.round(goalWeight * wave[session % wave.length]);
+    }
+
+    @Override
+    public double getNextCapableWeight(ProgressionTable table, int slot, double capableWeight, boolean passed, int session) {
+        if (session % wave.length != wave.length - 1) {
+            return capableWeight;
+        }
+        return base.getNextCapableWeight(table, slot, capableWeight, passed, session / wave.length);
+    }
+
+    @Override
+    public double getExerciseGoalWeight(double weight, double percentage, int increment, int session) {
+        double goalWeight = base.getExerciseGoalWeight(weight, percentage, increment, session / wave.length);
+        return ProgressionTable.round(goalWeight * wave[session % wave.length]);
+    }
+
+    //The lifted weight is taken back to the base engine's scale before it is passed on
+    @Override
+    public double getNextExerciseWeight(double weight, double liftedWeight, boolean passed, int session) {
+        int step = session % wave.length;
+
+        if (step != wave.length - 1) {
+            return weight;
+        }
+        return base.getNextExerciseWeight(weight, liftedWeight / wave[step], passed, session / wave.length);
+    }
+}
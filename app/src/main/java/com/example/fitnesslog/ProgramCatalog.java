@@ -0,0 +1,177 @@
+package com.example.fitnesslog;
+
+import android.content.res.AssetFileDescriptor;
+import android.content.res.AssetManager;
+
+import java.io.ByteArrayOutputStream;
+import java.io.FileInputStream;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.List;
+
+// The programs of assets/programs.json compiled into a binary catalog when the app is built, see
+// compileProgramCatalog in app/programs.gradle. The catalog is read from a memory mapped view of the
+// asset with absolute gets, so loading the programs does not tokenize any text or create objects
+// other than the strings and arrays that the templates keep. All values are big endian:
+//
+//  int magic, int version, int programCount, then for every program:
+//    int id, string name
+//    int exerciseCount, then for every exercise: string name, double defaultWeight
+//    int slotCount, then for every slot: string name, int nameIndex, double multiplier, byte round,
+//        int increment, double percentage, int goalRepCount, int goalReps...
+//    int workoutCount, then for every workout: int slotCount, int slots...
+//
+// where a string is a short length followed by that many UTF-16 chars
+public class ProgramCatalog {
+
+    public static final String ASSET = "programs.bin";
+
+    static final int MAGIC = 0x464C5043;
+    static final int VERSION = 1;
+
+    private final ByteBuffer buffer;
+    private int position;
+
+    //Reused for every string, since the strings are copied when they are created
+    private char[] chars = new char[64];
+
+    private ProgramCatalog(ByteBuffer buffer) {
+        this.buffer = buffer;
+    }
+
+    // EFFECTS: maps the catalog asset. Assets that are compressed in the APK cannot be mapped and are
+    //          read into memory instead, which app/build.gradle avoids with noCompress
+    public static ByteBuffer open(AssetManager assets) throws IOException {
+        AssetFileDescriptor descriptor;
+
+        try {
+            descriptor = assets.openFd(ASSET);
+        } catch (FileNotFoundException e) {
+            return readFully(assets.open(ASSET));
+        }
+
+        FileInputStream in = descriptor.createInputStream();
+        try {
+            return in.getChannel().map(FileChannel.MapMode.READ_ONLY, descriptor.getStartOffset(),
+                    descriptor.getLength());
+        } finally {
+            in.close();
+            descriptor.close();
+        }
+    }
+
+    // EFFECTS: returns the templates in the catalog in the order they were defined. Throws IOException
+    //          if the buffer is not a catalog of this version or ends early
+    public static List<RoutineTemplate> read(ByteBuffer buffer) throws IOException {
+        ProgramCatalog catalog = new ProgramCatalog(buffer);
+
+        try {
+            if (catalog.nextInt() != MAGIC || catalog.nextInt() != VERSION) {
+                throw new IOException("Not a program catalog of version " + VERSION);
+            }
+
+            int programs = catalog.nextInt();
+            List<RoutineTemplate> templates = new ArrayList<>(programs);
+            for (int i = 0; i < programs; i++) {
+                templates.add(catalog.nextProgram());
+            }
+            return templates;
+        } catch (BufferUnderflowException | IndexOutOfBoundsException | NegativeArraySizeException
+                | IllegalArgumentException e) {
+            throw new IOException("Corrupt program catalog", e);
+        }
+    }
+
+    private RoutineTemplate nextProgram() {
+        int routineID = nextInt();
+        String name = nextString();
+
+        String[] exerciseNames = new String[nextInt()];
+        double[] defaultWeights = new double[exerciseNames.length];
+        for (int i = 0; i < exerciseNames.length; i++) {
+            exerciseNames[i] = nextString();
+            defaultWeights[i] = nextDouble();
+        }
+
+        int slots = nextInt();
+        ProgressionTable.Builder table = new ProgressionTable.Builder(slots);
+        for (int slot = 0; slot < slots; slot++) {
+            String slotName = nextString();
+            int nameIndex = nextInt();
+            double multiplier = nextDouble();
+            boolean round = buffer.get(position++) != 0;
+            int increment = nextInt();
+            double percentage = nextDouble();
+
+            if (nameIndex < 0 || nameIndex >= exerciseNames.length) {
+                throw new IllegalArgumentException(slotName);
+            }
+            table.add(slotName, nameIndex, multiplier, round, increment, percentage, nextInts());
+        }
+
+        int[][] workoutSlots = new int[nextInt()][];
+        for (int w = 0; w < workoutSlots.length; w++) {
+            workoutSlots[w] = nextInts();
+            for (int slot : workoutSlots[w]) {
+                if (slot < 0 || slot >= slots) {
+                    throw new IllegalArgumentException(name);
+                }
+            }
+        }
+        return new RoutineTemplate(routineID, name, exerciseNames, defaultWeights, table.build(), workoutSlots);
+    }
+
+    private int nextInt() {
+        int value = buffer.getInt(position);
+        position += 4;
+        return value;
+    }
+
+    private double nextDouble() {
+        double value = buffer.getDouble(position);
+        position += 8;
+        return value;
+    }
+
+    private int[] nextInts() {
+        int[] values = new int[nextInt()];
+
+        for (int i = 0; i < values.length; i++) {
+            values[i] = nextInt();
+        }
+        return values;
+    }
+
+    private String nextString() {
+        int length = buffer.getShort(position) & 0xffff;
+        position += 2;
+
+        if (length > chars.length) {
+            chars = new char[length];
+        }
+        for (int i = 0; i < length; i++, position += 2) {
+            chars[i] = buffer.getChar(position);
+        }
+        return new String(chars, 0, length);
+    }
+
+    private static ByteBuffer readFully(InputStream in) throws IOException {
+        try {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            byte[] bytes = new byte[8192];
+            int count;
+
+            while ((count = in.read(bytes)) != -1) {
+                out.write(bytes, 0, count);
+            }
+            return ByteBuffer.wrap(out.toByteArray());
+        } finally {
+            in.close();
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package com.example.fitnesslog;
+
+// Decides how the weights of a routine move from one session to the next. A session is the n-th time
+// a slot of the routine's ProgressionTable is done, counted from 0 at the start of a block
+public interface ProgressionEngine {
+
+    // EFFECTS: returns the capable weight a new program starts from, given the weight the user entered
+    //          for the exercise name at nameIndex
+    double getStartingWeight(int nameIndex, double enteredWeight);
+
+    // EFFECTS: returns the goal weight of the slot in the given session
+    double getGoalWeight(ProgressionTable table, int slot, double capableWeight, int session);
+
+    // EFFECTS: returns the capable weight of the slot's exercise name after the given session
+    double getNextCapableWeight(ProgressionTable table, int slot, double capableWeight, boolean passed, int session);
+
+    // EFFECTS: returns the goal weight in the given session of an Exercise that is based on weight, with
+    //          the percentage and increment of its slot
+    double getExerciseGoalWeight(double weight, double percentage, int increment, int session);
+
+    // EFFECTS: returns the weight an Exercise is based on after the given session, where liftedWeight
+    //          is the lowest weight of the sets that were done
+    double getNextExerciseWeight(double weight, double liftedWeight, boolean passed, int session);
+}
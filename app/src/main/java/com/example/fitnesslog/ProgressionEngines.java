@@ -0,0 +1,55 @@
+package com.example.fitnesslog;
+
+// The progression engine of every routine, and projections of a block of sessions with it
+public class ProgressionEngines {
+
+    //Indexed by routine ID. The advanced program starts the compound lifts at 88% of the entered weight
+    private static final ProgressionEngine[] engines = {
+            null,
+            new LinearProgression(),
+            new LinearProgression(),
+            new LinearProgression(.88, 5)};
+
+    // EFFECTS: returns the engine registered for the routine
+    public static synchronized ProgressionEngine get(int routineID) {
+        if (routineID < 1 || routineID >= engines.length) {
+            throw new RuntimeException();
+        }
+        return engines[routineID];
+    }
+
+    // EFFECTS: replaces the engine of the routine
+    public static synchronized void register(int routineID, ProgressionEngine engine) {
+        if (routineID < 1 || routineID >= engines.length) {
+            throw new RuntimeException();
+        }
+        engines[routineID] = engine;
+    }
+
+    // EFFECTS: returns the goal weights of the routine's slots for the given number of sessions if
+    //          every session is passed, in one pass over the slots of each session. The goal weight of
+    //          slot s in session n is at index n * slots + s
+    public static double[] projectBlock(int routineID, double[] capableWeights, int sessions) {
+        ProgressionEngine engine = get(routineID);
+        ProgressionTable table = ProgressionTable.forRoutine(routineID);
+        int slots = table.size();
+        double[] capable = capableWeights.clone();
+        double[] next = capableWeights.clone();
+        double[] goalWeights = new double[sessions * slots];
+
+        for (int session = 0, offset = 0; session < sessions; session++, offset += slots) {
+            for (int slot = 0; slot < slots; slot++) {
+                int nameIndex = table.getNameIndex(slot);
+                double capableWeight = capable[nameIndex];
+
+                goalWeights[offset + slot] = engine.getGoalWeight(table, slot, capableWeight, session);
+                double nextWeight = engine.getNextCapableWeight(table, slot, capableWeight, true, session);
+                if (nextWeight != capableWeight) {
+                    next[nameIndex] = nextWeight;
+                }
+            }
+            System.arraycopy(next, 0, capable, 0, capable.length);
+        }
+        return goalWeights;
+    }
+}
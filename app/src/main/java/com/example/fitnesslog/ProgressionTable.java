@@ -0,0 +1,208 @@
+package com.example.fitnesslog;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// The exercises of a routine as constants: for every exercise (a slot) the name, which capable weight
+// it is based on, the multiplier of that weight, whether the result is rounded, and the increment,
+// percentage and goal reps that the Exercise is created with. The tables are built once per process
+// instead of on every Routine construction. The built in tables below are used until the programs in
+// the app's assets are loaded, see ExerciseParser. A table is shared by every Routine of its program,
+// so it can only be filled through a Builder and nothing it returns can change it
+public class ProgressionTable {
+
+    public static final ProgressionTable BEGINNER = createBeginnerTable();
+    public static final ProgressionTable INTERMEDIATE = createIntermediateTable();
+    public static final ProgressionTable ADVANCED = createAdvancedTable();
+
+    private final String[] names;
+    private final int[] nameIndices;
+    private final double[] multipliers;
+    private final boolean[] rounded;
+    private final int[] increments;
+    private final double[] percentages;
+    private final int[][] goalReps;
+
+    private int size;
+
+    // Adds the slots of a table one after another. build() hands the table out once, after which the
+    // builder can't be used anymore
+    public static class Builder {
+
+        private ProgressionTable table;
+
+        public Builder(int capacity) {
+            table = new ProgressionTable(capacity);
+        }
+
+        // EFFECTS: adds the next slot, with a copy of the goal reps
+        public Builder add(String name, int nameIndex, double multiplier, boolean round, int increment,
+                           double percentage, int[] reps) {
+            table.add(name, nameIndex, multiplier, round, increment, percentage, reps.clone());
+            return this;
+        }
+
+        public ProgressionTable build() {
+            ProgressionTable built = table;
+            table = null;
+            return built;
+        }
+    }
+
+    private ProgressionTable(int capacity) {
+        names = new String[capacity];
+        nameIndices = new int[capacity];
+        multipliers = new double[capacity];
+        rounded = new boolean[capacity];
+        increments = new int[capacity];
+        percentages = new double[capacity];
+        goalReps = new int[capacity][];
+    }
+
+    // EFFECTS: returns the table of the routine with the given ID
+    public static ProgressionTable forRoutine(int routineID) {
+        return RoutineTemplate.forRoutine(routineID).getProgressionTable();
+    }
+
+    //Rounds exercise weight to nearest multiple of 5
+    public static double round(double weight) {
+        return 5 * Math.round(weight / 5);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public String getName(int slot) {
+        return names[slot];
+    }
+
+    // EFFECTS: returns the index of the capable weight (in the routine's exercise names) that the slot
+    //          is based on
+    public int getNameIndex(int slot) {
+        return nameIndices[slot];
+    }
+
+    // EFFECTS: returns the multiplier of the capable weight that the slot's weight is based on
+    public double getMultiplier(int slot) {
+        return multipliers[slot];
+    }
+
+    public boolean isRounded(int slot) {
+        return rounded[slot];
+    }
+
+    public int getIncrement(int slot) {
+        return increments[slot];
+    }
+
+    public double getPercentage(int slot) {
+        return percentages[slot];
+    }
+
+    // EFFECTS: returns a copy of the goal reps of the slot. The exercises created from the table share
+    //          the table's own array instead
+    public int[] getGoalReps(int slot) {
+        return goalReps[slot].clone();
+    }
+
+    // EFFECTS: returns the weight the slot's Exercise is created with for the given capable weight of
+    //          the name the slot is based on
+    public double getSlotWeight(int slot, double capableWeight) {
+        double weight = capableWeight * multipliers[slot];
+        return rounded[slot] ? round(weight) : weight;
+    }
+
+    // EFFECTS: creates the exercises of the routine with the given ID from its capable weights, in slot
+    //          order
+    public List<Exercise> createExercises(int routineID, double[] capableWeights) {
+        List<Exercise> exercises = new ArrayList<>(size);
+
+        for (int i = 0; i < size; i++) {
+            exercises.add(new Exercise(names[i], routineID, getSlotWeight(i, capableWeights[nameIndices[i]]),
+                    increments[i], percentages[i], goalReps[i]));
+        }
+        return exercises;
+    }
+
+    //Starting Strength: every exercise goes up by 5 after a successful workout
+    private static ProgressionTable createBeginnerTable() {
+        ProgressionTable table = new ProgressionTable(5);
+        int[] goalReps = {5, 5, 5};
+
+        table.add("Bench Press", 0, 1, false, 5, goalReps);
+        table.add("Overhead Press", 1, 1, false, 5, goalReps);
+        table.add("Squat", 2, 1, false, 5, goalReps);
+        table.add("Deadlift", 3, 1, false, 5, new int[]{5});
+        table.add("Barbell Row", 4, 1, false, 5, goalReps);
+        return table;
+    }
+
+    //Texas Method: the intensity day goes up by 5, the volume and light days are percentages of it
+    private static ProgressionTable createIntermediateTable() {
+        ProgressionTable table = new ProgressionTable(11);
+        int[] volumeDayGoalReps = {5, 5, 5, 5, 5};
+        int[] squatLightReps = {5, 5};
+        int[] lightDayGoalReps = {5, 5, 5};
+        int[] intensityDayGoalReps = {5};
+
+        table.add("Bench Press", 0, 1, false, 5, intensityDayGoalReps);
+        table.add("Bench Press1", 0, .9, true, 0, volumeDayGoalReps);
+        table.add("Bench Press2", 0, .81, true, 0, lightDayGoalReps);
+
+        table.add("Overhead Press", 1, 1, false, 5, intensityDayGoalReps);
+        table.add("Overhead Press1", 1, .9, true, 0, volumeDayGoalReps);
+        table.add("Overhead Press2", 1, .81, true, 0, lightDayGoalReps);
+
+        table.add("Squat", 2, 1, false, 5, intensityDayGoalReps);
+        table.add("Squat1", 2, .9, true, 0, volumeDayGoalReps);
+        table.add("Squat2", 2, .72, true, 0, squatLightReps);
+
+        table.add("Deadlift", 3, .9, true, 5, intensityDayGoalReps);
+
+        table.add("Barbell Row", 4, 1, false, 5, lightDayGoalReps);
+        return table;
+    }
+
+    //Push/pull/legs: compound lifts are rounded to the nearest 5, accessories are not
+    private static ProgressionTable createAdvancedTable() {
+        ProgressionTable table = new ProgressionTable(13);
+        String[] names = ExerciseNames.ADVANCED_NAMES;
+        int[] sevenReps = {7, 7, 7};
+        int[] tenReps = {10, 10, 10};
+        int[] twelveReps = {12, 12, 12};
+        int[] fiveReps = {5, 5, 5};
+
+        for (int i = 0; i < 2; i++) {
+            table.add(names[i], i, 1, true, 5, sevenReps);
+        }
+        for (int i = 2; i < 4; i++) {
+            table.add(names[i], i, 1, true, 5, fiveReps);
+        }
+        table.add(names[4], 4, 1, true, 5, sevenReps);
+        for (int i = 5; i < 7; i++) {
+            table.add(names[i], i, 1, false, 5, tenReps);
+        }
+        for (int i = 7; i < 13; i++) {
+            table.add(names[i], i, 1, false, 5, twelveReps);
+        }
+        return table;
+    }
+
+    private void add(String name, int nameIndex, double multiplier, boolean round, int increment, int[] reps) {
+        add(name, nameIndex, multiplier, round, increment, 1, reps);
+    }
+
+    // EFFECTS: adds the next slot. Only used while the table is built, before it is shared
+    private void add(String name, int nameIndex, double multiplier, boolean round, int increment,
+                    double percentage, int[] reps) {
+        names[size] = name;
+        nameIndices[size] = nameIndex;
+        multipliers[size] = multiplier;
+        rounded[size] = round;
+        increments[size] = increment;
+        percentages[size] = percentage;
+        goalReps[size] = reps;
+        size++;
+    }
+}
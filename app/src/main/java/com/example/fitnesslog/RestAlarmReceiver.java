@@ -0,0 +1,58 @@
+package com.example.fitnesslog;
+
+import android.app.PendingIntent;
+import android.content.BroadcastReceiver;
+import android.content.Context;
+import android.content.Intent;
+
+import androidx.core.app.NotificationCompat;
+import androidx.core.app.NotificationManagerCompat;
+
+import com.example.fitnesslog.activities.Stopwatch;
+
+// Tells the user that the rest between sets is over. It is started by the alarm RestTimerService
+// schedules, so nothing of the app has to run while the user rests
+public class RestAlarmReceiver extends BroadcastReceiver {
+
+    static final String EXTRA_EXERCISE = "EXERCISE";
+    static final String EXTRA_SET = "SET";
+
+    private static final int NOTIFICATION_ID = 2;
+
+    // EFFECTS: returns the alarm of a rest. There is only one rest at a time, so every call returns
+    //          the same alarm with the extras of the latest set
+    static PendingIntent createAlarm(Context context, String exerciseName, int setNum) {
+        Intent intent = new Intent(context, RestAlarmReceiver.class);
+
+        intent.putExtra(EXTRA_EXERCISE, exerciseName);
+        intent.putExtra(EXTRA_SET, setNum);
+        return PendingIntent.getBroadcast(context, 0, intent, PendingIntent.FLAG_UPDATE_CURRENT);
+    }
+
+    @Override
+    public void onReceive(Context context, Intent intent) {
+        String exerciseName = intent.getStringExtra(EXTRA_EXERCISE);
+        int setNum = intent.getIntExtra(EXTRA_SET, 0);
+
+        RestTimerService.createChannels(context);
+
+        Intent stopwatch = new Intent(context, Stopwatch.class);
+        PendingIntent contentIntent = PendingIntent.getActivity(context, 0, stopwatch,
+                PendingIntent.FLAG_UPDATE_CURRENT);
+
+        NotificationCompat.Builder builder = new NotificationCompat.Builder(context, RestTimerService.REST_CHANNEL_ID)
+                .setSmallIcon(android.R.drawable.ic_lock_idle_alarm)
+                .setContentTitle(context.getString(R.string.rest_over))
+                .setContentIntent(contentIntent)
+                .setAutoCancel(true)
+                .setDefaults(NotificationCompat.DEFAULT_ALL)
+                .setPriority(NotificationCompat.PRIORITY_HIGH)
+                .setCategory(NotificationCompat.CATEGORY_ALARM);
+
+        //The set that is next, since setNum is the set the rest came after
+        if (exerciseName != null) {
+            builder.setContentText(context.getString(R.string.rest_over_text, exerciseName, setNum + 1));
+        }
+        NotificationManagerCompat.from(context).notify(NOTIFICATION_ID, builder.build());
+    }
+}
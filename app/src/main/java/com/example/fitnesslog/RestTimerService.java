@@ -0,0 +1,312 @@
+package com.example.fitnesslog;
+
+import android.app.AlarmManager;
+import android.app.Notification;
+import android.app.NotificationChannel;
+import android.app.NotificationManager;
+import android.app.PendingIntent;
+import android.app.Service;
+import android.content.Context;
+import android.content.Intent;
+import android.content.SharedPreferences;
+import android.os.Binder;
+import android.os.Build;
+import android.os.IBinder;
+import android.os.SystemClock;
+
+import androidx.core.app.NotificationCompat;
+
+import com.example.fitnesslog.activities.Stopwatch;
+
+import java.util.Calendar;
+
+// Keeps the stopwatch and the rest between sets running while no screen shows them. The state is
+// only a few timestamps that are saved whenever they change, so the service does no work between
+// the user's actions and nothing is lost if its process is killed. The end of a rest is an
+// AlarmManager alarm handled by RestAlarmReceiver, so the rest does not need the service at all and
+// the device is woken only when the rest is over.
+//
+// Screens bind to the service and poll it, for example once per frame. While the stopwatch runs and
+// no screen is bound the service is in the foreground, with a notification whose chronometer is
+// drawn by the system. The laps of the stopwatch are kept here as well, and can be saved as the rests
+// of the day's workout
+public class RestTimerService extends Service {
+
+    //Rest between sets when the routine does not say otherwise
+    public static final long DEFAULT_REST_MILLIS = 3 * 60 * 1000;
+
+    //Laps kept for the stopwatch screen, older ones are only kept in the database if they are saved
+    public static final int MAX_LAPS = 100;
+
+    //The stopwatch notification is silent, the end of a rest is not
+    public static final String STOPWATCH_CHANNEL_ID = "stopwatch";
+    public static final String REST_CHANNEL_ID = "rest_timer";
+
+    static final String PREFERENCES = "rest_timer";
+    static final String KEY_ACCUMULATED = "accumulated";
+    static final String KEY_STARTED_AT = "started_at";
+    static final String KEY_RUNNING = "running";
+    static final String KEY_REST_STARTED_AT = "rest_started_at";
+    static final String KEY_REST_MILLIS = "rest_millis";
+    static final String KEY_REST_EXERCISE = "rest_exercise";
+    static final String KEY_REST_SET = "rest_set";
+    static final String KEY_SAVE_LAPS = "save_laps";
+
+    private static final int NOTIFICATION_ID = 1;
+
+    public class LocalBinder extends Binder {
+        public RestTimerService getService() {
+            return RestTimerService.this;
+        }
+    }
+
+    private final IBinder binder = new LocalBinder();
+    private final StopwatchClock clock = new StopwatchClock();
+    private final LapBuffer laps = new LapBuffer(MAX_LAPS);
+
+    private SharedPreferences preferences;
+    private DatabaseRepository repository;
+
+    private long restStartedAt;
+    private long restMillis;
+    private String restExercise;
+    private int restSet;
+
+    private boolean bound;
+    private boolean started;
+
+    @Override
+    public void onCreate() {
+        super.onCreate();
+        preferences = getSharedPreferences(PREFERENCES, Context.MODE_PRIVATE);
+        repository = new DatabaseRepository(this);
+        restore();
+
+        //The process was killed while the stopwatch ran, so the service has to be started again
+        if (clock.isRunning()) {
+            startService(new Intent(this, RestTimerService.class));
+        }
+    }
+
+    @Override
+    public void onDestroy() {
+        repository.cancel();
+        super.onDestroy();
+    }
+
+    @Override
+    public IBinder onBind(Intent intent) {
+        bound = true;
+        stopForeground(true);
+        return binder;
+    }
+
+    @Override
+    public void onRebind(Intent intent) {
+        bound = true;
+        stopForeground(true);
+    }
+
+    // EFFECTS: goes to the foreground if the stopwatch is still running once no screen shows it
+    @Override
+    public boolean onUnbind(Intent intent) {
+        bound = false;
+        updateForeground();
+        return true;
+    }
+
+    @Override
+    public int onStartCommand(Intent intent, int flags, int startId) {
+        started = true;
+        updateForeground();
+        return START_NOT_STICKY;
+    }
+
+    // EFFECTS: starts or resumes the stopwatch. The service is started as well, so it outlives the
+    //          screen that started it
+    public void start() {
+        clock.start(SystemClock.elapsedRealtime());
+        save();
+        if (!started) {
+            startService(new Intent(this, RestTimerService.class));
+        }
+    }
+
+    public void stop() {
+        clock.stop(SystemClock.elapsedRealtime());
+        save();
+        stopIfIdle();
+    }
+
+    // EFFECTS: resets the stopwatch and forgets its laps. Laps that were saved stay in the database
+    public void reset() {
+        clock.reset();
+        laps.clear();
+        save();
+        stopIfIdle();
+    }
+
+    public boolean isRunning() {
+        return clock.isRunning();
+    }
+
+    // EFFECTS: returns the time on the stopwatch. Only reads fields, so it can be polled every frame
+    public long getElapsed() {
+        return clock.getElapsed(SystemClock.elapsedRealtime());
+    }
+
+    // EFFECTS: adds a lap at the current time of the stopwatch and returns its length. The lap is saved
+    //          as a rest of today's workout if saving laps is on
+    public long addLap() {
+        final long lapTime = laps.add(getElapsed());
+
+        if (isSavingLaps()) {
+            final long time = Calendar.getInstance().getTimeInMillis();
+            final String date = new CurrentDate().getDateString();
+
+            repository.write(new DatabaseRepository.Task<Void>() {
+                @Override
+                public Void run(DatabaseHelper databaseHelper) {
+                    databaseHelper.insertRestInterval(time, date, lapTime);
+                    return null;
+                }
+            });
+        }
+        return lapTime;
+    }
+
+    // EFFECTS: returns the laps since the stopwatch was last reset, which the caller must not change
+    public LapBuffer getLaps() {
+        return laps;
+    }
+
+    public boolean isSavingLaps() {
+        return preferences.getBoolean(KEY_SAVE_LAPS, false);
+    }
+
+    public void setSavingLaps(boolean savingLaps) {
+        preferences.edit().putBoolean(KEY_SAVE_LAPS, savingLaps).apply();
+    }
+
+    // EFFECTS: starts the rest after setNum of the exercise and schedules the alarm for its end,
+    //          replacing any rest that has not ended yet
+    public void startRest(String exerciseName, int setNum, long restMillis) {
+        restStartedAt = SystemClock.elapsedRealtime();
+        this.restMillis = restMillis;
+        restExercise = exerciseName;
+        restSet = setNum;
+        save();
+
+        AlarmManager alarmManager = (AlarmManager) getSystemService(Context.ALARM_SERVICE);
+        PendingIntent alarm = RestAlarmReceiver.createAlarm(this, exerciseName, setNum);
+        long restEndsAt = restStartedAt + restMillis;
+
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.M) {
+            alarmManager.setExactAndAllowWhileIdle(AlarmManager.ELAPSED_REALTIME_WAKEUP, restEndsAt, alarm);
+        } else if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.KITKAT) {
+            alarmManager.setExact(AlarmManager.ELAPSED_REALTIME_WAKEUP, restEndsAt, alarm);
+        } else {
+            alarmManager.set(AlarmManager.ELAPSED_REALTIME_WAKEUP, restEndsAt, alarm);
+        }
+    }
+
+    public void cancelRest() {
+        AlarmManager alarmManager = (AlarmManager) getSystemService(Context.ALARM_SERVICE);
+
+        alarmManager.cancel(RestAlarmReceiver.createAlarm(this, restExercise, restSet));
+        restMillis = 0;
+        save();
+    }
+
+    // EFFECTS: returns the time left of the current rest, 0 if there is no rest or it has ended
+    public long getRestRemaining() {
+        return Math.max(0, restStartedAt + restMillis - SystemClock.elapsedRealtime());
+    }
+
+    // EFFECTS: returns the name of the exercise of the last rest, or null if none was started
+    public String getRestExercise() {
+        return restExercise;
+    }
+
+    public int getRestSet() {
+        return restSet;
+    }
+
+    // EFFECTS: reads the state saved by the last service. Elapsed realtime starts over when the
+    //          device reboots, so a saved start time later than now means the timers stopped then.
+    //          The time of the earlier runs is kept
+    private void restore() {
+        long now = SystemClock.elapsedRealtime();
+        long accumulated = preferences.getLong(KEY_ACCUMULATED, 0);
+        long startedAt = preferences.getLong(KEY_STARTED_AT, 0);
+        boolean running = preferences.getBoolean(KEY_RUNNING, false);
+
+        clock.restore(accumulated, startedAt, running && startedAt <= now);
+
+        restStartedAt = preferences.getLong(KEY_REST_STARTED_AT, 0);
+        restMillis = restStartedAt <= now ? preferences.getLong(KEY_REST_MILLIS, 0) : 0;
+        restExercise = preferences.getString(KEY_REST_EXERCISE, null);
+        restSet = preferences.getInt(KEY_REST_SET, 0);
+    }
+
+    private void save() {
+        preferences.edit()
+                .putLong(KEY_ACCUMULATED, clock.getAccumulated())
+                .putLong(KEY_STARTED_AT, clock.getStartedAt())
+                .putBoolean(KEY_RUNNING, clock.isRunning())
+                .putLong(KEY_REST_STARTED_AT, restStartedAt)
+                .putLong(KEY_REST_MILLIS, restMillis)
+                .putString(KEY_REST_EXERCISE, restExercise)
+                .putInt(KEY_REST_SET, restSet)
+                .apply();
+    }
+
+    // EFFECTS: stops the service once the stopwatch does not run. It stays alive while a screen is
+    //          bound to it
+    private void stopIfIdle() {
+        if (started && !clock.isRunning()) {
+            started = false;
+            stopForeground(true);
+            stopSelf();
+        }
+    }
+
+    private void updateForeground() {
+        if (!bound && started && clock.isRunning()) {
+            startForeground(NOTIFICATION_ID, createNotification());
+        }
+    }
+
+    // EFFECTS: returns the notification of the running stopwatch. Its chronometer counts from the
+    //          wall clock time the stopwatch would have started at to show the same elapsed time
+    private Notification createNotification() {
+        createChannels(this);
+
+        Intent intent = new Intent(this, Stopwatch.class);
+        PendingIntent contentIntent = PendingIntent.getActivity(this, 0, intent, PendingIntent.FLAG_UPDATE_CURRENT);
+
+        return new NotificationCompat.Builder(this, STOPWATCH_CHANNEL_ID)
+                .setSmallIcon(android.R.drawable.ic_lock_idle_alarm)
+                .setContentTitle(getString(R.string.stopwatch))
+                .setContentIntent(contentIntent)
+                .setWhen(System.currentTimeMillis() - getElapsed())
+                .setUsesChronometer(true)
+                .setOngoing(true)
+                .setOnlyAlertOnce(true)
+                .setPriority(NotificationCompat.PRIORITY_LOW)
+                .build();
+    }
+
+    // EFFECTS: creates the notification channels of the timers on Android O and later
+    static void createChannels(Context context) {
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.O) {
+            NotificationManager notificationManager =
+                    (NotificationManager) context.getSystemService(Context.NOTIFICATION_SERVICE);
+
+            notificationManager.createNotificationChannel(new NotificationChannel(STOPWATCH_CHANNEL_ID,
+                    context.getString(R.string.stopwatch), NotificationManager.IMPORTANCE_LOW));
+            notificationManager.createNotificationChannel(new NotificationChannel(REST_CHANNEL_ID,
+                    context.getString(R.string.rest_timer), NotificationManager.IMPORTANCE_HIGH));
+        }
+    }
+}
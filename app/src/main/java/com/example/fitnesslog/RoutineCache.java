@@ -0,0 +1,118 @@
+package com.example.fitnesslog;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+// Process-wide cache of routines whose capable weights have been loaded for a routine ID and date,
+// and of the workout logs shown for a routine on a date. Any write to DataTable clears it, so nothing
+// is loaded from the database again until its data could have changed. Routines handed out by the
+// cache are shared and must not be changed; they are copied when they are put into an Intent.
+// Workout logs cannot be changed.
+public class RoutineCache {
+
+    private static final int MAX_ENTRIES = 8;
+
+    private static final Map<String, Object> entries =
+            new LinkedHashMap<String, Object>(MAX_ENTRIES, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, Object> eldest) {
+                    return size() > MAX_ENTRIES;
+                }
+            };
+
+    //Increased by every invalidation, so an entry that was loaded during a write is not kept
+    private static int generation;
+    private static int hits;
+    private static int misses;
+
+    private interface Loader<T> {
+        T load();
+    }
+
+    // EFFECTS: returns the routine with the most recent capable weights as of the given date, the way
+    //          Routine.initializeCapableWeight loads them
+    public static Routine getRecentRoutine(final DatabaseHelper databaseHelper, final int routineID, final String date) {
+        return get("recent " + routineID + " " + date, new Loader<Routine>() {
+            @Override
+            public Routine load() {
+                Routine routine = new Routine(routineID);
+
+                routine.initializeCapableWeight(databaseHelper, routineID, date);
+                return routine;
+            }
+        });
+    }
+
+    // EFFECTS: returns the routine last done on the given date with the capable weights that were
+    //          logged on that date, or null if nothing was logged
+    public static Routine getRoutineByDate(final DatabaseHelper databaseHelper, final String date) {
+        return get("date " + date, new Loader<Routine>() {
+            @Override
+            public Routine load() {
+                DailySummary summary = databaseHelper.getDailySummary(date);
+
+                if (summary == null) {
+                    return null;
+                }
+                Routine routine = new Routine(summary.getRoutineID());
+
+                routine.setExerciseWeights(summary.getCapableWeights());
+                return routine;
+            }
+        });
+    }
+
+    // EFFECTS: returns the workout log of the routine on the given date, the way WorkoutLog.load
+    //          loads it. The routine only gives the structure of the workouts, which is the same for
+    //          every routine with its ID
+    public static WorkoutLog getWorkoutLog(final DatabaseHelper databaseHelper, final Routine routine, final String date,
+                                           final boolean showLoggedSets) {
+        return get("log " + routine.getRoutineID() + " " + date + " " + showLoggedSets, new Loader<WorkoutLog>() {
+            @Override
+            public WorkoutLog load() {
+                return WorkoutLog.load(databaseHelper, routine, date, showLoggedSets);
+            }
+        });
+    }
+
+    // EFFECTS: removes every cached entry. Called after each write to DataTable
+    public static synchronized void invalidate() {
+        entries.clear();
+        generation++;
+    }
+
+    public static synchronized int getHitCount() {
+        return hits;
+    }
+
+    public static synchronized int getMissCount() {
+        return misses;
+    }
+
+    //Loads outside of the lock so that reads on other threads are not held up by the queries
+    //The key of every entry starts with its kind, so the value of a key always has the loader's type
+    @SuppressWarnings("unchecked")
+    private static <T> T get(String key, Loader<T> loader) {
+        int loadGeneration;
+
+        synchronized (RoutineCache.class) {
+            T entry = (T) entries.get(key);
+
+            if (entry != null) {
+                hits++;
+                return entry;
+            }
+            misses++;
+            loadGeneration = generation;
+        }
+
+        T entry = loader.load();
+
+        synchronized (RoutineCache.class) {
+            if (entry != null && loadGeneration == generation) {
+                entries.put(key, entry);
+            }
+        }
+        return entry;
+    }
+}
@@ -0,0 +1,162 @@
+package com.example.fitnesslog;
+
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+// The parts of a routine that are the same for every user: its name, table, exercise names, default
+// weights, the progression table of its exercises and which exercises make up each workout. There is
+// one shared, immutable instance per routine. A Routine is the user's overlay on top of it and only
+// holds the capable weights and the sets done in each exercise. The built in templates are replaced
+// by the programs in the app's assets when the app starts
+public class RoutineTemplate {
+
+    public static final RoutineTemplate BEGINNER = new RoutineTemplate(1, "Beginner",
+            ExerciseNames.BEGINNER_NAMES, DefaultWeights.BEGINNER, ProgressionTable.BEGINNER, new String[][]{
+            {"Squat", "Bench Press", "Barbell Row"},
+            {"Squat", "Overhead Press", "Deadlift"}});
+
+    public static final RoutineTemplate INTERMEDIATE = new RoutineTemplate(2, "Intermediate",
+            ExerciseNames.INTERMEDIATE_NAMES, DefaultWeights.INTERMEDIATE, ProgressionTable.INTERMEDIATE, new String[][]{
+            {"Squat1", "Bench Press1", "Deadlift"},
+            {"Squat2", "Overhead Press2"},
+            {"Squat", "Bench Press", "Barbell Row"},
+            {"Squat1", "Overhead Press1", "Deadlift"},
+            {"Squat2", "Bench Press2"},
+            {"Squat", "Overhead Press", "Barbell Row"}});
+
+    public static final RoutineTemplate ADVANCED = new RoutineTemplate(3, "Advanced",
+            ExerciseNames.ADVANCED_NAMES, DefaultWeights.ADVANCED, ProgressionTable.ADVANCED, new String[][]{
+            {"Bench Press", "Overhead Press", "Incline Dumbbell Press", "Lateral Raise", "Rope Pulldown",
+                    "Overhead Tricep Extension"},
+            {"Barbell Row", "Lat Pulldown", "Face Pulls", "Barbell Curl", "Hammer Curl"},
+            {"Squat", "Deadlift"}});
+
+    //Indexed by routine ID. Only these routines have their own tables in the database
+    private static final RoutineTemplate[] templates = {null, BEGINNER, INTERMEDIATE, ADVANCED};
+
+    private final int routineID;
+    private final String name;
+    private final String tableName;
+    private final String[] exerciseNames;
+    private final double[] defaultWeights;
+    private final ProgressionTable progressionTable;
+    private final int[][] workoutSlots;
+
+    //Both are keyed by the lower case name, so lookups ignore case like the LIKE queries do
+    private final Map<String, Integer> exerciseNameIndices;
+    private final Map<String, Integer> slotIndices;
+
+    // EFFECTS: creates the template of a routine whose workouts are made of the named slots of the
+    //          progression table. The arguments must not be changed afterwards
+    public RoutineTemplate(int routineID, String name, String[] exerciseNames, double[] defaultWeights,
+                           ProgressionTable progressionTable, String[][] workouts) {
+        this(routineID, name, exerciseNames, defaultWeights, progressionTable, new int[workouts.length][]);
+
+        for (int w = 0; w < workouts.length; w++) {
+            workoutSlots[w] = new int[workouts[w].length];
+            for (int e = 0; e < workouts[w].length; e++) {
+                workoutSlots[w][e] = indexOfSlot(workouts[w][e]);
+                if (workoutSlots[w][e] < 0) {
+                    throw new IllegalArgumentException(workouts[w][e]);
+                }
+            }
+        }
+    }
+
+    // EFFECTS: creates the template of a routine whose workouts are given as slots of the progression
+    //          table, as they are stored in a ProgramCatalog. The arguments must not be changed afterwards
+    RoutineTemplate(int routineID, String name, String[] exerciseNames, double[] defaultWeights,
+                    ProgressionTable progressionTable, int[][] workoutSlots) {
+        this.routineID = routineID;
+        this.name = name;
+        this.tableName = name + "Table";
+        this.exerciseNames = exerciseNames;
+        this.defaultWeights = defaultWeights;
+        this.progressionTable = progressionTable;
+        this.workoutSlots = workoutSlots;
+
+        exerciseNameIndices = new HashMap<>();
+        for (int i = 0; i < exerciseNames.length; i++) {
+            exerciseNameIndices.put(exerciseNames[i].toLowerCase(Locale.US), i);
+        }
+        slotIndices = new HashMap<>();
+        for (int i = 0; i < progressionTable.size(); i++) {
+            slotIndices.put(progressionTable.getName(i).toLowerCase(Locale.US), i);
+        }
+    }
+
+    // EFFECTS: returns the template of the routine with the given ID
+    public static synchronized RoutineTemplate forRoutine(int routineID) {
+        if (routineID < 1 || routineID >= templates.length) {
+            throw new IllegalArgumentException("No routine with ID " + routineID);
+        }
+        return templates[routineID];
+    }
+
+    // EFFECTS: replaces the template of the routine with the same ID. Routines created before keep
+    //          the template they were created with. Throws IllegalArgumentException if the ID is not
+    //          one of the routines with their own tables
+    public static synchronized void register(RoutineTemplate template) {
+        int routineID = template.getRoutineID();
+
+        if (routineID < 1 || routineID >= templates.length) {
+            throw new IllegalArgumentException("Routine " + routineID + " has no database tables");
+        }
+        templates[routineID] = template;
+    }
+
+    public int getRoutineID() {
+        return routineID;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public String getTable() {
+        return tableName;
+    }
+
+    // EFFECTS: returns the names that the capable weights are indexed by. Must not be changed
+    public String[] getExerciseNames() {
+        return exerciseNames;
+    }
+
+    // EFFECTS: returns the capable weight that a new program uses for the exercise name at nameIndex
+    //          when the user does not enter one
+    public double getDefaultWeight(int nameIndex) {
+        return defaultWeights[nameIndex];
+    }
+
+    public ProgressionTable getProgressionTable() {
+        return progressionTable;
+    }
+
+    public int getNumWorkouts() {
+        return workoutSlots.length;
+    }
+
+    // EFFECTS: returns the slots of the progression table that make up the workout. Must not be changed
+    public int[] getWorkoutSlots(int workoutNum) {
+        return workoutSlots[workoutNum];
+    }
+
+    // EFFECTS: returns the index of the name in getExerciseNames, ignoring case, or -1
+    public int indexOfExerciseName(String exerciseName) {
+        return indexOf(exerciseNameIndices, exerciseName);
+    }
+
+    // EFFECTS: returns the slot of the progression table with the given name, ignoring case, or -1
+    public int indexOfSlot(String slotName) {
+        return indexOf(slotIndices, slotName);
+    }
+
+    private static int indexOf(Map<String, Integer> indices, String name) {
+        if (name == null) {
+            return -1;
+        }
+        Integer index = indices.get(name.toLowerCase(Locale.US));
+        return index == null ? -1 : index;
+    }
+}
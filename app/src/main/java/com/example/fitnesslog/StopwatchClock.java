@@ -0,0 +1,57 @@
+package com.example.fitnesslog;
+
+// The elapsed time of the stopwatch. It only keeps when it was started and the time of the earlier
+// runs, so nothing has to tick while the app is in the background. The times are from
+// SystemClock.elapsedRealtime, which keeps counting while the device sleeps
+public class StopwatchClock {
+
+    private long accumulatedMillis;
+    private long startedAt;
+    private boolean running;
+
+    // EFFECTS: starts or resumes the stopwatch. Does nothing if it is already running
+    public void start(long now) {
+        if (!running) {
+            startedAt = now;
+            running = true;
+        }
+    }
+
+    // EFFECTS: pauses the stopwatch, keeping the elapsed time. Does nothing if it is not running
+    public void stop(long now) {
+        if (running) {
+            accumulatedMillis += now - startedAt;
+            running = false;
+        }
+    }
+
+    public void reset() {
+        accumulatedMillis = 0;
+        startedAt = 0;
+        running = false;
+    }
+
+    public boolean isRunning() {
+        return running;
+    }
+
+    public long getElapsed(long now) {
+        return running ? accumulatedMillis + now - startedAt : accumulatedMillis;
+    }
+
+    // EFFECTS: returns the time of the earlier runs, which together with getStartedAt and isRunning
+    //          is all that has to be saved to restore the stopwatch
+    public long getAccumulated() {
+        return accumulatedMillis;
+    }
+
+    public long getStartedAt() {
+        return startedAt;
+    }
+
+    public void restore(long accumulatedMillis, long startedAt, boolean running) {
+        this.accumulatedMillis = accumulatedMillis;
+        this.startedAt = startedAt;
+        this.running = running;
+    }
+}
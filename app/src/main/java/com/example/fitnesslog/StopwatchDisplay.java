@@ -0,0 +1,61 @@
+package com.example.fitnesslog;
+
+// The text of the stopwatch as minutes:seconds:milliseconds. It is written into a reused char array
+// and only when the shown value changes, so updating it every frame does not allocate
+public class StopwatchDisplay {
+
+    //Enough for the minutes of a long, two colons, the seconds and the milliseconds
+    private final char[] chars = new char[32];
+    private int length;
+    private long shownMillis = -1;
+
+    public StopwatchDisplay() {
+        update(0);
+    }
+
+    // EFFECTS: writes the elapsed time into the chars if it is not the one already shown. Returns
+    //          true if the text changed
+    public boolean update(long elapsedMillis) {
+        if (elapsedMillis == shownMillis) {
+            return false;
+        }
+        shownMillis = elapsedMillis;
+
+        long minutes = elapsedMillis / 60000;
+        int seconds = (int) (elapsedMillis / 1000 % 60);
+        int millis = (int) (elapsedMillis % 1000);
+
+        //The minutes are written from the end of a scratch area at the back of the array
+        int start = chars.length;
+        do {
+            chars[--start] = (char) ('0' + minutes % 10);
+            minutes /= 10;
+        } while (minutes > 0);
+
+        length = chars.length - start;
+        System.arraycopy(chars, start, chars, 0, length);
+        chars[length++] = ':';
+        chars[length++] = (char) ('0' + seconds / 10);
+        chars[length++] = (char) ('0' + seconds % 10);
+        chars[length++] = ':';
+        chars[length++] = (char) ('0' + millis / 100);
+        chars[length++] = (char) ('0' + millis / 10 % 10);
+        chars[length++] = (char) ('0' + millis % 10);
+        return true;
+    }
+
+    // EFFECTS: returns the chars of the text, which are only valid up to getLength and until the
+    //          next update
+    public char[] getChars() {
+        return chars;
+    }
+
+    public int getLength() {
+        return length;
+    }
+
+    @Override
+    public String toString() {
+        return new String(chars, 0, length);
+    }
+}
@@ -0,0 +1,87 @@
+package com.example.fitnesslog;
+
+import android.util.Log;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+// The workout the log shows for a routine on a date and the sets already logged for each of its
+// exercises. It is shared through RoutineCache, so none of it can be changed
+public class WorkoutLog {
+
+    private final int workoutNum;
+    private final List<List<Double>> weights;
+    private final List<List<Integer>> reps;
+
+    private WorkoutLog(int workoutNum, List<List<Double>> weights, List<List<Integer>> reps) {
+        this.workoutNum = workoutNum;
+        this.weights = Collections.unmodifiableList(weights);
+        this.reps = Collections.unmodifiableList(reps);
+    }
+
+    // EFFECTS: finds the workout to show on the date, which is the one logged on it or else the one
+    //          after the latest workout, and loads the sets logged for its exercises. Sets are only
+    //          shown if showLoggedSets is true, which it is not when a new program was just started
+    public static WorkoutLog load(DatabaseHelper databaseHelper, Routine routine, String date, boolean showLoggedSets) {
+        int routineID = routine.getRoutineID();
+        String table = routine.getTable();
+        List<Workout> workouts = routine.getWorkouts();
+        int workoutNum = routine.getCurrentWorkoutNum(databaseHelper);
+
+        //Making sure data exists and the previous activity didn't come from AskingForWeights
+        if (showLoggedSets && databaseHelper.isThereDataFromToday(date, routineID)) {
+            int loggedWorkoutNum = databaseHelper.getWorkoutNumByDate(table, date);
+
+            if (loggedWorkoutNum >= 0 && loggedWorkoutNum < workouts.size()) {
+                workoutNum = loggedWorkoutNum;
+            } else {
+                Log.d("myTag", "out of bounds");
+            }
+        }
+
+        List<List<Double>> weights = new ArrayList<>();
+        List<List<Integer>> reps = new ArrayList<>();
+
+        for (Exercise exercise : workouts.get(workoutNum).getExercises()) {
+            String exerciseName = exercise.getName();
+
+            //Checks if data exists, previous activity was not AskingForWeights, and last weight entry was not -1
+            if (showLoggedSets
+                    && databaseHelper.isThereDataInExercise(table, exerciseName, workoutNum, routineID, date)
+                    && !databaseHelper.wasExerciseReset(table, exerciseName)) {
+                List<Double> weightsList =
+                        databaseHelper.getWeightByExerciseAndDate(table, exerciseName, workoutNum, routineID, date);
+                List<Integer> repsList =
+                        databaseHelper.getRepsByExerciseAndDate(table, exerciseName, workoutNum, routineID, date);
+
+                //Reverses the order of the lists to the correct one
+                Collections.reverse(weightsList);
+                Collections.reverse(repsList);
+                weights.add(Collections.unmodifiableList(weightsList));
+                reps.add(Collections.unmodifiableList(repsList));
+            } else {
+                weights.add(null);
+                reps.add(null);
+            }
+        }
+        return new WorkoutLog(workoutNum, weights, reps);
+    }
+
+    public int getWorkoutNum() {
+        return workoutNum;
+    }
+
+    // EFFECTS: returns true if sets were logged for the exercise at the given index of the workout
+    public boolean hasLoggedSets(int exerciseNum) {
+        return weights.get(exerciseNum) != null;
+    }
+
+    public List<Double> getWeights(int exerciseNum) {
+        return weights.get(exerciseNum);
+    }
+
+    public List<Integer> getReps(int exerciseNum) {
+        return reps.get(exerciseNum);
+    }
+}
@@ -0,0 +1,83 @@
+package com.example.fitnesslog;
+
+// The analytics of one workout, the sets logged with one routine on one date, as stored in the
+// WorkoutStats table. The rests are the times between the CurrentTime stamps of the workout's sets,
+// where sets that were submitted together count as one
+public class WorkoutStats {
+
+    private final String date;
+    private final int routineID;
+    private final int setCount;
+    private final double volume;
+    private final long startTime;
+    private final long endTime;
+    private final int restCount;
+    private final long totalRest;
+    private final long longestRest;
+
+    public WorkoutStats(String date, int routineID, int setCount, double volume, long startTime, long endTime,
+                        int restCount, long totalRest, long longestRest) {
+        this.date = date;
+        this.routineID = routineID;
+        this.setCount = setCount;
+        this.volume = volume;
+        this.startTime = startTime;
+        this.endTime = endTime;
+        this.restCount = restCount;
+        this.totalRest = totalRest;
+        this.longestRest = longestRest;
+    }
+
+    public String getDate() {
+        return date;
+    }
+
+    public int getRoutineID() {
+        return routineID;
+    }
+
+    public int getSetCount() {
+        return setCount;
+    }
+
+    // EFFECTS: returns the weight times the reps of every set, in lb
+    public double getVolume() {
+        return volume;
+    }
+
+    public long getStartTime() {
+        return startTime;
+    }
+
+    public long getEndTime() {
+        return endTime;
+    }
+
+    // EFFECTS: returns the time in ms from the first to the last set of the workout
+    public long getDuration() {
+        return endTime - startTime;
+    }
+
+    public int getRestCount() {
+        return restCount;
+    }
+
+    public long getTotalRest() {
+        return totalRest;
+    }
+
+    public long getLongestRest() {
+        return longestRest;
+    }
+
+    // EFFECTS: returns the average rest in ms, 0 if there were no rests
+    public long getAverageRest() {
+        return restCount == 0 ? 0 : totalRest / restCount;
+    }
+
+    // EFFECTS: returns the volume per minute of the workout, 0 if it took no time
+    public double getDensity() {
+        long duration = getDuration();
+        return duration == 0 ? 0 : volume * 60000 / duration;
+    }
+}
@@ -14,14 +14,15 @@ import androidx.appcompat.app.AppCompatActivity;
 
 import com.example.fitnesslog.CurrentDate;
 import com.example.fitnesslog.DatabaseHelper;
-import com.example.fitnesslog.DefaultWeights;
+import com.example.fitnesslog.DatabaseRepository;
+import com.example.fitnesslog.ProgressionEngine;
+import com.example.fitnesslog.ProgressionEngines;
 import com.example.fitnesslog.R;
 import com.example.fitnesslog.Routine;
+import com.example.fitnesslog.RoutineTemplate;
 import com.google.android.material.snackbar.Snackbar;
 
-import java.util.ArrayList;
 import java.util.Date;
-import java.util.List;
 
 public class AskingForWeightsActivity extends AppCompatActivity {
 
@@ -36,13 +37,12 @@ public class AskingForWeightsActivity extends AppCompatActivity {
 
     private EditText[] exerciseEditTexts;
     private double[] rawWeightInputs;
-    private List<Double> finalWeightInputs;
     private String[] exerciseStrings;
     private boolean[] exerciseChecked;
     private String[] exerciseNames;
     private double[] weightInputs;
 
-    private DatabaseHelper databaseHelper;
+    private DatabaseRepository repository;
     private int workoutNum;
     private Button submitButton;
     private Intent intent;
@@ -56,9 +56,9 @@ public class AskingForWeightsActivity extends AppCompatActivity {
 
         intent = getIntent();
         //Assigns routine to the level that the user picked
-        routine = intent.getParcelableExtra("ROUTINE");
+        routine = Routine.fromIntent(intent);
         submitButton = findViewById(R.id.submit_weight_button);
-        databaseHelper = new DatabaseHelper(this);
+        repository = new DatabaseRepository(this);
 
         workoutNum = -1;
         numOfExercises = 5;
@@ -70,6 +70,12 @@ public class AskingForWeightsActivity extends AppCompatActivity {
         onSubmitButtonClick();
     }
 
+    @Override
+    protected void onDestroy() {
+        repository.cancel();
+        super.onDestroy();
+    }
+
     //Button goes to ExerciseTutorial Activity
     public void onExerciseTutorialClick(View view) {
         intent = new Intent(this, ExerciseTutorials.class);
@@ -121,19 +127,17 @@ public class AskingForWeightsActivity extends AppCompatActivity {
 
     //Passing weights and names for each exercise to next activity
     private void passWeightsAndNames() {
-        //Adds input to array if EditTexts are filled, else adds default weight if checkboxes are unchecked
-        for (int i = 0; i < numOfExercises; i++) {
-            addExerciseInput(i);
-        }
+        RoutineTemplate template = RoutineTemplate.forRoutine(routine.getRoutineID());
 
-        //Converting List<Double> to double[]
+        //Uses the input if EditTexts are filled, else the default weight if checkboxes are unchecked.
+        //The exercises that are not asked for always start at their default weight
         weightInputs = new double[exerciseNames.length];
-        for (int i = 0; i < numOfExercises; i++) {
-            weightInputs[i] = finalWeightInputs.get(i);
-        }
-
-        for (int i = numOfExercises; i < exerciseNames.length; i++) {
-            weightInputs[i] = DefaultWeights.defaultWeights.get(10 + i);
+        for (int i = 0; i < exerciseNames.length; i++) {
+            if (i < numOfExercises && rawWeightInputs[i] != -1) {
+                weightInputs[i] = rawWeightInputs[i];
+            } else {
+                weightInputs[i] = template.getDefaultWeight(i);
+            }
         }
 
         routine.setExerciseWeights(weightInputs);
@@ -141,31 +145,12 @@ public class AskingForWeightsActivity extends AppCompatActivity {
         insertDataToSQL(routine.getTable());
 
         intent = new Intent(this, WorkoutLogActivity.class);
-        intent.putExtra("ROUTINE", routine);
+        routine.putInto(intent);
         intent.putExtra("ACTIVITY", "activity");
 
         startActivity(intent);
     }
 
-    //If checkboxes are left unchecked, default value is returned for that exercise
-    private void addExerciseInput(int exerciseNum) {
-        //Making sure that ArrayList of weights cannot be bigger than num of exercises
-        if (finalWeightInputs.size() >= numOfExercises) {
-            finalWeightInputs.clear();
-        }
-        if (rawWeightInputs[exerciseNum] == -1) {
-            if (routine.getRoutineID() == 1) {
-                finalWeightInputs.add(DefaultWeights.defaultWeights.get(exerciseNum));
-            } else if (routine.getRoutineID() == 2) {
-                finalWeightInputs.add(DefaultWeights.defaultWeights.get(exerciseNum + numOfExercises));
-            } else {
-                finalWeightInputs.add(DefaultWeights.defaultWeights.get(exerciseNum + (numOfExercises * 2)));
-            }
-        } else {
-            finalWeightInputs.add(rawWeightInputs[exerciseNum]);
-        }
-    }
-
     //Converts strings to doubles only if EditTexts are filled
     private void convertStringsToDoubles() {
         for (int i = 0; i < numOfExercises; i++) {
@@ -178,40 +163,42 @@ public class AskingForWeightsActivity extends AppCompatActivity {
     }
 
     // EFFECTS: inserts each exercise into the given data table (name) then inserts the capableWeight
-    //          into DATA_TABLE
-    private void insertDataToSQL(String tableName) {
-        int workoutExerciseID;
-        int routineID = routine.getRoutineID();
+    //          into DATA_TABLE. The database work is queued before WorkoutLogActivity reads it
+    private void insertDataToSQL(final String tableName) {
+        final int routineID = routine.getRoutineID();
         CurrentDate today = new CurrentDate();
 
-        long currentTime = new Date().getTime();
-        String currentDate = today.getDateString();
+        final long currentTime = new Date().getTime();
+        final String currentDate = today.getDateString();
 
-        addDatatoTable(exerciseNames);
-
-        //Decreasing starting weights for advanced program
-        if (routineID == 3) {
-            for (int i = 0; i < 5; i++) {
-                weightInputs[i] = routine.round(weightInputs[i] * .88);
-            }
+        //The routine's progression decides where the program starts, e.g. lower for advanced
+        ProgressionEngine engine = ProgressionEngines.get(routineID);
+        for (int i = 0; i < weightInputs.length; i++) {
+            weightInputs[i] = engine.getStartingWeight(i, weightInputs[i]);
         }
 
         routine.setExerciseWeights(weightInputs);
 
-        //Deletes all data from DataTable with matching currentDate
-        if (databaseHelper.isThereDataFromToday(currentDate, -1)) {
-            databaseHelper.deleteTodaysData(currentDate);
-        }
+        final double[] capableWeights = weightInputs.clone();
 
-        for (int i = 0; i < routine.getExerciseNames().length; i++) {
-            workoutExerciseID = databaseHelper.getWorkoutExerciseID(tableName, exerciseNames[i], workoutNum);
+        repository.write(new DatabaseRepository.Task<Void>() {
+            @Override
+            public Void run(DatabaseHelper databaseHelper) {
+                addDatatoTable(exerciseNames, databaseHelper);
 
-            databaseHelper.insertData(currentTime, currentDate, routineID, workoutExerciseID,
-                    -1, 0, weightInputs[i]);
-        }
+                int[] workoutExerciseIDs = new int[exerciseNames.length];
+                for (int i = 0; i < exerciseNames.length; i++) {
+                    workoutExerciseIDs[i] = databaseHelper.getWorkoutExerciseID(tableName, exerciseNames[i], workoutNum);
+                }
+
+                //Replaces all data from DataTable with matching currentDate in one transaction
+                databaseHelper.insertNewProgram(currentTime, currentDate, routineID, workoutExerciseIDs, capableWeights);
+                return null;
+            }
+        });
     }
 
-    private void addDatatoTable(String[] exercises) {
+    private void addDatatoTable(String[] exercises, DatabaseHelper databaseHelper) {
         for (String exercise : exercises) {
             routine.insertRoutineData(workoutNum, exercise, databaseHelper);
         }
@@ -231,7 +218,6 @@ public class AskingForWeightsActivity extends AppCompatActivity {
 
     private void initializeArrays() {
         rawWeightInputs = new double[numOfExercises];
-        finalWeightInputs = new ArrayList<>();
         exerciseStrings = new String[numOfExercises];
         exerciseEditTexts = new EditText[numOfExercises];
         exerciseChecked = new boolean[numOfExercises];
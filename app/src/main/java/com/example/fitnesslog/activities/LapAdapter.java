@@ -0,0 +1,79 @@
+package com.example.fitnesslog.activities;
+
+import android.view.LayoutInflater;
+import android.view.View;
+import android.view.ViewGroup;
+import android.widget.TextView;
+
+import androidx.annotation.NonNull;
+import androidx.recyclerview.widget.RecyclerView;
+
+import com.example.fitnesslog.LapBuffer;
+import com.example.fitnesslog.R;
+import com.example.fitnesslog.StopwatchDisplay;
+
+// Shows the laps of the stopwatch newest first. The laps are read from the service's LapBuffer, so
+// the list never holds more than its capacity and only the visible rows have views
+public class LapAdapter extends RecyclerView.Adapter<LapAdapter.LapHolder> {
+
+    //Null until the stopwatch service is connected
+    private LapBuffer laps;
+
+    public LapAdapter() {
+        setHasStableIds(true);
+    }
+
+    public void setLaps(LapBuffer laps) {
+        this.laps = laps;
+        notifyDataSetChanged();
+    }
+
+    // EFFECTS: shows the lap that was just added at the top. overwrote is true if the buffer was full
+    //          before, in which case the oldest lap has to go
+    public void onLapAdded(boolean overwrote) {
+        notifyItemInserted(0);
+        if (overwrote) {
+            notifyItemRemoved(laps.size());
+        }
+    }
+
+    @Override
+    public int getItemCount() {
+        return laps == null ? 0 : laps.size();
+    }
+
+    //A lap keeps its number while newer laps are added in front of it
+    @Override
+    public long getItemId(int position) {
+        return laps.getNumber(position);
+    }
+
+    @NonNull
+    @Override
+    public LapHolder onCreateViewHolder(@NonNull ViewGroup parent, int viewType) {
+        View view = LayoutInflater.from(parent.getContext()).inflate(R.layout.item_lap, parent, false);
+        return new LapHolder(view);
+    }
+
+    @Override
+    public void onBindViewHolder(@NonNull LapHolder holder, int position) {
+        holder.number.setText(holder.itemView.getContext().getString(R.string.lap_number, laps.getNumber(position)));
+
+        //Every holder has its own display, since the TextView keeps showing the display's chars
+        holder.display.update(laps.getLapTime(position));
+        holder.time.setText(holder.display.getChars(), 0, holder.display.getLength());
+    }
+
+    public static class LapHolder extends RecyclerView.ViewHolder {
+
+        private final TextView number;
+        private final TextView time;
+        private final StopwatchDisplay display = new StopwatchDisplay();
+
+        LapHolder(View view) {
+            super(view);
+            number = view.findViewById(R.id.lap_number);
+            time = view.findViewById(R.id.lap_time);
+        }
+    }
+}
@@ -1,6 +1,9 @@
 package com.example.fitnesslog.activities;
 
+import android.content.ContentResolver;
 import android.content.Intent;
+import android.net.Uri;
+import android.os.Build;
 import android.os.Bundle;
 import android.util.Log;
 import android.view.Menu;
@@ -8,12 +11,21 @@ import android.view.MenuInflater;
 import android.view.MenuItem;
 import android.view.View;
 
+import androidx.annotation.Nullable;
 import androidx.appcompat.app.AppCompatActivity;
 
 import com.example.fitnesslog.CurrentDate;
 import com.example.fitnesslog.DatabaseHelper;
+import com.example.fitnesslog.DatabaseRepository;
+import com.example.fitnesslog.HistoryExporter;
 import com.example.fitnesslog.R;
 import com.example.fitnesslog.Routine;
+import com.example.fitnesslog.RoutineCache;
+import com.google.android.material.snackbar.Snackbar;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.ref.WeakReference;
 
 public class MainActivity extends AppCompatActivity {
 
@@ -26,10 +38,22 @@ public class MainActivity extends AppCompatActivity {
         BARBELL ROW
      */
 
+    private static final int EXPORT_REQUEST = 1;
+
+    private DatabaseRepository repository;
+
     @Override
     protected void onCreate(Bundle savedInstanceState) {
         super.onCreate(savedInstanceState);
         setContentView(R.layout.activity_main);
+
+        repository = new DatabaseRepository(this);
+    }
+
+    @Override
+    protected void onDestroy() {
+        repository.cancel();
+        super.onDestroy();
     }
 
     @Override
@@ -37,6 +61,10 @@ public class MainActivity extends AppCompatActivity {
         MenuInflater inflater = getMenuInflater();
 
         inflater.inflate(R.menu.menu, menu);
+        inflater.inflate(R.menu.export, menu);
+
+        //Picking where to save the file needs the storage access framework
+        menu.findItem(R.id.export_history).setVisible(Build.VERSION.SDK_INT >= Build.VERSION_CODES.KITKAT);
         return true;
     }
 
@@ -56,44 +84,134 @@ public class MainActivity extends AppCompatActivity {
             case R.id.exercise_tutorials:
                 startActivity(new Intent(this, ExerciseTutorials.class));
                 return true;
+            case R.id.export_history:
+                chooseExportFile();
+                return true;
             default:
                 return super.onOptionsItemSelected(item);
         }
     }
 
-    public void newProgramClicked(View view) {
-        Intent intent = new Intent(this, NewProgramActivity.class);
-        startActivity(intent);
+    @Override
+    protected void onActivityResult(int requestCode, int resultCode, @Nullable Intent data) {
+        super.onActivityResult(requestCode, resultCode, data);
+
+        if (requestCode == EXPORT_REQUEST && resultCode == RESULT_OK && data != null && data.getData() != null) {
+            exportHistory(data.getData());
+        }
     }
 
-    public void continueProgramClicked(View view) {
-        Intent intent;
-        DatabaseHelper databaseHelper = new DatabaseHelper(this);
-        boolean isEmpty = databaseHelper.isEmpty();
+    // EFFECTS: lets the user pick the file the history is exported to
+    private void chooseExportFile() {
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.KITKAT) {
+            Intent intent = new Intent(Intent.ACTION_CREATE_DOCUMENT);
+
+            intent.addCategory(Intent.CATEGORY_OPENABLE);
+            intent.setType("text/csv");
+            intent.putExtra(Intent.EXTRA_TITLE, "fitnesslog.csv");
+            startActivityForResult(intent, EXPORT_REQUEST);
+        }
+    }
+
+    // EFFECTS: writes the history as CSV to the file on the long read thread and tells the user how
+    //          many sets were exported
+    private void exportHistory(Uri uri) {
+        repository.longRead(new ExportTask(getApplicationContext().getContentResolver(), uri),
+                new ExportCallback(this));
+    }
+
+    //Static so that an export that outlives the activity only keeps the content resolver and the file
+    private static class ExportTask implements DatabaseRepository.Task<Long> {
+
+        private final ContentResolver contentResolver;
+        private final Uri uri;
 
-        //If database is empty, defaults to new program
-        if (isEmpty) {
-            newProgramClicked(view);
-        } else {
-            int routineID = databaseHelper.getLatestRoutineID();
-            Routine routine = new Routine(routineID);
+        ExportTask(ContentResolver contentResolver, Uri uri) {
+            this.contentResolver = contentResolver;
+            this.uri = uri;
+        }
 
+        // EFFECTS: returns the number of sets exported, or -1 if the file could not be written
+        @Override
+        public Long run(DatabaseHelper databaseHelper) {
             try {
-                intent = new Intent(this, WorkoutLogActivity.class);
-                CurrentDate date = new CurrentDate();
+                OutputStream out = contentResolver.openOutputStream(uri);
+
+                if (out == null) {
+                    return -1L;
+                }
+                try {
+                    return new HistoryExporter(databaseHelper).export(out, HistoryExporter.CSV);
+                } finally {
+                    out.close();
+                }
+            } catch (IOException e) {
+                Log.e("myTag", "could not export the history", e);
+                return -1L;
+            }
+        }
+    }
 
-                //Gets the original/oldest capable weights from that date
-                routine.initializeCapableWeight(databaseHelper, routineID, date.getDateString());
+    //Holds the activity weakly while the export runs. The repository is cancelled in onDestroy, so
+    //the result is only shown to an activity that is still there
+    private static class ExportCallback implements DatabaseRepository.Callback<Long> {
 
-                intent.putExtra("ROUTINE", routine);
+        private final WeakReference<MainActivity> activity;
 
-                startActivity(intent);
-            } catch (IllegalArgumentException e) {
-                Log.d("myTag", "Invalid Routine ID found in SQL data table");
+        ExportCallback(MainActivity activity) {
+            this.activity = new WeakReference<>(activity);
+        }
+
+        @Override
+        public void onResult(Long count) {
+            MainActivity mainActivity = activity.get();
+
+            if (mainActivity == null) {
+                return;
             }
+            View view = mainActivity.findViewById(android.R.id.content);
+            String message = count < 0 ? mainActivity.getString(R.string.export_failed)
+                    : mainActivity.getString(R.string.history_exported, count);
+
+            Snackbar.make(view, message, Snackbar.LENGTH_SHORT).show();
         }
     }
 
+    public void newProgramClicked(View view) {
+        Intent intent = new Intent(this, NewProgramActivity.class);
+        startActivity(intent);
+    }
+
+    public void continueProgramClicked(final View view) {
+        repository.read(new DatabaseRepository.Task<Routine>() {
+            @Override
+            public Routine run(DatabaseHelper databaseHelper) {
+                //If database is empty, there is no routine to continue
+                if (databaseHelper.isEmpty()) {
+                    return null;
+                }
+                int routineID = databaseHelper.getLatestRoutineID();
+                CurrentDate date = new CurrentDate();
+
+                //Gets the original/oldest capable weights from that date
+                return RoutineCache.getRecentRoutine(databaseHelper, routineID, date.getDateString());
+            }
+        }, new DatabaseRepository.Callback<Routine>() {
+            @Override
+            public void onResult(Routine routine) {
+                //If database is empty, defaults to new program
+                if (routine == null) {
+                    newProgramClicked(view);
+                } else {
+                    Intent intent = new Intent(MainActivity.this, WorkoutLogActivity.class);
+
+                    routine.putInto(intent);
+                    startActivity(intent);
+                }
+            }
+        });
+    }
+
     public void aboutClicked(View view) {
         Intent intent = new Intent(this, AboutActivity.class);
         startActivity(intent);
@@ -21,7 +21,7 @@ public class NewProgramActivity extends AppCompatActivity {
         Intent intent = new Intent(this, AskingForWeightsActivity.class);
 
         //Passing on which routine was chosen to next activity
-        intent.putExtra("ROUTINE", routine);
+        routine.putInto(intent);
         startActivity(intent);
     }
 
@@ -1,47 +1,76 @@
 package com.example.fitnesslog.activities;
 
+import android.content.ComponentName;
 import android.content.Context;
+import android.content.Intent;
+import android.content.ServiceConnection;
+import android.os.Build;
 import android.os.Bundle;
 import android.os.Handler;
-import android.os.SystemClock;
-import android.view.LayoutInflater;
+import android.os.IBinder;
+import android.view.Choreographer;
 import android.view.View;
 import android.widget.Button;
-import android.widget.LinearLayout;
+import android.widget.CheckBox;
+import android.widget.CompoundButton;
 import android.widget.TextView;
 
+import androidx.annotation.RequiresApi;
 import androidx.appcompat.app.AppCompatActivity;
+import androidx.recyclerview.widget.LinearLayoutManager;
+import androidx.recyclerview.widget.RecyclerView;
 
+import com.example.fitnesslog.LapBuffer;
 import com.example.fitnesslog.R;
+import com.example.fitnesslog.RestTimerService;
+import com.example.fitnesslog.StopwatchDisplay;
 
 
+// Shows the stopwatch of RestTimerService, which keeps running after this activity is gone. The
+// activity only draws frames while it is visible and bound to the service
 public class Stopwatch extends AppCompatActivity {
+
+    //Frame interval used before Choreographer was added in Jelly Bean
+    private static final long FALLBACK_FRAME_MILLIS = 16;
+
     Button startButton, stopButton, lapButton, resetButton;
     TextView timerValue;
-    Handler customerHandler = new Handler();
-    LinearLayout container;
+    CheckBox saveLapsBox;
+    RecyclerView lapList;
+
+    private final LapAdapter lapAdapter = new LapAdapter();
 
-    long startTime = 0L;
-    long timeInMilliseconds = 0L;
-    long timeSwapBuff = 0L;
-    long updateTime = 0L;
+    private final StopwatchDisplay display = new StopwatchDisplay();
 
-    Runnable updateTimerThread = new Runnable() {
+    //Null until the service is connected
+    private RestTimerService timer;
+
+    private final ServiceConnection connection = new ServiceConnection() {
         @Override
-        public void run() {
-            timeInMilliseconds = SystemClock.uptimeMillis() - startTime;
-            updateTime = timeSwapBuff + timeInMilliseconds;
-            int secs = (int) (updateTime / 1000);
-            int mins = secs / 60;
-            secs %= 60;
-            int milliseconds = (int) (updateTime % 1000);
-            timerValue.setText("" + mins + ":" + String.format("%02d", secs) + ":"
-                    + String.format("%03d", milliseconds));
-            customerHandler.postDelayed(this, 0);
+        public void onServiceConnected(ComponentName name, IBinder service) {
+            timer = ((RestTimerService.LocalBinder) service).getService();
+            lapAdapter.setLaps(timer.getLaps());
+            saveLapsBox.setChecked(timer.isSavingLaps());
+            showElapsedTime();
+            scheduleFrame();
         }
 
+        @Override
+        public void onServiceDisconnected(ComponentName name) {
+            cancelFrame();
+            timer = null;
+        }
     };
 
+    //Only one of them is used, depending on the API level
+    private Choreographer.FrameCallback frameCallback;
+    private Runnable frameRunnable;
+    private final Handler handler = new Handler();
+
+    //True while a frame is scheduled, so a frame is never scheduled twice
+    private boolean frameScheduled;
+    private boolean visible;
+
     @Override
     protected void onCreate(Bundle savedInstanceState) {
         super.onCreate(savedInstanceState);
@@ -53,57 +82,154 @@ public class Stopwatch extends AppCompatActivity {
         resetButton = findViewById(R.id.reset_button);
 
         timerValue = findViewById(R.id.timerValue);
-        container = findViewById(R.id.container);
+        saveLapsBox = findViewById(R.id.save_laps);
+        lapList = findViewById(R.id.lap_list);
+        lapList.setLayoutManager(new LinearLayoutManager(this));
+        lapList.setAdapter(lapAdapter);
 
-        final Thread thread = new Thread(updateTimerThread);
+        createFrameCallback();
 
         startButton.setOnClickListener(new View.OnClickListener() {
             @Override
             public void onClick(View view) {
-                startTime = SystemClock.uptimeMillis();
-
-                customerHandler.postDelayed(updateTimerThread, 0);
+                if (timer != null) {
+                    timer.start();
+                    scheduleFrame();
+                }
             }
         });
 
         stopButton.setOnClickListener(new View.OnClickListener() {
             @Override
             public void onClick(View view) {
-                timeSwapBuff += timeInMilliseconds;
-                customerHandler.removeCallbacks(updateTimerThread);
+                if (timer != null) {
+                    timer.stop();
+                    showElapsedTime();
+                }
             }
         });
 
         lapButton.setOnClickListener(new View.OnClickListener() {
             @Override
             public void onClick(View view) {
-                LayoutInflater inflater = (LayoutInflater) getBaseContext().getSystemService(Context.LAYOUT_INFLATER_SERVICE);
-                View addView = inflater.inflate(R.layout.row, null);
-                TextView txtValue = addView.findViewById(R.id.txtContent);
-                txtValue.setText(timerValue.getText());
-                container.addView(addView);
+                if (timer != null && timer.isRunning()) {
+                    LapBuffer laps = timer.getLaps();
+                    boolean overwrote = laps.isFull();
+
+                    timer.addLap();
+                    lapAdapter.onLapAdded(overwrote);
+                    lapList.scrollToPosition(0);
+                }
             }
         });
 
         resetButton.setOnClickListener(new View.OnClickListener() {
             @Override
             public void onClick(View view) {
-                thread.interrupt();
-                startTime = 0L;
-                timeInMilliseconds = 0L;
-                timeSwapBuff = 0L;
-                updateTime = 0L;
-                customerHandler.postDelayed(updateTimerThread, 0);
-                customerHandler.removeCallbacks(updateTimerThread);
-                timerValue.setText("0:00:000");
-                container.removeAllViews();
+                if (timer != null) {
+                    timer.reset();
+                    showElapsedTime();
+                    lapAdapter.notifyDataSetChanged();
+                }
+            }
+        });
+
+        saveLapsBox.setOnCheckedChangeListener(new CompoundButton.OnCheckedChangeListener() {
+            @Override
+            public void onCheckedChanged(CompoundButton buttonView, boolean isChecked) {
+                if (timer != null) {
+                    timer.setSavingLaps(isChecked);
+                }
             }
         });
     }
 
-    //Stopwatch runs in background
+    // EFFECTS: binds to the service, which shows the time the stopwatch is at and starts the frames
+    //          again once it is connected
     @Override
-    public void onBackPressed() {
-        moveTaskToBack(true);
+    protected void onStart() {
+        super.onStart();
+        visible = true;
+        bindService(new Intent(this, RestTimerService.class), connection, Context.BIND_AUTO_CREATE);
+    }
+
+    //No frames are drawn while the stopwatch cannot be seen. The service keeps the time and goes to
+    //the foreground if the stopwatch is running
+    @Override
+    protected void onStop() {
+        visible = false;
+        cancelFrame();
+        unbindService(connection);
+        timer = null;
+        super.onStop();
+    }
+
+    // EFFECTS: sets the timer text if the time shown has changed since the last frame. The text is
+    //          written into the display's char array, so a frame does not allocate any strings
+    private void showElapsedTime() {
+        if (timer != null && display.update(timer.getElapsed())) {
+            timerValue.setText(display.getChars(), 0, display.getLength());
+        }
+    }
+
+    // EFFECTS: updates the timer on every frame of the display while the stopwatch runs
+    private void onFrame() {
+        frameScheduled = false;
+        showElapsedTime();
+        scheduleFrame();
+    }
+
+    private void scheduleFrame() {
+        if (frameScheduled || !visible || timer == null || !timer.isRunning()) {
+            return;
+        }
+        frameScheduled = true;
+
+        if (frameCallback != null) {
+            postFrameCallback();
+        } else {
+            handler.postDelayed(frameRunnable, FALLBACK_FRAME_MILLIS);
+        }
+    }
+
+    private void cancelFrame() {
+        if (!frameScheduled) {
+            return;
+        }
+        frameScheduled = false;
+
+        if (frameCallback != null) {
+            removeFrameCallback();
+        } else {
+            handler.removeCallbacks(frameRunnable);
+        }
+    }
+
+    private void createFrameCallback() {
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.JELLY_BEAN) {
+            frameCallback = new Choreographer.FrameCallback() {
+                @Override
+                public void doFrame(long frameTimeNanos) {
+                    onFrame();
+                }
+            };
+        } else {
+            frameRunnable = new Runnable() {
+                @Override
+                public void run() {
+                    onFrame();
+                }
+            };
+        }
+    }
+
+    @RequiresApi(api = Build.VERSION_CODES.JELLY_BEAN)
+    private void postFrameCallback() {
+        Choreographer.getInstance().postFrameCallback(frameCallback);
+    }
+
+    @RequiresApi(api = Build.VERSION_CODES.JELLY_BEAN)
+    private void removeFrameCallback() {
+        Choreographer.getInstance().removeFrameCallback(frameCallback);
     }
 }
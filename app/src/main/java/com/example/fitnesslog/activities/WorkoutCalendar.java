@@ -9,25 +9,39 @@ import androidx.appcompat.app.ActionBar;
 import androidx.appcompat.app.AppCompatActivity;
 
 import com.example.fitnesslog.DatabaseHelper;
+import com.example.fitnesslog.DatabaseRepository;
 import com.example.fitnesslog.R;
 import com.example.fitnesslog.Routine;
+import com.example.fitnesslog.RoutineCache;
 import com.github.sundeepk.compactcalendarview.CompactCalendarView;
 import com.github.sundeepk.compactcalendarview.domain.Event;
 
 import java.text.ParseException;
 import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Calendar;
 import java.util.Date;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Locale;
+import java.util.Set;
 
 public class WorkoutCalendar extends AppCompatActivity {
 
+    //The visible month and the months next to it always fit
+    private static final int MAX_LOADED_MONTHS = 6;
+
     private CompactCalendarView compactCalendar;
     private SimpleDateFormat dateFormatMonth;
-    private DatabaseHelper databaseHelper;
+    private DatabaseRepository repository;
     private SimpleDateFormat sdf;
+    private SimpleDateFormat monthFormat;
 
-    private double[] capableWeights;
+    //Months that have their events on the calendar, least recently viewed first
+    private LinkedHashMap<String, List<Event>> loadedMonths;
+    private Set<String> loadingMonths;
 
     @Override
     protected void onCreate(Bundle savedInstanceState) {
@@ -35,7 +49,10 @@ public class WorkoutCalendar extends AppCompatActivity {
         setContentView(R.layout.activity_calendar);
 
         sdf = new SimpleDateFormat("yyyy-MM-dd");
-        databaseHelper = new DatabaseHelper(this);
+        monthFormat = new SimpleDateFormat("yyyy-MM");
+        loadedMonths = new LinkedHashMap<>(MAX_LOADED_MONTHS, 0.75f, true);
+        loadingMonths = new HashSet<>();
+        repository = new DatabaseRepository(this);
         dateFormatMonth = new SimpleDateFormat("MMMM - yyyy", Locale.getDefault());
         final ActionBar actionBar = getSupportActionBar();
         assert actionBar != null;
@@ -47,34 +64,18 @@ public class WorkoutCalendar extends AppCompatActivity {
         compactCalendar = findViewById(R.id.compactcalendar_view);
         compactCalendar.setUseThreeLetterAbbreviation(true);
 
-        if (!databaseHelper.isEmpty()) {
-            fillOutDates();
-        }
+        loadMonthsAround(new Date());
 
         compactCalendar.setListener(new CompactCalendarView.CompactCalendarViewListener() {
             @Override
             public void onDayClick(Date dateClicked) {
                 List<Event> events = compactCalendar.getEvents(dateClicked);
-                Intent intent;
 
                 for (Event event : events) {
                     //Checking if day clicked time matches with the date time of a workout
                     if (dateClicked.getTime() == event.getTimeInMillis()) {
-                        //Finding the most recent routine done on that day
-                        int routineID = databaseHelper.getLatestRoutineByDate(sdf.format(dateClicked));
-                        Routine routine = new Routine(routineID);
-                        intent = new Intent(getApplicationContext(), WorkoutLogActivity.class);
-
-                        //Getting an array of capable weights from that day
-                        capableWeights = databaseHelper.getCapableWeightArray(routineID, sdf.format(dateClicked));
-                        routine.setExerciseWeights(capableWeights);
-
-                        //Passing routine object and date to the next activity
-                        intent.putExtra("ROUTINE", routine);
-                        intent.putExtra("DATE", sdf.format(dateClicked));
-
                         //Go to workout that corresponds to event.getTimeInMillis()
-                        startActivity(intent);
+                        openWorkout(sdf.format(dateClicked));
                     }
                 }
             }
@@ -82,28 +83,112 @@ public class WorkoutCalendar extends AppCompatActivity {
             @Override
             public void onMonthScroll(Date firstDayOfNewMonth) {
                 actionBar.setTitle(dateFormatMonth.format(firstDayOfNewMonth));
+                loadMonthsAround(firstDayOfNewMonth);
+            }
+        });
+    }
+
+    @Override
+    protected void onDestroy() {
+        repository.cancel();
+        super.onDestroy();
+    }
+
+    //Loads the routine and capable weights of the given date, then opens its workout log
+    private void openWorkout(final String date) {
+        repository.read(new DatabaseRepository.Task<Routine>() {
+            @Override
+            public Routine run(DatabaseHelper databaseHelper) {
+                //Getting the most recent routine done on that day with the capable weights from that day
+                return RoutineCache.getRoutineByDate(databaseHelper, date);
+            }
+        }, new DatabaseRepository.Callback<Routine>() {
+            @Override
+            public void onResult(Routine routine) {
+                if (routine == null) {
+                    return;
+                }
+                Intent intent = new Intent(getApplicationContext(), WorkoutLogActivity.class);
+
+                //Passing routine object and date to the next activity
+                routine.putInto(intent);
+                intent.putExtra("DATE", date);
+                startActivity(intent);
+            }
+        });
+    }
+
+    //Makes sure the events of the given month and the months next to it are on the calendar
+    private void loadMonthsAround(Date date) {
+        Calendar calendar = Calendar.getInstance();
+
+        calendar.setTime(date);
+        calendar.set(Calendar.DAY_OF_MONTH, 1);
+        calendar.add(Calendar.MONTH, -1);
+        for (int i = 0; i < 3; i++) {
+            String month = monthFormat.format(calendar.getTime());
+
+            calendar.add(Calendar.MONTH, 1);
+            //Getting the month also marks it as recently viewed
+            if (loadedMonths.get(month) == null && !loadingMonths.contains(month)) {
+                fillOutDates(month, monthFormat.format(calendar.getTime()));
+            }
+        }
+    }
+
+    //Puts all the dates of the month in which a workout was done on the calendar
+    private void fillOutDates(final String month, final String nextMonth) {
+        loadingMonths.add(month);
+        repository.read(new DatabaseRepository.Task<List<String>>() {
+            @Override
+            public List<String> run(DatabaseHelper databaseHelper) {
+                return databaseHelper.returnDistinctDatesBetween(month + "-01", nextMonth + "-01");
+            }
+        }, new DatabaseRepository.Callback<List<String>>() {
+            @Override
+            public void onResult(List<String> dates) {
+                List<Event> events = new ArrayList<>();
+
+                for (String date : dates) {
+                    Event event = createEvent(date);
+
+                    if (event != null) {
+                        events.add(event);
+                    }
+                }
+                loadingMonths.remove(month);
+                loadedMonths.put(month, events);
+                compactCalendar.addEvents(events);
+                removeOldMonths();
+            }
+        }, new DatabaseRepository.FailureCallback() {
+            @Override
+            public void onFailure(RuntimeException e) {
+                //The month is loaded again the next time it is scrolled to
+                loadingMonths.remove(month);
             }
         });
     }
 
-    //Puts all the dates in which a workout was done in a List
-    private void fillOutDates() {
-        List<String> dates = databaseHelper.returnAllDistinctDates();
-        for (String date : dates) {
-            createEvent(date);
+    //Takes the events of the least recently viewed months off the calendar
+    private void removeOldMonths() {
+        Iterator<List<Event>> iterator = loadedMonths.values().iterator();
+
+        while (loadedMonths.size() > MAX_LOADED_MONTHS && iterator.hasNext()) {
+            compactCalendar.removeEvents(iterator.next());
+            iterator.remove();
         }
     }
 
     //Creating an event for each day a workout was done
-    private void createEvent(String currentDate) {
+    private Event createEvent(String currentDate) {
         try {
             Date date = sdf.parse(currentDate);
             assert date != null;
-            Event ev1 = new Event(Color.BLUE, date.getTime(), "Workout");
-
-            compactCalendar.addEvent(ev1);
+            return new Event(Color.BLUE, date.getTime(), "Workout");
         } catch (ParseException e) {
             Log.d("myTag", "Invalid date");
+            return null;
         }
     }
-}
\ No newline at end of file
+}
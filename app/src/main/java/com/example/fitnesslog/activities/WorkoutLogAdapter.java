@@ -0,0 +1,276 @@
+package com.example.fitnesslog.activities;
+
+import android.text.Editable;
+import android.text.InputType;
+import android.text.TextWatcher;
+import android.view.LayoutInflater;
+import android.view.View;
+import android.view.ViewGroup;
+import android.widget.Button;
+import android.widget.EditText;
+import android.widget.LinearLayout;
+import android.widget.TextView;
+
+import androidx.annotation.NonNull;
+import androidx.recyclerview.widget.RecyclerView;
+
+import com.example.fitnesslog.Exercise;
+import com.example.fitnesslog.R;
+import com.example.fitnesslog.Workout;
+
+import java.util.Arrays;
+import java.util.List;
+
+// Shows the exercises of the workout log as a RecyclerView, one item per exercise. The inputs, the
+// number of visible sets and the pass/fail message of every exercise are kept here in arrays indexed
+// by exercise and set, since a recycled item view only holds them while it is bound
+public class WorkoutLogAdapter extends RecyclerView.Adapter<WorkoutLogAdapter.ExerciseHolder> {
+
+    //Rebinds only the sets and the message, so the text being typed into an EditText is not reset
+    private static final Object PAYLOAD_SETS = new Object();
+
+    public interface SubmitListener {
+        // EFFECTS: called when the submit button of the exercise is pressed
+        void onSubmit(View view, int exerciseNum);
+    }
+
+    private final List<Exercise> exercises;
+    private final String[] exerciseNames;
+    private final SubmitListener submitListener;
+
+    private final String[][] weightInputs;
+    private final String[][] repsInputs;
+    private final int[] visibleSets;
+    private final CharSequence[] messages;
+
+    // EFFECTS: exerciseNames are the names shown for the workout's exercises, in the same order
+    public WorkoutLogAdapter(Workout workout, String[] exerciseNames, SubmitListener submitListener) {
+        this.exercises = workout.getExercises();
+        this.exerciseNames = exerciseNames;
+        this.submitListener = submitListener;
+
+        int size = exercises.size();
+        weightInputs = new String[size][];
+        repsInputs = new String[size][];
+        visibleSets = new int[size];
+        messages = new CharSequence[size];
+
+        for (int i = 0; i < size; i++) {
+            int sets = exercises.get(i).getGoalReps().length;
+
+            weightInputs[i] = new String[sets];
+            repsInputs[i] = new String[sets];
+            Arrays.fill(weightInputs[i], "");
+            Arrays.fill(repsInputs[i], "");
+            visibleSets[i] = Math.min(1, sets);
+        }
+        setHasStableIds(true);
+    }
+
+    @Override
+    public int getItemCount() {
+        return exercises.size();
+    }
+
+    //The exercises of a workout never move, so their index identifies them
+    @Override
+    public long getItemId(int position) {
+        return position;
+    }
+
+    @NonNull
+    @Override
+    public ExerciseHolder onCreateViewHolder(@NonNull ViewGroup parent, int viewType) {
+        View view = LayoutInflater.from(parent.getContext()).inflate(R.layout.item_exercise_log, parent, false);
+        return new ExerciseHolder(view);
+    }
+
+    @Override
+    public void onBindViewHolder(@NonNull ExerciseHolder holder, int position) {
+        holder.bind(position);
+    }
+
+    @Override
+    public void onBindViewHolder(@NonNull ExerciseHolder holder, int position, @NonNull List<Object> payloads) {
+        if (payloads.isEmpty()) {
+            holder.bind(position);
+        } else {
+            holder.bindSets(position);
+        }
+    }
+
+    public String[] getWeightInputs(int exerciseNum) {
+        return weightInputs[exerciseNum];
+    }
+
+    public String[] getRepsInputs(int exerciseNum) {
+        return repsInputs[exerciseNum];
+    }
+
+    public int getVisibleSets(int exerciseNum) {
+        return visibleSets[exerciseNum];
+    }
+
+    // EFFECTS: shows the sets of the exercise up to and including setNum
+    public void showSets(int exerciseNum, int setNum) {
+        if (setNum + 1 > visibleSets[exerciseNum]) {
+            visibleSets[exerciseNum] = Math.min(setNum + 1, weightInputs[exerciseNum].length);
+            notifyItemChanged(exerciseNum, PAYLOAD_SETS);
+        }
+    }
+
+    public void setMessage(int exerciseNum, CharSequence message) {
+        messages[exerciseNum] = message;
+        notifyItemChanged(exerciseNum, PAYLOAD_SETS);
+    }
+
+    // EFFECTS: fills out the inputs of the exercise with the sets already logged on the date and shows them
+    public void setLoggedSets(int exerciseNum, List<Double> weights, List<Integer> reps) {
+        int sets = weightInputs[exerciseNum].length;
+
+        for (int i = 0; i < weights.size() && i < sets; i++) {
+            weightInputs[exerciseNum][i] = weights.get(i) + "";
+        }
+        for (int i = 0; i < reps.size() && i < sets; i++) {
+            repsInputs[exerciseNum][i] = reps.get(i) + "";
+        }
+        int logged = Math.min(sets, Math.max(weights.size(), reps.size()));
+        visibleSets[exerciseNum] = Math.max(visibleSets[exerciseNum], logged);
+        notifyItemChanged(exerciseNum);
+    }
+
+    // The views of one exercise. The rows of sets are added when an exercise with more sets than
+    // before is bound and are hidden when it has fewer, so rebinding does not inflate anything
+    public class ExerciseHolder extends RecyclerView.ViewHolder {
+
+        private final TextView name;
+        private final TextView weight;
+        private final TextView sets;
+        private final TextView reps;
+        private final LinearLayout setNumberColumn;
+        private final LinearLayout weightColumn;
+        private final LinearLayout repsColumn;
+        private final TextView message;
+
+        private TextView[] setNumbers = new TextView[0];
+        private EditText[] weightEditTexts = new EditText[0];
+        private EditText[] repsEditTexts = new EditText[0];
+
+        private int exerciseNum = RecyclerView.NO_POSITION;
+
+        //True while the EditTexts are filled out from the inputs, so they are not written back
+        private boolean binding;
+
+        ExerciseHolder(View view) {
+            super(view);
+            name = view.findViewById(R.id.exercise_name);
+            weight = view.findViewById(R.id.exercise_weight);
+            sets = view.findViewById(R.id.exercise_sets);
+            reps = view.findViewById(R.id.exercise_reps);
+            setNumberColumn = view.findViewById(R.id.set_numbers);
+            weightColumn = view.findViewById(R.id.set_weights);
+            repsColumn = view.findViewById(R.id.set_reps);
+            message = view.findViewById(R.id.pass_fail_message);
+
+            Button submitButton = view.findViewById(R.id.submit_button);
+            submitButton.setOnClickListener(new View.OnClickListener() {
+                public void onClick(View v) {
+                    if (exerciseNum != RecyclerView.NO_POSITION) {
+                        submitListener.onSubmit(v, exerciseNum);
+                    }
+                }
+            });
+        }
+
+        void bind(int position) {
+            Exercise exercise = exercises.get(position);
+            int[] goalReps = exercise.getGoalReps();
+
+            exerciseNum = position;
+            name.setText(exerciseNames[position]);
+            weight.setText("Weight:\n" + exercise.getGoalWeight() + " lb");
+            sets.setText("Sets: " + goalReps.length);
+            reps.setText("Reps: " + (goalReps.length > 0 ? goalReps[0] : 0));
+
+            ensureSetRows(goalReps.length);
+            binding = true;
+            for (int i = 0; i < goalReps.length; i++) {
+                weightEditTexts[i].setText(weightInputs[position][i]);
+                repsEditTexts[i].setText(repsInputs[position][i]);
+            }
+            binding = false;
+            bindSets(position);
+        }
+
+        void bindSets(int position) {
+            int setCount = weightInputs[position].length;
+
+            for (int i = 0; i < setNumbers.length; i++) {
+                int visibility = i < visibleSets[position] ? View.VISIBLE : View.GONE;
+
+                setNumbers[i].setVisibility(i < setCount ? visibility : View.GONE);
+                weightEditTexts[i].setVisibility(i < setCount ? visibility : View.GONE);
+                repsEditTexts[i].setVisibility(i < setCount ? visibility : View.GONE);
+            }
+            message.setText(messages[position]);
+        }
+
+        // EFFECTS: adds rows until there is one for every set
+        private void ensureSetRows(int setCount) {
+            int oldCount = setNumbers.length;
+
+            if (setCount <= oldCount) {
+                return;
+            }
+            setNumbers = Arrays.copyOf(setNumbers, setCount);
+            weightEditTexts = Arrays.copyOf(weightEditTexts, setCount);
+            repsEditTexts = Arrays.copyOf(repsEditTexts, setCount);
+
+            for (int i = oldCount; i < setCount; i++) {
+                TextView setNumber = new TextView(itemView.getContext());
+                LinearLayout.LayoutParams params =
+                        new LinearLayout.LayoutParams(LinearLayout.LayoutParams.MATCH_PARENT, 0);
+                params.weight = 1f;
+                setNumber.setLayoutParams(params);
+                setNumber.setText((i + 1) + "");
+                setNumberColumn.addView(setNumber);
+                setNumbers[i] = setNumber;
+
+                weightEditTexts[i] = createEditText(weightColumn, i, true);
+                repsEditTexts[i] = createEditText(repsColumn, i, false);
+            }
+        }
+
+        private EditText createEditText(LinearLayout column, final int setNum, final boolean isWeight) {
+            EditText editText = new EditText(itemView.getContext());
+
+            editText.setLayoutParams(new LinearLayout.LayoutParams(LinearLayout.LayoutParams.MATCH_PARENT,
+                    LinearLayout.LayoutParams.WRAP_CONTENT));
+            editText.setInputType(InputType.TYPE_CLASS_NUMBER | InputType.TYPE_NUMBER_FLAG_DECIMAL);
+            editText.addTextChangedListener(new TextWatcher() {
+                @Override
+                public void beforeTextChanged(CharSequence s, int start, int count, int after) {
+                }
+
+                @Override
+                public void onTextChanged(CharSequence s, int start, int before, int count) {
+                }
+
+                @Override
+                public void afterTextChanged(Editable s) {
+                    if (binding || exerciseNum == RecyclerView.NO_POSITION
+                            || setNum >= weightInputs[exerciseNum].length) {
+                        return;
+                    }
+                    if (isWeight) {
+                        weightInputs[exerciseNum][setNum] = s.toString();
+                    } else {
+                        repsInputs[exerciseNum][setNum] = s.toString();
+                    }
+                }
+            });
+            column.addView(editText);
+            return editText;
+        }
+    }
+}
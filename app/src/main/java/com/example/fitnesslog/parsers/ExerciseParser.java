@@ -1,27 +1,268 @@
 package com.example.fitnesslog.parsers;
 
-import com.example.fitnesslog.Exercise;
+import android.util.JsonReader;
 
-import org.json.JSONArray;
-import org.json.JSONException;
-import org.json.JSONObject;
+import com.example.fitnesslog.ProgressionTable;
+import com.example.fitnesslog.RoutineTemplate;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 
+// Reads program definitions one token at a time with a JsonReader, so only the program that is being
+// read is held in memory and never the whole document. The input is an array of programs:
+//
+//  [{"id": 1, "name": "Beginner",
+//    "exercises": [{"name": "Squat", "defaultWeight": 95}, ...],
+//    "slots": [{"name": "Squat1", "exercise": "Squat", "multiplier": 0.9, "round": true,
+//               "increment": 0, "percentage": 1, "goalReps": [5, 5, 5]}, ...],
+//    "workouts": [["Squat1", "Bench Press", "Barbell Row"], ...]}, ...]
+//
+// The exercises are the names that the capable weights are indexed by, every slot is a row of the
+// program's ProgressionTable and every workout lists the slots it is made of. A slot is based on the
+// exercise with its own name unless "exercise" is given. Missing multipliers and percentages are 1,
+// missing increments are 0 and keys that are not known are skipped
 public class ExerciseParser {
 
-    public List<Exercise> parse(String input) {
-        List<Exercise> exercises = new ArrayList<>();
+    public interface ProgramListener {
+        // EFFECTS: called with every program as soon as it has been read
+        void onProgram(RoutineTemplate template);
+    }
+
+    // A slot as it is read, before its exercise name is turned into an index
+    private static class Slot {
+        String name;
+        String exercise;
+        double multiplier = 1;
+        boolean round;
+        int increment;
+        double percentage = 1;
+        int[] goalReps = new int[0];
+    }
+
+    // EFFECTS: returns the programs of the input in the order they are defined. Nothing is returned
+    //          if any of them is invalid. The input is not closed
+    public List<RoutineTemplate> parse(InputStream in) throws IOException {
+        final List<RoutineTemplate> templates = new ArrayList<>();
+
+        parse(in, new ProgramListener() {
+            @Override
+            public void onProgram(RoutineTemplate template) {
+                templates.add(template);
+            }
+        });
+        return templates;
+    }
+
+    // EFFECTS: passes every program of the input to the listener as soon as it has been read, so a
+    //          listener that does not keep them parses any number of programs in constant memory.
+    //          Throws IOException at the first invalid program. The input is not closed
+    public void parse(InputStream in, ProgramListener listener) throws IOException {
+        JsonReader reader = new JsonReader(new InputStreamReader(in, "UTF-8"));
+
         try {
-            JSONArray exerciseArray = new JSONArray(input);
-            for (int i = 0; i < exerciseArray.length(); i++) {
-                JSONObject exerciseJSON = exerciseArray.getJSONObject(i);
+            reader.beginArray();
+            while (reader.hasNext()) {
+                listener.onProgram(readProgram(reader));
+            }
+            reader.endArray();
+        } catch (IllegalStateException | NumberFormatException e) {
+            //Thrown by JsonReader when a value has the wrong type
+            throw new IOException(e.getMessage(), e);
+        }
+    }
+
+    private RoutineTemplate readProgram(JsonReader reader) throws IOException {
+        int routineID = -1;
+        String name = null;
+        List<String> exerciseNames = new ArrayList<>();
+        double[] defaultWeights = new double[16];
+        List<Slot> slots = new ArrayList<>();
+        List<String[]> workouts = new ArrayList<>();
+
+        reader.beginObject();
+        while (reader.hasNext()) {
+            switch (reader.nextName()) {
+                case "id":
+                    routineID = reader.nextInt();
+                    break;
+                case "name":
+                    name = reader.nextString();
+                    break;
+                case "exercises":
+                    reader.beginArray();
+                    while (reader.hasNext()) {
+                        if (exerciseNames.size() == defaultWeights.length) {
+                            defaultWeights = Arrays.copyOf(defaultWeights, 2 * defaultWeights.length);
+                        }
+                        readExercise(reader, exerciseNames, defaultWeights);
+                    }
+                    reader.endArray();
+                    break;
+                case "slots":
+                    reader.beginArray();
+                    while (reader.hasNext()) {
+                        slots.add(readSlot(reader));
+                    }
+                    reader.endArray();
+                    break;
+                case "workouts":
+                    reader.beginArray();
+                    while (reader.hasNext()) {
+                        workouts.add(readStrings(reader));
+                    }
+                    reader.endArray();
+                    break;
+                default:
+                    reader.skipValue();
             }
-        } catch (JSONException e) {
-            e.printStackTrace();
         }
+        reader.endObject();
 
-        return exercises;
+        if (name == null || exerciseNames.isEmpty() || slots.isEmpty() || workouts.isEmpty()) {
+            throw new IOException("Incomplete program " + (name == null ? routineID : name));
+        }
+        return createTemplate(routineID, name, exerciseNames, Arrays.copyOf(defaultWeights, exerciseNames.size()),
+                slots, workouts);
+    }
+
+    private void readExercise(JsonReader reader, List<String> exerciseNames, double[] defaultWeights)
+            throws IOException {
+        String name = null;
+        double defaultWeight = 0;
+
+        reader.beginObject();
+        while (reader.hasNext()) {
+            switch (reader.nextName()) {
+                case "name":
+                    name = reader.nextString();
+                    break;
+                case "defaultWeight":
+                    defaultWeight = reader.nextDouble();
+                    break;
+                default:
+                    reader.skipValue();
+            }
+        }
+        reader.endObject();
+
+        if (name == null) {
+            throw new IOException("Exercise without a name");
+        }
+        defaultWeights[exerciseNames.size()] = defaultWeight;
+        exerciseNames.add(name);
+    }
+
+    private Slot readSlot(JsonReader reader) throws IOException {
+        Slot slot = new Slot();
+
+        reader.beginObject();
+        while (reader.hasNext()) {
+            switch (reader.nextName()) {
+                case "name":
+                    slot.name = reader.nextString();
+                    break;
+                case "exercise":
+                    slot.exercise = reader.nextString();
+                    break;
+                case "multiplier":
+                    slot.multiplier = reader.nextDouble();
+                    break;
+                case "round":
+                    slot.round = reader.nextBoolean();
+                    break;
+                case "increment":
+                    slot.increment = reader.nextInt();
+                    break;
+                case "percentage":
+                    slot.percentage = reader.nextDouble();
+                    break;
+                case "goalReps":
+                    slot.goalReps = readInts(reader);
+                    break;
+                default:
+                    reader.skipValue();
+            }
+        }
+        reader.endObject();
+
+        if (slot.name == null) {
+            throw new IOException("Slot without a name");
+        }
+        return slot;
+    }
+
+    private int[] readInts(JsonReader reader) throws IOException {
+        int[] values = new int[8];
+        int size = 0;
+
+        reader.beginArray();
+        while (reader.hasNext()) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, 2 * size);
+            }
+            values[size++] = reader.nextInt();
+        }
+        reader.endArray();
+        return Arrays.copyOf(values, size);
+    }
+
+    private String[] readStrings(JsonReader reader) throws IOException {
+        List<String> values = new ArrayList<>();
+
+        reader.beginArray();
+        while (reader.hasNext()) {
+            values.add(reader.nextString());
+        }
+        reader.endArray();
+        return values.toArray(new String[values.size()]);
+    }
+
+    // EFFECTS: builds the program's table and template, checking every name that refers to another
+    //          part of the program
+    private RoutineTemplate createTemplate(int routineID, String name, List<String> exerciseNames,
+                                           double[] defaultWeights, List<Slot> slots, List<String[]> workouts)
+            throws IOException {
+        ProgressionTable.Builder table = new ProgressionTable.Builder(slots.size());
+        List<String> slotNames = new ArrayList<>(slots.size());
+
+        for (Slot slot : slots) {
+            String exercise = slot.exercise == null ? slot.name : slot.exercise;
+            int nameIndex = indexOfIgnoreCase(exerciseNames, exercise);
+
+            if (nameIndex < 0) {
+                throw new IOException("Unknown exercise " + exercise + " in " + name);
+            }
+            table.add(slot.name, nameIndex, slot.multiplier, slot.round, slot.increment, slot.percentage,
+                    slot.goalReps);
+            slotNames.add(slot.name);
+        }
+        for (String[] workout : workouts) {
+            for (String slotName : workout) {
+                if (indexOfIgnoreCase(slotNames, slotName) < 0) {
+                    throw new IOException("Unknown slot " + slotName + " in " + name);
+                }
+            }
+        }
+
+        try {
+            return new RoutineTemplate(routineID, name, exerciseNames.toArray(new String[exerciseNames.size()]),
+                    defaultWeights, table.build(), workouts.toArray(new String[workouts.size()][]));
+        } catch (IllegalArgumentException e) {
+            throw new IOException(e.getMessage(), e);
+        }
+    }
+
+    //Names are compared ignoring case, like RoutineTemplate's lookups
+    private static int indexOfIgnoreCase(List<String> names, String name) {
+        for (int i = 0; i < names.size(); i++) {
+            if (names.get(i).equalsIgnoreCase(name)) {
+                return i;
+            }
+        }
+        return -1;
     }
 }
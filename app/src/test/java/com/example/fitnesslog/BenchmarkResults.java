@@ -0,0 +1,96 @@
+package com.example.fitnesslog;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+// Times benchmarks and writes the results as JSON. Every benchmark is on its own line with its keys
+// in a fixed order, so the files of two commits can be compared with a plain diff
+public class BenchmarkResults {
+
+    private final Map<String, Object> parameters = new LinkedHashMap<>();
+    private final List<String> lines = new ArrayList<>();
+
+    public interface Operation {
+        // EFFECTS: runs the measured code once. The return value is kept so it cannot be optimized away
+        Object run(int iteration);
+    }
+
+    private static volatile Object sink;
+
+    public void addParameter(String name, Object value) {
+        parameters.put(name, value);
+    }
+
+    // EFFECTS: runs the operation warmup times without measuring it, then measures each of the
+    //          iterations on its own and records the min, median, 90th percentile and mean in ns
+    public void measure(String name, int warmup, int iterations, Operation operation) {
+        for (int i = 0; i < warmup; i++) {
+            sink = operation.run(i);
+        }
+
+        long[] times = new long[iterations];
+        long total = 0;
+
+        for (int i = 0; i < iterations; i++) {
+            long start = System.nanoTime();
+            sink = operation.run(warmup + i);
+            times[i] = System.nanoTime() - start;
+            total += times[i];
+        }
+        Arrays.sort(times);
+
+        lines.add(String.format(Locale.US,
+                "{\"name\": \"%s\", \"iterations\": %d, \"minNs\": %d, \"medianNs\": %d, \"p90Ns\": %d, \"meanNs\": %d}",
+                name, iterations, times[0], times[iterations / 2], times[iterations * 9 / 10], total / iterations));
+    }
+
+    // EFFECTS: writes the parameters and the benchmarks to name.json in the directory given by the
+    //          benchmark.outputDir property, creating it if needed
+    public void write(String name) throws IOException {
+        File directory = new File(System.getProperty("benchmark.outputDir", "build/benchmark"));
+
+        if (!directory.isDirectory() && !directory.mkdirs()) {
+            throw new IOException("could not create " + directory);
+        }
+
+        File file = new File(directory, name + ".json");
+        Writer writer = new OutputStreamWriter(new FileOutputStream(file), "UTF-8");
+        try {
+            writer.write(toJson());
+        } finally {
+            writer.close();
+        }
+    }
+
+    public String toJson() {
+        StringBuilder json = new StringBuilder("{\n  \"parameters\": {");
+        String separator = "";
+
+        for (Map.Entry<String, Object> parameter : parameters.entrySet()) {
+            json.append(separator).append('"').append(parameter.getKey()).append("\": ");
+            Object value = parameter.getValue();
+
+            if (value instanceof Number || value instanceof Boolean) {
+                json.append(value);
+            } else {
+                json.append('"').append(value).append('"');
+            }
+            separator = ", ";
+        }
+        json.append("},\n  \"benchmarks\": [");
+
+        for (int i = 0; i < lines.size(); i++) {
+            json.append(i == 0 ? "\n    " : ",\n    ").append(lines.get(i));
+        }
+        return json.append("\n  ]\n}\n").toString();
+    }
+}
@@ -0,0 +1,181 @@
+package com.example.fitnesslog;
+
+import android.content.Context;
+
+import androidx.test.core.app.ApplicationProvider;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import java.util.Calendar;
+import java.util.List;
+
+import static org.junit.Assert.assertTrue;
+
+// Measures the DatabaseHelper queries on a synthetic history, first on the current schema and then
+// again after dropping the secondary indexes, which is what a version 1 database had. Runs on the JVM
+// with Robolectric's SQLite and is left out of the normal unit tests. Run it with
+//     ./gradlew testDebugUnitTest -Pbenchmark
+// and optionally -Pbenchmark.users=N -Pbenchmark.years=N. The default of 20 users over 3 years is
+// about 100k rows. The results are written to app/build/benchmark/database.json
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 28)
+public class DatabaseBenchmark {
+
+    private static final int WARMUP = 20;
+    private static final int ITERATIONS = 200;
+
+    private static final String[] SECONDARY_INDEXES = {"DataTableDateRoutineIndex", "DataTableTimeIndex",
+            "BeginnerTableExerciseIndex", "IntermediateTableExerciseIndex", "AdvancedTableExerciseIndex"};
+
+    private DatabaseHelper databaseHelper;
+    private HistoryGenerator history;
+
+    @Before
+    public void setUp() {
+        Context context = ApplicationProvider.getApplicationContext();
+        context.deleteDatabase("fitness.db");
+        databaseHelper = DatabaseHelper.getInstance(context);
+
+        history = new HistoryGenerator(Integer.getInteger("benchmark.users", 20),
+                Integer.getInteger("benchmark.years", 3), 42);
+
+        Calendar end = Calendar.getInstance();
+        end.clear();
+        end.set(2019, Calendar.SEPTEMBER, 1);
+        history.generate(databaseHelper, end);
+    }
+
+    @After
+    public void tearDown() {
+        DatabaseHelper.releaseInstance();
+    }
+
+    @Test
+    public void benchmarkQueries() throws Exception {
+        BenchmarkResults results = new BenchmarkResults();
+
+        results.addParameter("users", history.getUsers());
+        results.addParameter("years", history.getYears());
+        results.addParameter("rows", history.getRowCount());
+        results.addParameter("warmup", WARMUP);
+        results.addParameter("iterations", ITERATIONS);
+
+        measureQueries(results, "");
+
+        //The same queries without the indexes added in version 2, so both schemas are in one file
+        for (String index : SECONDARY_INDEXES) {
+            databaseHelper.getWritableDatabase().execSQL("DROP INDEX " + index);
+        }
+        measureQueries(results, "_noIndexes");
+
+        results.write("database");
+        System.out.println(results.toJson());
+
+        List<String> dates = databaseHelper.returnAllDistinctDates();
+        assertTrue(dates.contains(history.getLastDate()));
+    }
+
+    // EFFECTS: measures every query, adding the suffix to the names of the benchmarks
+    private void measureQueries(BenchmarkResults results, String suffix) {
+        final HistoryGenerator.Day[] days = {history.getSampleDay(1), history.getSampleDay(2),
+                history.getSampleDay(3)};
+        final String lastDate = history.getLastDate();
+
+        results.measure("getCapableWeightRecent" + suffix, WARMUP, ITERATIONS, new BenchmarkResults.Operation() {
+            @Override
+            public Object run(int iteration) {
+                HistoryGenerator.Day day = days[iteration % days.length];
+                return databaseHelper.getCapableWeightRecent(day.table, day.exerciseName, day.routineID,
+                        day.workoutNum, lastDate);
+            }
+        });
+
+        results.measure("getCapableWeightRecent_sameDay" + suffix, WARMUP, ITERATIONS, new BenchmarkResults.Operation() {
+            @Override
+            public Object run(int iteration) {
+                HistoryGenerator.Day day = days[iteration % days.length];
+                return databaseHelper.getCapableWeightRecent(day.table, day.exerciseName, day.routineID,
+                        day.workoutNum, day.date);
+            }
+        });
+
+        results.measure("getLatestWorkout" + suffix, WARMUP, ITERATIONS, new BenchmarkResults.Operation() {
+            @Override
+            public Object run(int iteration) {
+                return databaseHelper.getLatestWorkout(days[iteration % days.length].table);
+            }
+        });
+
+        results.measure("getCapableWeightArray" + suffix, WARMUP, ITERATIONS, new BenchmarkResults.Operation() {
+            @Override
+            public Object run(int iteration) {
+                HistoryGenerator.Day day = days[iteration % days.length];
+                return databaseHelper.getCapableWeightArray(day.routineID, day.date);
+            }
+        });
+
+        //The lookup getCapableWeightArray replaced, one query per exercise of the routine
+        results.measure("getCapableWeightArray_perExercise" + suffix, WARMUP, ITERATIONS, new BenchmarkResults.Operation() {
+            @Override
+            public Object run(int iteration) {
+                HistoryGenerator.Day day = days[iteration % days.length];
+                RoutineTemplate template = RoutineTemplate.forRoutine(day.routineID);
+                String[] exerciseNames = template.getExerciseNames();
+                double[] weights = new double[exerciseNames.length];
+
+                for (int i = 0; i < exerciseNames.length; i++) {
+                    weights[i] = databaseHelper.getCapableWeightByDate(template.getTable(), day.routineID,
+                            exerciseNames[i], day.date);
+                }
+                return weights;
+            }
+        });
+
+        results.measure("getDailySummary" + suffix, WARMUP, ITERATIONS, new BenchmarkResults.Operation() {
+            @Override
+            public Object run(int iteration) {
+                return databaseHelper.getDailySummary(days[iteration % days.length].date);
+            }
+        });
+
+        results.measure("returnAllDistinctDates" + suffix, WARMUP / 4, ITERATIONS / 4, new BenchmarkResults.Operation() {
+            @Override
+            public Object run(int iteration) {
+                return databaseHelper.returnAllDistinctDates();
+            }
+        });
+
+        results.measure("returnDistinctDatesBetween" + suffix, WARMUP, ITERATIONS, new BenchmarkResults.Operation() {
+            @Override
+            public Object run(int iteration) {
+                String month = days[iteration % days.length].date.substring(0, 8);
+                return databaseHelper.returnDistinctDatesBetween(month + "01", month + "32");
+            }
+        });
+
+        results.measure("getRepsByExerciseAndDate" + suffix, WARMUP, ITERATIONS, new BenchmarkResults.Operation() {
+            @Override
+            public Object run(int iteration) {
+                HistoryGenerator.Day day = days[iteration % days.length];
+                return databaseHelper.getRepsByExerciseAndDate(day.table, day.exerciseName, day.workoutNum,
+                        day.routineID, day.date);
+            }
+        });
+
+        //Writes the same sets back on a past day, so the history does not change between iterations
+        results.measure("updateEntries" + suffix, WARMUP, ITERATIONS, new BenchmarkResults.Operation() {
+            @Override
+            public Object run(int iteration) {
+                HistoryGenerator.Day day = days[iteration % days.length];
+                databaseHelper.updateEntries(day.reps.length, day.date, day.routineID,
+                        day.workoutExerciseID, day.weights, day.reps, day.capableWeight);
+                return day;
+            }
+        });
+    }
+}
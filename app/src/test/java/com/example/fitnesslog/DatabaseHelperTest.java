@@ -0,0 +1,130 @@
+package com.example.fitnesslog;
+
+import android.content.Context;
+
+import androidx.test.core.app.ApplicationProvider;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import java.util.Calendar;
+import java.util.List;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 28)
+public class DatabaseHelperTest {
+
+    private DatabaseHelper databaseHelper;
+
+    @Before
+    public void setUp() {
+        Context context = ApplicationProvider.getApplicationContext();
+        databaseHelper = DatabaseHelper.getInstance(context);
+    }
+
+    @After
+    public void tearDown() {
+        DatabaseHelper.releaseInstance();
+    }
+
+    @Test
+    public void capableWeightArrayMatchesOneLookupPerExercise() {
+        HistoryGenerator history = new HistoryGenerator(2, 1, 7);
+        Calendar end = Calendar.getInstance();
+        end.clear();
+        end.set(2019, Calendar.SEPTEMBER, 1);
+        history.generate(databaseHelper, end);
+
+        List<String> dates = databaseHelper.returnAllDistinctDates();
+        assertTrue(dates.size() > 100);
+
+        //Every routine on every date, so dates of another routine have to come back as all -1 too
+        for (String date : dates) {
+            for (int routineID = 1; routineID <= 3; routineID++) {
+                assertArrayEquals(date + " " + routineID, getCapableWeightsPerExercise(routineID, date),
+                        databaseHelper.getCapableWeightArray(routineID, date), 0);
+            }
+        }
+    }
+
+    @Test
+    public void newProgramReplacesTheDay() {
+        String date = "2019-09-02";
+        databaseHelper.insertBeginnerRoutineData(0, "Squat");
+        databaseHelper.insertBeginnerRoutineData(0, "Bench Press");
+        int squat = databaseHelper.getWorkoutExerciseID("BeginnerTable", "Squat", 0);
+        int bench = databaseHelper.getWorkoutExerciseID("BeginnerTable", "Bench Press", 0);
+        databaseHelper.insertData(1000, date, 1, squat, 135, 5, 135);
+
+        databaseHelper.insertNewProgram(2000, date, 1, new int[]{bench, squat}, new double[]{100, 150});
+
+        assertEquals(150, databaseHelper.getCapableWeightRecent("BeginnerTable", "Squat", 1, 0, "2019-09-03"), 0);
+        assertTrue(databaseHelper.getWeightByExerciseAndDate("BeginnerTable", "Squat", 0, 1, date).isEmpty());
+        double[] weights = databaseHelper.getDailySummary(date).getCapableWeights();
+        assertEquals(100, weights[0], 0);
+        assertEquals(150, weights[2], 0);
+    }
+
+    @Test
+    public void dailySummaryFollowsTheWrites() {
+        String date = "2019-09-02";
+        databaseHelper.insertBeginnerRoutineData(0, "Squat");
+        databaseHelper.insertBeginnerRoutineData(1, "Deadlift");
+        int squat = databaseHelper.getWorkoutExerciseID("BeginnerTable", "Squat", 0);
+        int deadlift = databaseHelper.getWorkoutExerciseID("BeginnerTable", "Deadlift", 1);
+
+        databaseHelper.insertData(1000, date, 1, squat, 95, 5, 95);
+        DailySummary summary = databaseHelper.getDailySummary(date);
+        assertEquals(1, summary.getRoutineID());
+        assertEquals(0, summary.getWorkoutNum());
+        assertArrayEquals(databaseHelper.getCapableWeightArray(1, date), summary.getCapableWeights(), 0);
+        assertEquals(95, summary.getCapableWeights()[2], 0);
+
+        //Updating the sets changes the capable weight, and the latest entry decides the workout. The
+        //added sets are stamped with the current time, so the deadlift comes after them
+        databaseHelper.upsertSets(3, date, 1, squat, new double[]{100, 100, 100}, new int[]{5, 5, 5}, 100);
+        databaseHelper.insertData(System.currentTimeMillis() + 60000, date, 1, deadlift, 135, 5, 135);
+        summary = databaseHelper.getDailySummary(date);
+        assertEquals(1, summary.getWorkoutNum());
+        assertEquals(100, summary.getCapableWeights()[2], 0);
+        assertEquals(135, summary.getCapableWeights()[3], 0);
+
+        databaseHelper.deleteTodaysData(date);
+        assertNull(databaseHelper.getDailySummary(date));
+    }
+
+    @Test
+    public void capableWeightsKeepEveryDigit() {
+        //Needs 17 digits, while SQLite turns a REAL into text with 15
+        double capableWeight = Math.nextUp(102.5);
+        databaseHelper.insertBeginnerRoutineData(0, "Squat");
+        int squat = databaseHelper.getWorkoutExerciseID("BeginnerTable", "Squat", 0);
+        databaseHelper.insertData(1000, "2019-09-02", 1, squat, 100, 5, capableWeight);
+
+        //The same date reads the oldest entry of the date, a later one the latest entry
+        assertEquals(capableWeight, databaseHelper.getCapableWeightRecent("BeginnerTable", "Squat", 1, 0, "2019-09-02"), 0);
+        assertEquals(capableWeight, databaseHelper.getCapableWeightRecent("BeginnerTable", "Squat", 1, 0, "2019-09-04"), 0);
+        assertEquals(-1, databaseHelper.getCapableWeightRecent("BeginnerTable", "Deadlift", 1, 0, "2019-09-04"), 0);
+    }
+
+    //What getCapableWeightArray did before it was a single query
+    private double[] getCapableWeightsPerExercise(int routineID, String date) {
+        RoutineTemplate template = RoutineTemplate.forRoutine(routineID);
+        String[] exerciseNames = template.getExerciseNames();
+        double[] weights = new double[exerciseNames.length];
+
+        for (int i = 0; i < exerciseNames.length; i++) {
+            weights[i] = databaseHelper.getCapableWeightByDate(template.getTable(), routineID, exerciseNames[i], date);
+        }
+        return weights;
+    }
+}
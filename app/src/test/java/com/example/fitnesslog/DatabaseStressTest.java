@@ -0,0 +1,148 @@
+package com.example.fitnesslog;
+
+import android.content.Context;
+
+import androidx.test.core.app.ApplicationProvider;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Calendar;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+
+import static org.junit.Assert.assertTrue;
+
+// Runs the cached statements of DatabaseHelper from several readers and a writer at once. The readers
+// repeat lookups on the history whose answers were taken before they started, while the writer logs
+// workouts on new dates and reads each one back
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 28)
+public class DatabaseStressTest {
+
+    private static final int READERS = 6;
+    private static final int ROUNDS = 200;
+    private static final int WRITES = 100;
+
+    private DatabaseHelper databaseHelper;
+    private HistoryGenerator history;
+
+    @Before
+    public void setUp() {
+        Context context = ApplicationProvider.getApplicationContext();
+        context.deleteDatabase("fitness.db");
+        databaseHelper = DatabaseHelper.getInstance(context);
+
+        history = new HistoryGenerator(1, 1, 11);
+        Calendar end = Calendar.getInstance();
+        end.clear();
+        end.set(2019, Calendar.SEPTEMBER, 1);
+        history.generate(databaseHelper, end);
+    }
+
+    @After
+    public void tearDown() {
+        DatabaseHelper.releaseInstance();
+    }
+
+    @Test
+    public void readersAndAWriterGetTheirOwnResults() throws InterruptedException {
+        final HistoryGenerator.Day day = history.getSampleDay(1);
+        final List<String> dates = databaseHelper.returnAllDistinctDates();
+
+        //The answers of one thread, which the readers have to keep getting
+        final List<double[]> capableWeights = new ArrayList<>();
+        final List<Boolean> entered = new ArrayList<>();
+        final List<Integer> latestRoutines = new ArrayList<>();
+        for (String date : dates) {
+            capableWeights.add(databaseHelper.getCapableWeightArray(day.routineID, date));
+            entered.add(databaseHelper.haveEntriesBeenEntered(date, day.routineID, day.workoutExerciseID));
+            latestRoutines.add(databaseHelper.getLatestRoutineByDate(date));
+        }
+
+        final Queue<String> failures = new ConcurrentLinkedQueue<>();
+        final CountDownLatch start = new CountDownLatch(1);
+        List<Thread> threads = new ArrayList<>();
+
+        for (int reader = 0; reader < READERS; reader++) {
+            final int offset = reader * dates.size() / READERS;
+            threads.add(new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    try {
+                        start.await();
+                        for (int round = 0; round < ROUNDS; round++) {
+                            int i = (offset + round) % dates.size();
+                            String date = dates.get(i);
+
+                            if (!Arrays.equals(capableWeights.get(i), databaseHelper.getCapableWeightArray(day.routineID, date))) {
+                                failures.add("capable weights of " + date);
+                            }
+                            if (entered.get(i) != databaseHelper.haveEntriesBeenEntered(date, day.routineID, day.workoutExerciseID)) {
+                                failures.add("entries of " + date);
+                            }
+                            if (latestRoutines.get(i) != databaseHelper.getLatestRoutineByDate(date)) {
+                                failures.add("latest routine of " + date);
+                            }
+                        }
+                    } catch (Throwable e) {
+                        failures.add(e.toString());
+                    }
+                }
+            }));
+        }
+
+        threads.add(new Thread(new Runnable() {
+            @Override
+            public void run() {
+                SimpleDateFormat sdf = new SimpleDateFormat("yyyy-MM-dd", Locale.US);
+                Calendar next = Calendar.getInstance();
+                next.clear();
+                next.set(2019, Calendar.SEPTEMBER, 2);
+
+                try {
+                    start.await();
+                    for (int write = 0; write < WRITES; write++) {
+                        String date = sdf.format(next.getTime());
+                        //The first set is never more than the others, so these are already sorted
+                        int[] reps = {write % 5 + 1, 5, 5};
+                        databaseHelper.upsertSets(reps.length, date, day.routineID, day.workoutExerciseID,
+                                new double[]{100 + write, 100, 100}, reps, 100);
+
+                        //The sets share one time, so they can come back in any order
+                        List<Integer> written = new ArrayList<>(databaseHelper.getRepsByExerciseAndDate(day.table,
+                                day.exerciseName, day.workoutNum, day.routineID, date));
+                        Collections.sort(written);
+                        if (!written.equals(Arrays.asList(reps[0], 5, 5))) {
+                            failures.add("sets of " + date + " read back as " + written);
+                        }
+                        next.add(Calendar.DAY_OF_MONTH, 1);
+                    }
+                } catch (Throwable e) {
+                    failures.add(e.toString());
+                }
+            }
+        }));
+
+        for (Thread thread : threads) {
+            thread.start();
+        }
+        start.countDown();
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        assertTrue(failures.toString(), failures.isEmpty());
+    }
+}
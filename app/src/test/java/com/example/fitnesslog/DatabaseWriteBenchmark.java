@@ -0,0 +1,125 @@
+package com.example.fitnesslog;
+
+import android.content.Context;
+
+import androidx.test.core.app.ApplicationProvider;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import java.text.SimpleDateFormat;
+import java.util.Arrays;
+import java.util.Calendar;
+import java.util.Locale;
+
+import static org.junit.Assert.assertTrue;
+
+// Measures how long it takes to write the sets of an exercise as the number of sets grows. Each
+// submit is written once with upsertSets, in one transaction, and once the way WorkoutLogActivity used
+// to write it, with one insertData per set that commits on its own. Every submit goes to a date of its
+// own after a history of HistoryGenerator. The upsertSets time should grow far slower with the set
+// count than the loop's. Run it with
+//     ./gradlew testDebugUnitTest -Pbenchmark
+// and optionally -Pbenchmark.users=N -Pbenchmark.years=N. The results are written to
+// app/build/benchmark/writes.json
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 28)
+public class DatabaseWriteBenchmark {
+
+    private static final int WARMUP = 20;
+    private static final int ITERATIONS = 200;
+
+    //Sets per submit
+    private static final int[] SET_COUNTS = {1, 3, 5, 10, 20};
+
+    private DatabaseHelper databaseHelper;
+    private SimpleDateFormat sdf;
+
+    //Every write goes to a new date after the history, so the dates never have entries already
+    private Calendar nextDate;
+    private String lastDate;
+
+    @Before
+    public void setUp() {
+        Context context = ApplicationProvider.getApplicationContext();
+        context.deleteDatabase("fitness.db");
+        databaseHelper = DatabaseHelper.getInstance(context);
+
+        sdf = new SimpleDateFormat("yyyy-MM-dd", Locale.US);
+        nextDate = Calendar.getInstance();
+        nextDate.clear();
+        nextDate.set(2019, Calendar.SEPTEMBER, 2);
+    }
+
+    @After
+    public void tearDown() {
+        DatabaseHelper.releaseInstance();
+    }
+
+    @Test
+    public void benchmarkWrites() throws Exception {
+        BenchmarkResults results = new BenchmarkResults();
+        int users = Integer.getInteger("benchmark.users", 1);
+        int years = Integer.getInteger("benchmark.years", 3);
+
+        HistoryGenerator history = new HistoryGenerator(users, years, 42);
+        Calendar end = Calendar.getInstance();
+        end.clear();
+        end.set(2019, Calendar.SEPTEMBER, 1);
+        history.generate(databaseHelper, end);
+
+        results.addParameter("users", users);
+        results.addParameter("years", years);
+        results.addParameter("rows", history.getRowCount());
+        results.addParameter("warmup", WARMUP);
+        results.addParameter("iterations", ITERATIONS);
+
+        databaseHelper.insertBeginnerRoutineData(0, "Squat");
+        final int squat = databaseHelper.getWorkoutExerciseID("BeginnerTable", "Squat", 0);
+
+        for (int setCount : SET_COUNTS) {
+            final double[] weights = new double[setCount];
+            final int[] reps = new int[setCount];
+            Arrays.fill(weights, 135);
+            Arrays.fill(reps, 5);
+
+            results.measure("insertDataLoop_" + setCount + "sets", WARMUP, ITERATIONS, new BenchmarkResults.Operation() {
+                @Override
+                public Object run(int iteration) {
+                    long time = nextDate.getTimeInMillis();
+                    String date = takeNextDate();
+
+                    for (int i = 0; i < weights.length; i++) {
+                        databaseHelper.insertData(time, date, 1, squat, weights[i], reps[i], 135);
+                    }
+                    return date;
+                }
+            });
+
+            results.measure("upsertSets_" + setCount + "sets", WARMUP, ITERATIONS, new BenchmarkResults.Operation() {
+                @Override
+                public Object run(int iteration) {
+                    String date = takeNextDate();
+                    databaseHelper.upsertSets(reps.length, date, 1, squat, weights, reps, 135);
+                    return date;
+                }
+            });
+        }
+
+        results.write("writes");
+        System.out.println(results.toJson());
+
+        assertTrue(databaseHelper.isThereDataFromToday(lastDate, 1));
+    }
+
+    // EFFECTS: returns the next unused date and moves past it
+    private String takeNextDate() {
+        lastDate = sdf.format(nextDate.getTime());
+        nextDate.add(Calendar.DAY_OF_MONTH, 1);
+        return lastDate;
+    }
+}
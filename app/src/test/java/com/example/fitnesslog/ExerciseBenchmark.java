@@ -0,0 +1,59 @@
+package com.example.fitnesslog;
+
+import org.junit.Test;
+
+import java.util.List;
+
+// Measures evaluating a whole workout the way WorkoutLogActivity does after every submit: clearing
+// the sets, adding the logged sets, checking pass or fail and increasing the weight. Runs with
+// -Pbenchmark like DatabaseBenchmark and writes app/build/benchmark/exercise.json
+public class ExerciseBenchmark {
+
+    private static final int WARMUP = 10000;
+    private static final int ITERATIONS = 100000;
+
+    @Test
+    public void benchmarkEvaluateWorkout() throws Exception {
+        Routine routine = new Routine(3);
+        double[] weights = new double[routine.getExerciseNames().length];
+
+        for (int i = 0; i < weights.length; i++) {
+            weights[i] = 100 + 5 * i;
+        }
+        routine.setExerciseWeights(weights);
+
+        final List<Workout> workouts = routine.getWorkouts();
+        BenchmarkResults results = new BenchmarkResults();
+
+        results.addParameter("routineID", routine.getRoutineID());
+
+        results.measure("evaluateWorkout", WARMUP, ITERATIONS, new BenchmarkResults.Operation() {
+            @Override
+            public Object run(int iteration) {
+                Workout workout = workouts.get(iteration % workouts.size());
+                int passed = 0;
+
+                for (Exercise exercise : workout.getExercises()) {
+                    int[] goalReps = exercise.getGoalReps();
+                    double goalWeight = exercise.getGoalWeight();
+
+                    exercise.removeRepsDone();
+                    for (int set = 0; set < goalReps.length; set++) {
+                        //Every other iteration misses a rep on the last set
+                        int missed = set == goalReps.length - 1 ? iteration % 2 : 0;
+                        exercise.addRepsDone(goalWeight, goalReps[set] - missed);
+                    }
+                    if (exercise.passOrFail()) {
+                        exercise.increaseWeight();
+                        exercise.undoIncrease();
+                        passed++;
+                    }
+                }
+                return passed;
+            }
+        });
+
+        results.write("exercise");
+        System.out.println(results.toJson());
+    }
+}
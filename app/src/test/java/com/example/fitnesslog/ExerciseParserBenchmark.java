@@ -0,0 +1,104 @@
+package com.example.fitnesslog;
+
+import android.content.Context;
+
+import androidx.test.core.app.ApplicationProvider;
+
+import com.example.fitnesslog.parsers.ExerciseParser;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+import static org.junit.Assert.assertEquals;
+
+// Measures parsing the programs in the assets and a catalog of 1,000 generated programs from memory,
+// so only the parser is timed. Runs with -Pbenchmark like DatabaseBenchmark and writes
+// app/build/benchmark/parser.json. Throughput is the catalog bytes divided by the time
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 28)
+public class ExerciseParserBenchmark {
+
+    private static final int PROGRAMS = 1000;
+    private static final int WARMUP = 5;
+    private static final int ITERATIONS = 30;
+
+    @Test
+    public void benchmarkParse() throws Exception {
+        BenchmarkResults results = new BenchmarkResults();
+        final ExerciseParser parser = new ExerciseParser();
+        final byte[] catalog = new ProgramCatalogGenerator().toBytes(PROGRAMS);
+        final byte[] asset = readAsset();
+
+        results.addParameter("programs", PROGRAMS);
+        results.addParameter("catalogBytes", catalog.length);
+        results.addParameter("assetBytes", asset.length);
+
+        results.measure("parse_asset", 50, 500, new BenchmarkResults.Operation() {
+            @Override
+            public Object run(int iteration) {
+                return parse(parser, asset);
+            }
+        });
+        results.measure("parse_catalog", WARMUP, ITERATIONS, new BenchmarkResults.Operation() {
+            @Override
+            public Object run(int iteration) {
+                return countPrograms(parser, catalog);
+            }
+        });
+
+        results.write("parser");
+        System.out.println(results.toJson());
+
+        assertEquals(PROGRAMS, countPrograms(parser, catalog));
+    }
+
+    private static Object parse(ExerciseParser parser, byte[] json) {
+        try {
+            return parser.parse(new ByteArrayInputStream(json));
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    //The programs are not kept, as when a catalog is searched for one program
+    private static int countPrograms(ExerciseParser parser, byte[] json) {
+        final int[] count = new int[1];
+
+        try {
+            parser.parse(new ByteArrayInputStream(json), new ExerciseParser.ProgramListener() {
+                @Override
+                public void onProgram(RoutineTemplate template) {
+                    count[0]++;
+                }
+            });
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+        return count[0];
+    }
+
+    private static byte[] readAsset() throws IOException {
+        Context context = ApplicationProvider.getApplicationContext();
+        InputStream in = context.getAssets().open(FitnessLogApplication.PROGRAMS_ASSET);
+
+        try {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            byte[] buffer = new byte[8192];
+            int count;
+
+            while ((count = in.read(buffer)) != -1) {
+                out.write(buffer, 0, count);
+            }
+            return out.toByteArray();
+        } finally {
+            in.close();
+        }
+    }
+}
@@ -0,0 +1,210 @@
+package com.example.fitnesslog;
+
+import android.content.Context;
+
+import androidx.test.core.app.ApplicationProvider;
+
+import com.example.fitnesslog.parsers.ExerciseParser;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 28)
+public class ExerciseParserTest {
+
+    private static final int PROGRAMS = 1000;
+
+    //How much the heap may grow while the catalog is parsed, which is far less than the catalog itself
+    private static final long MEMORY_BUDGET = 1024 * 1024;
+
+    @Test
+    public void assetProgramsMatchTheBuiltInRoutines() throws IOException {
+        Context context = ApplicationProvider.getApplicationContext();
+        InputStream in = context.getAssets().open(FitnessLogApplication.PROGRAMS_ASSET);
+        List<RoutineTemplate> templates;
+
+        try {
+            templates = new ExerciseParser().parse(in);
+        } finally {
+            in.close();
+        }
+
+        assertEquals(3, templates.size());
+        assertSameProgram(RoutineTemplate.BEGINNER, templates.get(0));
+        assertSameProgram(RoutineTemplate.INTERMEDIATE, templates.get(1));
+        assertSameProgram(RoutineTemplate.ADVANCED, templates.get(2));
+    }
+
+    @Test
+    public void applicationUsesTheAssetPrograms() {
+        RoutineTemplate loaded = RoutineTemplate.forRoutine(2);
+
+        assertNotSame(RoutineTemplate.INTERMEDIATE, loaded);
+        assertSameProgram(RoutineTemplate.INTERMEDIATE, loaded);
+        Routine routine = new Routine(2);
+        routine.setExerciseWeights(new double[]{200, 100, 300, 400, 150});
+        assertEquals(6, routine.getWorkouts().size());
+    }
+
+    @Test
+    public void programsWithoutTablesAreSkipped() throws IOException {
+        List<RoutineTemplate> templates = parse("[{\"id\": 4, \"name\": \"Test\","
+                + " \"exercises\": [{\"name\": \"Squat\"}], \"slots\": [{\"name\": \"Squat\"}],"
+                + " \"workouts\": [[\"Squat\"]]}]");
+        RoutineTemplate loaded = RoutineTemplate.forRoutine(1);
+
+        try {
+            RoutineTemplate.register(templates.get(0));
+            fail();
+        } catch (IllegalArgumentException expected) {
+            assertEquals("Routine 4 has no database tables", expected.getMessage());
+        }
+
+        //The program after the skipped one is still registered
+        templates.add(RoutineTemplate.BEGINNER);
+        FitnessLogApplication.registerPrograms(templates);
+        assertSame(RoutineTemplate.BEGINNER, RoutineTemplate.forRoutine(1));
+        RoutineTemplate.register(loaded);
+    }
+
+    @Test
+    public void missingValuesUseDefaultsAndUnknownKeysAreSkipped() throws IOException {
+        List<RoutineTemplate> templates = parse("[{\"id\": 1, \"name\": \"Test\", \"version\": {\"a\": [1, 2]},"
+                + " \"exercises\": [{\"name\": \"Squat\", \"defaultWeight\": 100, \"video\": \"x\"}],"
+                + " \"slots\": [{\"name\": \"Squat\", \"goalReps\": [3, 5]},"
+                + " {\"name\": \"Squat light\", \"exercise\": \"squat\", \"multiplier\": 0.5, \"round\": true}],"
+                + " \"workouts\": [[\"SQUAT\"], [\"Squat light\"]]}]");
+        RoutineTemplate template = templates.get(0);
+        ProgressionTable table = template.getProgressionTable();
+
+        assertEquals("Test", template.getName());
+        assertEquals(100, template.getDefaultWeight(0), 0);
+        assertEquals(2, table.size());
+        assertEquals(1, table.getMultiplier(0), 0);
+        assertFalse(table.isRounded(0));
+        assertEquals(0, table.getIncrement(0));
+        assertEquals(1, table.getPercentage(0), 0);
+        assertArrayEquals(new int[]{3, 5}, table.getGoalReps(0));
+        assertEquals(0, table.getNameIndex(1));
+        assertEquals(55, table.getSlotWeight(1, 107), 0);
+        assertEquals(0, table.getGoalReps(1).length);
+        assertArrayEquals(new int[]{1}, template.getWorkoutSlots(1));
+    }
+
+    @Test
+    public void invalidProgramsAreRejected() {
+        String exercises = "\"exercises\": [{\"name\": \"Squat\"}]";
+        String slots = "\"slots\": [{\"name\": \"Squat\"}]";
+        String workouts = "\"workouts\": [[\"Squat\"]]";
+
+        assertRejected("[{\"id\": 1, \"name\": \"A\", " + exercises + ", " + slots + "}]");
+        assertRejected("[{\"id\": 1, \"name\": \"A\", " + exercises + ", "
+                + "\"slots\": [{\"name\": \"Bench\"}], " + workouts + "}]");
+        assertRejected("[{\"id\": 1, \"name\": \"A\", " + exercises + ", " + slots + ", "
+                + "\"workouts\": [[\"Bench\"]]}]");
+        assertRejected("[{\"id\": \"one\", \"name\": \"A\", " + exercises + ", " + slots + ", " + workouts + "}]");
+        assertRejected("[{\"id\": 1, \"name\": \"A\", " + exercises + ", " + slots + ", " + workouts);
+    }
+
+    @Test
+    public void catalogIsParsedWithinTheMemoryBudget() throws IOException {
+        ProgramCatalogGenerator generator = new ProgramCatalogGenerator();
+        final ExerciseParser parser = new ExerciseParser();
+        final int[] count = new int[1];
+        final long[] maxGrowth = new long[1];
+
+        //Loads the classes that are used before the baseline is taken
+        parser.parse(generator.open(2), new ExerciseParser.ProgramListener() {
+            @Override
+            public void onProgram(RoutineTemplate template) {
+            }
+        });
+
+        final long baseline = usedHeap();
+        parser.parse(generator.open(PROGRAMS), new ExerciseParser.ProgramListener() {
+            @Override
+            public void onProgram(RoutineTemplate template) {
+                count[0]++;
+                assertEquals(26, template.getProgressionTable().size());
+
+                if (count[0] % 100 == 0) {
+                    maxGrowth[0] = Math.max(maxGrowth[0], usedHeap() - baseline);
+                }
+            }
+        });
+        long catalogSize = generator.toBytes(PROGRAMS).length;
+
+        System.out.println("catalog bytes: " + catalogSize + ", max heap growth while parsing: " + maxGrowth[0]);
+        assertEquals(PROGRAMS, count[0]);
+        assertTrue(catalogSize > 2 * MEMORY_BUDGET);
+        assertTrue(maxGrowth[0] < MEMORY_BUDGET);
+    }
+
+    private static List<RoutineTemplate> parse(String json) throws IOException {
+        return new ExerciseParser().parse(new ByteArrayInputStream(json.getBytes("UTF-8")));
+    }
+
+    private static void assertRejected(String json) {
+        try {
+            parse(json);
+            fail(json);
+        } catch (IOException expected) {
+            //Expected
+        }
+    }
+
+    static void assertSameProgram(RoutineTemplate expected, RoutineTemplate actual) {
+        ProgressionTable expectedTable = expected.getProgressionTable();
+        ProgressionTable actualTable = actual.getProgressionTable();
+
+        assertEquals(expected.getRoutineID(), actual.getRoutineID());
+        assertEquals(expected.getName(), actual.getName());
+        assertEquals(expected.getTable(), actual.getTable());
+        assertArrayEquals(expected.getExerciseNames(), actual.getExerciseNames());
+
+        for (int i = 0; i < expected.getExerciseNames().length; i++) {
+            assertEquals(expected.getDefaultWeight(i), actual.getDefaultWeight(i), 0);
+        }
+
+        assertEquals(expectedTable.size(), actualTable.size());
+        for (int slot = 0; slot < expectedTable.size(); slot++) {
+            assertEquals(expectedTable.getName(slot), actualTable.getName(slot));
+            assertEquals(expectedTable.getNameIndex(slot), actualTable.getNameIndex(slot));
+            assertEquals(expectedTable.getMultiplier(slot), actualTable.getMultiplier(slot), 0);
+            assertEquals(expectedTable.isRounded(slot), actualTable.isRounded(slot));
+            assertEquals(expectedTable.getIncrement(slot), actualTable.getIncrement(slot));
+            assertEquals(expectedTable.getPercentage(slot), actualTable.getPercentage(slot), 0);
+            assertArrayEquals(expectedTable.getGoalReps(slot), actualTable.getGoalReps(slot));
+        }
+
+        assertEquals(expected.getNumWorkouts(), actual.getNumWorkouts());
+        for (int w = 0; w < expected.getNumWorkouts(); w++) {
+            assertArrayEquals(expected.getWorkoutSlots(w), actual.getWorkoutSlots(w));
+        }
+    }
+
+    private static long usedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
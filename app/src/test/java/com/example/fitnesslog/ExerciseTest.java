@@ -0,0 +1,104 @@
+package com.example.fitnesslog;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class ExerciseTest {
+
+    @Test
+    public void passesWhenEverySetReachesGoalInAnyOrder() {
+        Exercise exercise = new Exercise("Squat", 1, 100, 5, 1, new int[]{5, 3, 4});
+
+        exercise.addRepsDone(105, 3);
+        exercise.addRepsDone(105, 5);
+        assertFalse(exercise.passOrFail());
+
+        exercise.addRepsDone(105, 4);
+        assertTrue(exercise.passOrFail());
+    }
+
+    @Test
+    public void failsOnMissedRepsOrLowWeight() {
+        Exercise exercise = new Exercise("Squat", 1, 100, 5, 1, new int[]{5, 5, 5});
+
+        exercise.addRepsDone(105, 5);
+        exercise.addRepsDone(105, 5);
+        exercise.addRepsDone(105, 4);
+        assertFalse(exercise.passOrFail());
+
+        exercise.removeRepsDone();
+        exercise.addRepsDone(105, 5);
+        exercise.addRepsDone(100, 5);
+        exercise.addRepsDone(105, 5);
+        assertFalse(exercise.passOrFail());
+    }
+
+    @Test
+    public void increaseWeightUsesLowestWeightDone() {
+        Exercise exercise = new Exercise("Bench Press", 1, 100, 5, 1, new int[]{5, 5});
+
+        exercise.addRepsDone(115, 5);
+        exercise.addRepsDone(110, 6);
+        exercise.increaseWeight();
+
+        assertEquals(115, exercise.getGoalWeight(), 0);
+        assertEquals(110, exercise.getCapableWeight(), 0);
+
+        exercise.undoIncrease();
+        assertEquals(105, exercise.getGoalWeight(), 0);
+        assertEquals(100, exercise.getCapableWeight(), 0);
+    }
+
+    @Test
+    public void registeredEnginesKeepTheLinearProgression() {
+        //An accessory of the advanced program is not rounded, and no session changes the goal
+        for (int routineID = 1; routineID <= 3; routineID++) {
+            Exercise exercise = new Exercise("Cable Row", routineID, 52.5, 5, 1, new int[]{12});
+
+            for (int session = 0; session < 5; session++) {
+                exercise.setSession(session);
+                assertEquals(57.5, exercise.getGoalWeight(), 0);
+            }
+        }
+    }
+
+    @Test
+    public void waveEngineMovesTheWeightAfterTheLastStep() {
+        //90%, 95% and 100% of the linear goal, and the weight only moves after the last of them
+        ProgressionEngine registered = ProgressionEngines.get(3);
+        ProgressionEngines.register(3, new PercentageWaveProgression(new LinearProgression(.88, 5), new double[]{.9, .95, 1}));
+
+        try {
+            assertGoalWeights(new Exercise("Squat", 3, 100, 5, 1, new int[]{5}), new double[]{95, 100, 105, 100, 105, 110});
+        } finally {
+            ProgressionEngines.register(3, registered);
+        }
+    }
+
+    @Test
+    public void deloadEngineLowersEveryFourthSession() {
+        ProgressionEngine registered = ProgressionEngines.get(2);
+        ProgressionEngines.register(2, new DeloadProgression(new LinearProgression(), 4, .9));
+
+        try {
+            assertGoalWeights(new Exercise("Squat", 2, 100, 5, 1, new int[]{5}), new double[]{105, 110, 115, 110, 120});
+        } finally {
+            ProgressionEngines.register(2, registered);
+        }
+    }
+
+    //Passes every session with the goal weight and checks the goal weight before each
+    private static void assertGoalWeights(Exercise exercise, double[] expected) {
+        for (int session = 0; session < expected.length; session++) {
+            exercise.setSession(session);
+            assertEquals(expected[session], exercise.getGoalWeight(), 0);
+
+            exercise.removeRepsDone();
+            exercise.addRepsDone(exercise.getGoalWeight(), 5);
+            exercise.increaseWeight();
+        }
+    }
+}
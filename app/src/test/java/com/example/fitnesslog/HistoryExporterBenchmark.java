@@ -0,0 +1,116 @@
+package com.example.fitnesslog;
+
+import android.content.Context;
+
+import androidx.test.core.app.ApplicationProvider;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.util.Calendar;
+
+import static org.junit.Assert.assertEquals;
+
+// Measures how fast HistoryExporter writes the synthetic history of HistoryGenerator as CSV and as
+// newline delimited JSON, and how much it allocates per entry. The output is only counted, so the
+// time is the database and the formatting. Run it with
+//     ./gradlew testDebugUnitTest -Pbenchmark -Pbenchmark.users=100
+// for about a million entries. The results are written to app/build/benchmark/export.json
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 28)
+public class HistoryExporterBenchmark {
+
+    private static final int WARMUP = 1;
+    private static final int ITERATIONS = 5;
+
+    private DatabaseHelper databaseHelper;
+    private HistoryGenerator history;
+
+    // Counts the bytes written to it and drops them
+    private static class CountingOutputStream extends OutputStream {
+        long count;
+
+        @Override
+        public void write(int b) {
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            count += len;
+        }
+    }
+
+    @Before
+    public void setUp() {
+        Context context = ApplicationProvider.getApplicationContext();
+        context.deleteDatabase("fitness.db");
+        databaseHelper = DatabaseHelper.getInstance(context);
+
+        history = new HistoryGenerator(Integer.getInteger("benchmark.users", 3),
+                Integer.getInteger("benchmark.years", 3), 42);
+
+        Calendar end = Calendar.getInstance();
+        end.clear();
+        end.set(2019, Calendar.SEPTEMBER, 1);
+        history.generate(databaseHelper, end);
+    }
+
+    @After
+    public void tearDown() {
+        DatabaseHelper.releaseInstance();
+    }
+
+    @Test
+    public void benchmarkExport() throws Exception {
+        BenchmarkResults results = new BenchmarkResults();
+
+        results.addParameter("users", history.getUsers());
+        results.addParameter("years", history.getYears());
+        results.addParameter("rows", history.getRowCount());
+        results.addParameter("warmup", WARMUP);
+        results.addParameter("iterations", ITERATIONS);
+
+        for (final String format : new String[]{HistoryExporter.CSV, HistoryExporter.NDJSON}) {
+            final CountingOutputStream out = new CountingOutputStream();
+
+            assertEquals(history.getRowCount(), new HistoryExporter(databaseHelper).export(out, format));
+            results.addParameter(format + "Bytes", out.count);
+            results.addParameter(format + "AllocatedBytesPerRow", measureAllocatedBytesPerRow(format));
+
+            results.measure("export_" + format, WARMUP, ITERATIONS, new BenchmarkResults.Operation() {
+                @Override
+                public Object run(int iteration) {
+                    try {
+                        return new HistoryExporter(databaseHelper).export(new CountingOutputStream(), format);
+                    } catch (IOException e) {
+                        throw new AssertionError(e);
+                    }
+                }
+            });
+        }
+
+        results.write("export");
+        System.out.println(results.toJson());
+    }
+
+    // EFFECTS: returns the bytes allocated by one export divided by the number of entries. Memory that
+    //          is kept for the whole export does not grow with the entries, so this stays the same for
+    //          any size of history
+    private long measureAllocatedBytesPerRow(String format) throws IOException {
+        com.sun.management.ThreadMXBean threads =
+                (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long threadID = Thread.currentThread().getId();
+        long allocatedBefore = threads.getThreadAllocatedBytes(threadID);
+
+        long rows = new HistoryExporter(databaseHelper).export(new CountingOutputStream(), format);
+        return (threads.getThreadAllocatedBytes(threadID) - allocatedBefore) / Math.max(1, rows);
+    }
+}
@@ -0,0 +1,87 @@
+package com.example.fitnesslog;
+
+import android.content.Context;
+
+import androidx.test.core.app.ApplicationProvider;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+
+import static org.junit.Assert.assertEquals;
+
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 28)
+public class HistoryExporterTest {
+
+    //More than two pages, so the pages have to continue where the last one ended
+    private static final int ROWS = 2 * HistoryExporter.PAGE_SIZE + 100;
+
+    private DatabaseHelper databaseHelper;
+
+    @Before
+    public void setUp() {
+        Context context = ApplicationProvider.getApplicationContext();
+        databaseHelper = DatabaseHelper.getInstance(context);
+    }
+
+    @After
+    public void tearDown() {
+        DatabaseHelper.releaseInstance();
+    }
+
+    @Test
+    public void csvHasEveryEntryOnceInOrder() throws IOException {
+        databaseHelper.insertBeginnerRoutineData(0, "Squat");
+        int squat = databaseHelper.getWorkoutExerciseID("BeginnerTable", "Squat", 0);
+
+        //Every set of an exercise shares its time, so a page often ends between entries of one time
+        for (int i = 0; i < ROWS; i++) {
+            databaseHelper.insertData(1000 + i / 5, "2019-09-02", 1, squat, 100 + i, 5, 100);
+        }
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        assertEquals(ROWS, new HistoryExporter(databaseHelper).export(out, HistoryExporter.CSV));
+
+        String[] lines = out.toString("UTF-8").split("\n");
+        assertEquals(ROWS + 1, lines.length);
+        assertEquals(HistoryExporter.CSV_HEADER, lines[0]);
+        assertEquals("1000,2019-09-02,1,0,Squat,100.0,5,100.0", lines[1]);
+        for (int i = 0; i < ROWS; i++) {
+            String[] fields = lines[i + 1].split(",");
+
+            assertEquals(String.valueOf(1000 + i / 5), fields[0]);
+            assertEquals(String.valueOf(100.0 + i), fields[5]);
+        }
+    }
+
+    @Test
+    public void namesAreEscaped() throws IOException {
+        databaseHelper.insertIntermediateRoutineData(2, "Press, \"close\"");
+        int press = databaseHelper.getWorkoutExerciseID("IntermediateTable", "Press, \"close\"", 2);
+        //Marks a new program, which is not a set and is left out
+        databaseHelper.insertData(1500, "2019-09-04", 2, press, -1, 0, 100);
+        databaseHelper.insertData(2000, "2019-09-04", 2, press, 95.5, 8, 100);
+        //An entry that is not in its routine's table has no workout or exercise
+        databaseHelper.insertData(3000, "2019-09-04", 3, 999, 50, 10, 50);
+
+        ByteArrayOutputStream csv = new ByteArrayOutputStream();
+        new HistoryExporter(databaseHelper).export(csv, HistoryExporter.CSV);
+        assertEquals(HistoryExporter.CSV_HEADER + "\n"
+                + "2000,2019-09-04,2,2,\"Press, \"\"close\"\"\",95.5,8,100.0\n"
+                + "3000,2019-09-04,3,,,50.0,10,50.0\n", csv.toString("UTF-8"));
+
+        ByteArrayOutputStream json = new ByteArrayOutputStream();
+        assertEquals(2, new HistoryExporter(databaseHelper).export(json, HistoryExporter.NDJSON));
+        assertEquals("{\"time\":2000,\"date\":\"2019-09-04\",\"routine\":2,\"workout\":2,"
+                + "\"exercise\":\"Press, \\\"close\\\"\",\"weight\":95.5,\"reps\":8,\"capableWeight\":100.0}\n"
+                + "{\"time\":3000,\"date\":\"2019-09-04\",\"routine\":3,\"workout\":null,"
+                + "\"exercise\":null,\"weight\":50.0,\"reps\":10,\"capableWeight\":50.0}\n", json.toString("UTF-8"));
+    }
+}
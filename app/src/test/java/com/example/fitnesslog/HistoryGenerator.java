@@ -0,0 +1,236 @@
+package com.example.fitnesslog;
+
+import android.database.sqlite.SQLiteDatabase;
+import android.database.sqlite.SQLiteStatement;
+
+import java.text.SimpleDateFormat;
+import java.util.Calendar;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+
+// Fills DataTable with a synthetic training history so the DatabaseHelper queries can be measured
+// on a realistic amount of data. Every user trains three days a week, first on Beginner, then on
+// Intermediate and for the last third of the history on Advanced. The same seed always gives the
+// same rows, so results of different commits can be compared
+public class HistoryGenerator {
+
+    private static final String INSERT_SQL = "INSERT INTO DataTable (CurrentTime, CurrentDate, RoutineID, "
+            + "WorkoutExerciseID, Weight, Reps, CapableWeight) VALUES (?, ?, ?, ?, ?, ?, ?)";
+
+    //Chance that a session is completed, which moves the capable weight of the exercise up
+    private static final double PASS_CHANCE = 0.8;
+
+    private final int users;
+    private final int years;
+    private final long seed;
+
+    private int rows;
+    private String lastDate;
+    private final Day[] sampleDays = new Day[3];
+
+    // One exercise of a day in the history, used as the input of the date based queries
+    public static class Day {
+        public final String date;
+        public final int routineID;
+        public final String table;
+        public final String exerciseName;
+        public final int workoutNum;
+        public final int workoutExerciseID;
+        public final double[] weights;
+        public final int[] reps;
+        public final double capableWeight;
+
+        Day(String date, Routine routine, String exerciseName, int workoutNum, int workoutExerciseID,
+            double[] weights, int[] reps, double capableWeight) {
+            this.date = date;
+            this.routineID = routine.getRoutineID();
+            this.table = routine.getTable();
+            this.exerciseName = exerciseName;
+            this.workoutNum = workoutNum;
+            this.workoutExerciseID = workoutExerciseID;
+            this.weights = weights;
+            this.reps = reps;
+            this.capableWeight = capableWeight;
+        }
+    }
+
+    public HistoryGenerator(int users, int years, long seed) {
+        this.users = users;
+        this.years = years;
+        this.seed = seed;
+    }
+
+    // EFFECTS: writes the history for every user in one transaction per user and then rebuilds the
+    //          daily summaries. The history ends on the given day
+    public void generate(DatabaseHelper databaseHelper, Calendar end) {
+        Routine[] routines = {createRoutine(databaseHelper, 1), createRoutine(databaseHelper, 2),
+                createRoutine(databaseHelper, 3)};
+        int[][][] ids = new int[routines.length][][];
+
+        for (int i = 0; i < routines.length; i++) {
+            ids[i] = getWorkoutExerciseIDs(databaseHelper, routines[i]);
+        }
+
+        SQLiteDatabase db = databaseHelper.getWritableDatabase();
+        SQLiteStatement insert = db.compileStatement(INSERT_SQL);
+        SimpleDateFormat sdf = new SimpleDateFormat("yyyy-MM-dd", Locale.US);
+        Random random = new Random(seed);
+
+        try {
+            for (int user = 0; user < users; user++) {
+                db.beginTransaction();
+                try {
+                    generateUser(insert, sdf, random, routines, ids, user, end);
+                    db.setTransactionSuccessful();
+                } finally {
+                    db.endTransaction();
+                }
+            }
+        } finally {
+            insert.close();
+        }
+        databaseHelper.rebuildDailySummaries();
+    }
+
+    public int getRowCount() {
+        return rows;
+    }
+
+    public int getUsers() {
+        return users;
+    }
+
+    public int getYears() {
+        return years;
+    }
+
+    public String getLastDate() {
+        return lastDate;
+    }
+
+    // EFFECTS: returns a day from the middle of the time the first user spent on the given routine
+    public Day getSampleDay(int routineID) {
+        return sampleDays[routineID - 1];
+    }
+
+    private void generateUser(SQLiteStatement insert, SimpleDateFormat sdf, Random random,
+                              Routine[] routines, int[][][] ids, int user, Calendar end) {
+        Calendar day = (Calendar) end.clone();
+        day.add(Calendar.YEAR, -years);
+        int totalDays = daysBetween(day, end);
+        int[] workoutNums = new int[routines.length];
+        double[][] capableWeights = new double[routines.length][];
+
+        for (int i = 0; i < routines.length; i++) {
+            capableWeights[i] = startingWeights(routines[i].getExerciseNames().length, random);
+        }
+
+        for (int dayNum = 0; dayNum <= totalDays; dayNum++, day.add(Calendar.DAY_OF_MONTH, 1)) {
+            //Three days a week, with every user starting the week on a different day
+            if ((dayNum + user) % 7 % 2 != 0 || (dayNum + user) % 7 == 6) {
+                continue;
+            }
+            int routineIndex = Math.min(routines.length - 1, dayNum * routines.length / (totalDays + 1));
+            Routine routine = routines[routineIndex];
+            List<Workout> workouts = routine.getWorkouts();
+            int workoutNum = workoutNums[routineIndex];
+            List<Exercise> exercises = workouts.get(workoutNum).getExercises();
+            String date = sdf.format(day.getTime());
+            long time = day.getTimeInMillis() + user * 60000L;
+
+            for (int e = 0; e < exercises.size(); e++) {
+                Exercise exercise = exercises.get(e);
+                int nameIndex = indexOfName(routine.getExerciseNames(), exercise.getName());
+                double capableWeight = capableWeights[routineIndex][nameIndex];
+                double weight = routine.round(capableWeight * exercise.getPercentage() + exercise.getIncrement());
+                boolean passed = random.nextDouble() < PASS_CHANCE;
+                int[] goalReps = exercise.getGoalReps();
+                double[] weights = new double[goalReps.length];
+                int[] reps = new int[goalReps.length];
+
+                for (int set = 0; set < goalReps.length; set++) {
+                    weights[set] = weight;
+                    reps[set] = passed ? goalReps[set] : goalReps[set] - 1 - random.nextInt(2);
+                    insert.bindLong(1, time++);
+                    insert.bindString(2, date);
+                    insert.bindLong(3, routine.getRoutineID());
+                    insert.bindLong(4, ids[routineIndex][workoutNum][e]);
+                    insert.bindDouble(5, weights[set]);
+                    insert.bindLong(6, reps[set]);
+                    insert.bindDouble(7, capableWeight);
+                    insert.executeInsert();
+                    rows++;
+                }
+
+                if (user == 0 && e == 0 && sampleDays[routineIndex] == null
+                        && dayNum >= (2 * routineIndex + 1) * (totalDays + 1) / (2 * routines.length)) {
+                    sampleDays[routineIndex] = new Day(date, routine, exercise.getName(), workoutNum,
+                            ids[routineIndex][workoutNum][e], weights, reps, capableWeight);
+                }
+                if (passed && exercise.getIncrement() > 0) {
+                    capableWeights[routineIndex][nameIndex] = weight;
+                }
+            }
+            workoutNums[routineIndex] = (workoutNum + 1) % workouts.size();
+
+            if (lastDate == null || date.compareTo(lastDate) > 0) {
+                lastDate = date;
+            }
+        }
+    }
+
+    private static Routine createRoutine(DatabaseHelper databaseHelper, int routineID) {
+        Routine routine = new Routine(routineID);
+        routine.setExerciseWeights(new double[routine.getExerciseNames().length]);
+        return routine;
+    }
+
+    // EFFECTS: adds the workouts of the routine to its beg/int/adv table and returns the
+    //          workoutExerciseID of every exercise, indexed by workout and exercise
+    private static int[][] getWorkoutExerciseIDs(DatabaseHelper databaseHelper, Routine routine) {
+        List<Workout> workouts = routine.getWorkouts();
+        int[][] ids = new int[workouts.size()][];
+
+        for (int w = 0; w < workouts.size(); w++) {
+            List<Exercise> exercises = workouts.get(w).getExercises();
+            ids[w] = new int[exercises.size()];
+
+            for (int e = 0; e < exercises.size(); e++) {
+                String name = exercises.get(e).getName();
+
+                routine.insertRoutineData(w, name, databaseHelper);
+                ids[w][e] = databaseHelper.getWorkoutExerciseID(routine.getTable(), name, w);
+            }
+        }
+        return ids;
+    }
+
+    private static double[] startingWeights(int size, Random random) {
+        double[] weights = new double[size];
+
+        for (int i = 0; i < size; i++) {
+            weights[i] = 45 + 5 * random.nextInt(20);
+        }
+        return weights;
+    }
+
+    //Exercises such as "Squat1" are lighter days of the exercise "Squat" and share its capable weight
+    private static int indexOfName(String[] names, String exerciseName) {
+        for (int i = 0; i < names.length; i++) {
+            if (exerciseName.equalsIgnoreCase(names[i])) {
+                return i;
+            }
+        }
+        for (int i = 0; i < names.length; i++) {
+            if (exerciseName.toLowerCase(Locale.US).startsWith(names[i].toLowerCase(Locale.US))) {
+                return i;
+            }
+        }
+        throw new IllegalArgumentException(exerciseName);
+    }
+
+    private static int daysBetween(Calendar start, Calendar end) {
+        return (int) ((end.getTimeInMillis() - start.getTimeInMillis()) / (24L * 60 * 60 * 1000));
+    }
+}
@@ -0,0 +1,64 @@
+package com.example.fitnesslog;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class LapBufferTest {
+
+    @Test
+    public void newestLapComesFirst() {
+        LapBuffer laps = new LapBuffer(4);
+
+        assertEquals(1000, laps.add(1000));
+        assertEquals(1500, laps.add(2500));
+        assertEquals(500, laps.add(3000));
+
+        assertEquals(3, laps.size());
+        assertEquals(3, laps.getNumber(0));
+        assertEquals(3000, laps.getSplit(0));
+        assertEquals(500, laps.getLapTime(0));
+        assertEquals(1, laps.getNumber(2));
+        assertEquals(1000, laps.getLapTime(2));
+    }
+
+    @Test
+    public void fullBufferOverwritesTheOldestLap() {
+        LapBuffer laps = new LapBuffer(3);
+
+        for (int i = 1; i <= 10; i++) {
+            laps.add(i * 1000 + i);
+        }
+
+        assertTrue(laps.isFull());
+        assertEquals(3, laps.size());
+        assertEquals(10, laps.getCount());
+        for (int index = 0; index < 3; index++) {
+            int number = 10 - index;
+
+            assertEquals(number, laps.getNumber(index));
+            assertEquals(number * 1000 + number, laps.getSplit(index));
+            //The oldest lap kept still knows where the overwritten one before it ended
+            assertEquals(1001, laps.getLapTime(index));
+        }
+    }
+
+    @Test
+    public void clearStartsOver() {
+        LapBuffer laps = new LapBuffer(2);
+        laps.add(1000);
+        laps.add(2000);
+        laps.add(3000);
+
+        laps.clear();
+        assertEquals(0, laps.size());
+        assertFalse(laps.isFull());
+        assertEquals(0, laps.getLatestSplit());
+
+        assertEquals(400, laps.add(400));
+        assertEquals(1, laps.getNumber(0));
+        assertEquals(400, laps.getLapTime(0));
+    }
+}
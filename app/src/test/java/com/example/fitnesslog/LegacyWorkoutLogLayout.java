@@ -0,0 +1,145 @@
+package com.example.fitnesslog;
+
+import android.content.Context;
+import android.text.InputType;
+import android.view.Gravity;
+import android.view.View;
+import android.view.ViewGroup;
+import android.widget.Button;
+import android.widget.EditText;
+import android.widget.LinearLayout;
+import android.widget.TextView;
+
+import java.util.HashMap;
+import java.util.Map;
+
+// The view tree that WorkoutLogActivity built for every exercise before the log used a RecyclerView:
+// nested LinearLayouts with an EditText for every set, kept in a map by name. Only used to compare the
+// two in WorkoutLogLayoutBenchmark
+public class LegacyWorkoutLogLayout {
+
+    private final Context context;
+    private final Map<String, EditText> editTextNames = new HashMap<>();
+
+    public LegacyWorkoutLogLayout(Context context) {
+        this.context = context;
+    }
+
+    public LinearLayout build(Workout workout) {
+        LinearLayout parent = new LinearLayout(context);
+        parent.setOrientation(LinearLayout.VERTICAL);
+
+        int exerciseNum = 0;
+        for (Exercise exercise : workout.getExercises()) {
+            LinearLayout exerciseLayout = new LinearLayout(context);
+            exerciseLayout.setOrientation(LinearLayout.VERTICAL);
+            exerciseLayout.setBackgroundResource(R.drawable.layout_bg);
+            LinearLayout.LayoutParams params = matchWidth();
+            params.leftMargin = 30;
+            params.rightMargin = 30;
+            params.bottomMargin = 15;
+            exerciseLayout.setLayoutParams(params);
+            exerciseLayout.addView(goals(exercise));
+
+            LinearLayout container = new LinearLayout(context);
+            container.setOrientation(LinearLayout.HORIZONTAL);
+            container.setLayoutParams(matchWidth());
+
+            LinearLayout columns = new LinearLayout(context);
+            columns.setOrientation(LinearLayout.HORIZONTAL);
+            columns.setLayoutParams(weighted(2f));
+            columns.addView(setNumbers(exercise));
+            columns.addView(inputs("Weight", "weight", exercise, exerciseNum));
+            columns.addView(inputs("Reps", "reps", exercise, exerciseNum));
+            container.addView(columns);
+
+            Button submitButton = new Button(context);
+            submitButton.setText("Submit");
+            LinearLayout.LayoutParams buttonParams = weighted(1f);
+            buttonParams.gravity = Gravity.CENTER;
+            submitButton.setLayoutParams(buttonParams);
+            submitButton.setTag("" + exerciseNum);
+            container.addView(submitButton);
+            exerciseLayout.addView(container);
+
+            TextView message = new TextView(context);
+            message.setLayoutParams(matchWidth());
+            message.setGravity(Gravity.CENTER_HORIZONTAL);
+            exerciseLayout.addView(message);
+
+            parent.addView(exerciseLayout);
+            exerciseNum++;
+        }
+        return parent;
+    }
+
+    private LinearLayout goals(Exercise exercise) {
+        LinearLayout goals = new LinearLayout(context);
+        goals.setOrientation(LinearLayout.HORIZONTAL);
+
+        String[] texts = {exercise.getName(), "Weight:\n" + exercise.getGoalWeight() + " lb",
+                "Sets: " + exercise.getGoalReps().length, "Reps: " + exercise.getGoalReps()[0]};
+        for (String text : texts) {
+            TextView textView = new TextView(context);
+            LinearLayout.LayoutParams params = weighted(1f);
+            params.leftMargin = 25;
+            params.topMargin = 25;
+            params.bottomMargin = 25;
+            textView.setLayoutParams(params);
+            textView.setText(text);
+            goals.addView(textView);
+        }
+        return goals;
+    }
+
+    private LinearLayout setNumbers(Exercise exercise) {
+        LinearLayout column = column("Sets");
+
+        for (int i = 1; i <= exercise.getGoalReps().length; i++) {
+            TextView setNumber = new TextView(context);
+            LinearLayout.LayoutParams params = new LinearLayout.LayoutParams(ViewGroup.LayoutParams.MATCH_PARENT, 0);
+            params.weight = 1f;
+            setNumber.setLayoutParams(params);
+            setNumber.setText(i + "");
+            setNumber.setVisibility(i > 1 ? View.GONE : View.VISIBLE);
+            column.addView(setNumber);
+        }
+        return column;
+    }
+
+    private LinearLayout inputs(String header, String key, Exercise exercise, int exerciseNum) {
+        LinearLayout column = column(header);
+
+        for (int i = 0; i < exercise.getGoalReps().length; i++) {
+            EditText editText = new EditText(context);
+            editText.setLayoutParams(matchWidth());
+            editText.setInputType(InputType.TYPE_CLASS_NUMBER | InputType.TYPE_NUMBER_FLAG_DECIMAL);
+            editText.setVisibility(i > 0 ? View.GONE : View.VISIBLE);
+            editTextNames.put(key + i + "ex" + exerciseNum, editText);
+            column.addView(editText);
+        }
+        return column;
+    }
+
+    private LinearLayout column(String header) {
+        LinearLayout column = new LinearLayout(context);
+        column.setOrientation(LinearLayout.VERTICAL);
+        column.setLayoutParams(weighted(1f));
+
+        TextView headerView = new TextView(context);
+        headerView.setText(header);
+        headerView.setLayoutParams(matchWidth());
+        column.addView(headerView);
+        return column;
+    }
+
+    private static LinearLayout.LayoutParams matchWidth() {
+        return new LinearLayout.LayoutParams(ViewGroup.LayoutParams.MATCH_PARENT, ViewGroup.LayoutParams.WRAP_CONTENT);
+    }
+
+    private static LinearLayout.LayoutParams weighted(float weight) {
+        LinearLayout.LayoutParams params = new LinearLayout.LayoutParams(0, ViewGroup.LayoutParams.WRAP_CONTENT);
+        params.weight = weight;
+        return params;
+    }
+}
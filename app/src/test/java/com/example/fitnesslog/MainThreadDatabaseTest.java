@@ -0,0 +1,202 @@
+package com.example.fitnesslog;
+
+import android.content.Context;
+import android.content.Intent;
+
+import androidx.recyclerview.widget.RecyclerView;
+import androidx.test.core.app.ApplicationProvider;
+
+import com.example.fitnesslog.activities.MainActivity;
+import com.example.fitnesslog.activities.WorkoutCalendar;
+import com.example.fitnesslog.activities.WorkoutLogActivity;
+import com.example.fitnesslog.activities.WorkoutLogAdapter;
+import com.github.sundeepk.compactcalendarview.CompactCalendarView;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.Robolectric;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.android.controller.ActivityController;
+import org.robolectric.annotation.Config;
+import org.robolectric.shadows.ShadowLooper;
+
+import java.text.ParseException;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.Date;
+import java.util.List;
+import java.util.Locale;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.robolectric.Shadows.shadowOf;
+
+// Drives the activities that read and write the database while DatabaseHelper throws on any access
+// from the main thread, so all of their database work has to go through DatabaseRepository
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 28)
+public class MainThreadDatabaseTest {
+
+    private static final long TIMEOUT_MILLIS = 10000;
+
+    private Context context;
+    private String yesterday;
+    private Date yesterdayStart;
+
+    private interface Condition {
+        boolean isMet();
+    }
+
+    @Before
+    public void setUp() throws ParseException {
+        context = ApplicationProvider.getApplicationContext();
+        DatabaseHelper databaseHelper = DatabaseHelper.getInstance(context);
+        SimpleDateFormat sdf = new SimpleDateFormat("yyyy-MM-dd", Locale.US);
+        Calendar day = Calendar.getInstance();
+
+        //A Beginner program started the day before yesterday and a workout logged yesterday
+        day.add(Calendar.DAY_OF_MONTH, -2);
+        String[] exerciseNames = RoutineTemplate.BEGINNER.getExerciseNames();
+        int[] ids = new int[exerciseNames.length];
+        for (int i = 0; i < exerciseNames.length; i++) {
+            databaseHelper.insertBeginnerRoutineData(-1, exerciseNames[i]);
+            ids[i] = databaseHelper.getWorkoutExerciseID("BeginnerTable", exerciseNames[i], -1);
+        }
+        databaseHelper.insertNewProgram(day.getTimeInMillis(), sdf.format(day.getTime()), 1, ids,
+                DefaultWeights.BEGINNER.clone());
+
+        day.add(Calendar.DAY_OF_MONTH, 1);
+        yesterday = sdf.format(day.getTime());
+        yesterdayStart = sdf.parse(yesterday);
+        databaseHelper.insertBeginnerRoutineData(0, "Squat");
+        int squat = databaseHelper.getWorkoutExerciseID("BeginnerTable", "Squat", 0);
+        for (int set = 0; set < 3; set++) {
+            databaseHelper.insertData(day.getTimeInMillis(), yesterday, 1, squat, 95, 5, 95);
+        }
+
+        DatabaseHelper.setMainThreadChecked(true);
+    }
+
+    @After
+    public void tearDown() {
+        DatabaseHelper.setMainThreadChecked(false);
+        DatabaseHelper.releaseInstance();
+    }
+
+    @Test
+    public void continuingAProgramReadsOffTheMainThread() throws InterruptedException {
+        ActivityController<MainActivity> controller = Robolectric.buildActivity(MainActivity.class).setup();
+        final MainActivity activity = controller.get();
+
+        activity.continueProgramClicked(activity.findViewById(android.R.id.content));
+        awaitMainLooper(new Condition() {
+            @Override
+            public boolean isMet() {
+                return shadowOf(activity).peekNextStartedActivity() != null;
+            }
+        });
+
+        Intent started = shadowOf(activity).getNextStartedActivity();
+        assertEquals(WorkoutLogActivity.class.getName(), started.getComponent().getClassName());
+        assertEquals(1, Routine.fromIntent(started).getRoutineID());
+        controller.pause().stop().destroy();
+    }
+
+    @Test
+    public void calendarLoadsMonthsOffTheMainThread() throws InterruptedException {
+        ActivityController<WorkoutCalendar> controller = Robolectric.buildActivity(WorkoutCalendar.class).setup();
+        final CompactCalendarView calendar = controller.get().findViewById(R.id.compactcalendar_view);
+
+        awaitMainLooper(new Condition() {
+            @Override
+            public boolean isMet() {
+                return !calendar.getEvents(yesterdayStart).isEmpty();
+            }
+        });
+
+        //Scrolling loads the months next to the new one
+        calendar.showNextMonth();
+        calendar.showNextMonth();
+        calendar.showPreviousMonth();
+        idleMainLooper(200);
+        controller.pause().stop().destroy();
+    }
+
+    @Test
+    public void loggingAWorkoutReadsAndWritesOffTheMainThread() throws InterruptedException {
+        Routine routine = new Routine(1);
+        routine.setExerciseWeights(DefaultWeights.BEGINNER.clone());
+        Intent intent = new Intent(context, WorkoutLogActivity.class);
+        routine.putInto(intent);
+        intent.putExtra("DATE", yesterday);
+
+        ActivityController<WorkoutLogActivity> controller =
+                Robolectric.buildActivity(WorkoutLogActivity.class, intent).setup();
+        WorkoutLogActivity activity = controller.get();
+        final RecyclerView list = activity.findViewById(R.id.workout_log_list);
+
+        awaitMainLooper(new Condition() {
+            @Override
+            public boolean isMet() {
+                return list.getAdapter() != null;
+            }
+        });
+        WorkoutLogAdapter adapter = (WorkoutLogAdapter) list.getAdapter();
+
+        //Yesterday's Squat sets are filled out, so changing one and submitting writes them again
+        assertEquals("95.0", adapter.getWeightInputs(0)[2]);
+        adapter.getRepsInputs(0)[2] = "4";
+        activity.submitOnClick(list, 0);
+
+        //Reads wait for the writes before them, so this sees the submitted sets
+        final DatabaseRepository repository = new DatabaseRepository(context);
+        final List<List<Integer>> written = new ArrayList<>();
+        repository.read(new DatabaseRepository.Task<List<Integer>>() {
+            @Override
+            public List<Integer> run(DatabaseHelper databaseHelper) {
+                return databaseHelper.getRepsByExerciseAndDate("BeginnerTable", "Squat", 0, 1, yesterday);
+            }
+        }, new DatabaseRepository.Callback<List<Integer>>() {
+            @Override
+            public void onResult(List<Integer> reps) {
+                written.add(reps);
+            }
+        });
+        awaitMainLooper(new Condition() {
+            @Override
+            public boolean isMet() {
+                return !written.isEmpty();
+            }
+        });
+        assertTrue(written.get(0).contains(4));
+        repository.cancel();
+        controller.pause().stop().destroy();
+    }
+
+    // EFFECTS: runs what the database threads posted to the main thread until the condition holds
+    private static void awaitMainLooper(Condition condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + TIMEOUT_MILLIS;
+
+        while (true) {
+            ShadowLooper.idleMainLooper();
+            if (condition.isMet()) {
+                return;
+            }
+            assertTrue("timed out waiting for the database threads", System.currentTimeMillis() < deadline);
+            Thread.sleep(10);
+        }
+    }
+
+    //Gives reads that were started without a result to wait for the time to finish
+    private static void idleMainLooper(long millis) throws InterruptedException {
+        long end = System.currentTimeMillis() + millis;
+
+        while (System.currentTimeMillis() < end) {
+            ShadowLooper.idleMainLooper();
+            Thread.sleep(10);
+        }
+    }
+}
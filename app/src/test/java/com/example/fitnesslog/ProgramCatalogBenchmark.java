@@ -0,0 +1,87 @@
+package com.example.fitnesslog;
+
+import android.app.Application;
+import android.content.Context;
+import android.content.res.AssetManager;
+
+import androidx.test.core.app.ApplicationProvider;
+
+import com.example.fitnesslog.parsers.ExerciseParser;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+
+// Compares loading the programs at startup from the compiled catalog with parsing programs.json, from
+// opening the asset to having the templates. The cold loads are the first run of each, so they include
+// loading the classes of the parser or the catalog like the first launch of the app does. The plain
+// Application is used so nothing is loaded before they run. Runs with -Pbenchmark like DatabaseBenchmark
+// and writes app/build/benchmark/catalog.json
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 28, application = Application.class)
+public class ProgramCatalogBenchmark {
+
+    private static final int WARMUP = 50;
+    private static final int ITERATIONS = 500;
+
+    @Test
+    public void benchmarkStartupLoad() throws Exception {
+        BenchmarkResults results = new BenchmarkResults();
+        Context context = ApplicationProvider.getApplicationContext();
+        final AssetManager assets = context.getAssets();
+
+        BenchmarkResults.Operation catalog = new BenchmarkResults.Operation() {
+            @Override
+            public Object run(int iteration) {
+                return loadCatalog(assets);
+            }
+        };
+        BenchmarkResults.Operation json = new BenchmarkResults.Operation() {
+            @Override
+            public Object run(int iteration) {
+                return parseJson(assets);
+            }
+        };
+
+        //The templates are needed by both, so their classes are loaded before measuring
+        RoutineTemplate.forRoutine(1);
+
+        results.measure("coldLoad_catalog", 0, 1, catalog);
+        results.measure("coldLoad_json", 0, 1, json);
+        results.measure("load_catalog", WARMUP, ITERATIONS, catalog);
+        results.measure("load_json", WARMUP, ITERATIONS, json);
+
+        results.write("catalog");
+        System.out.println(results.toJson());
+
+        assertEquals(parseJson(assets).size(), loadCatalog(assets).size());
+    }
+
+    private static List<RoutineTemplate> loadCatalog(AssetManager assets) {
+        try {
+            return ProgramCatalog.read(ProgramCatalog.open(assets));
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    private static List<RoutineTemplate> parseJson(AssetManager assets) {
+        try {
+            InputStream in = assets.open(FitnessLogApplication.PROGRAMS_ASSET);
+            try {
+                return new ExerciseParser().parse(in);
+            } finally {
+                in.close();
+            }
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package com.example.fitnesslog;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.Charset;
+import java.util.Locale;
+
+// Writes a catalog of synthetic programs in the format that ExerciseParser reads. Every program has
+// the exercises of the Advanced routine with a light and a heavy slot for each of them and a rotation
+// of four workouts, so a program is a few kilobytes of JSON. The catalog can be streamed as it is
+// written, so its size does not count against the memory of whoever reads it
+public class ProgramCatalogGenerator {
+
+    private static final Charset UTF_8 = Charset.forName("UTF-8");
+    private static final int WORKOUTS = 4;
+
+    private final String[] exerciseNames = ExerciseNames.ADVANCED_NAMES;
+
+    // EFFECTS: returns the JSON of the program with the given index. Programs are numbered from 1
+    public String program(int index) {
+        StringBuilder json = new StringBuilder(4096);
+
+        json.append("{\"id\": ").append(index).append(", \"name\": \"Program ").append(index)
+                .append("\", \"description\": \"Generated program\",\n \"exercises\": [");
+        for (int i = 0; i < exerciseNames.length; i++) {
+            json.append(i == 0 ? "\n  " : ",\n  ").append("{\"name\": \"").append(exerciseNames[i])
+                    .append("\", \"defaultWeight\": ").append(45 + 5 * ((index + i) % 40)).append('}');
+        }
+
+        json.append("],\n \"slots\": [");
+        for (int i = 0; i < exerciseNames.length; i++) {
+            String name = exerciseNames[i];
+
+            json.append(i == 0 ? "\n  " : ",\n  ").append(String.format(Locale.US,
+                    "{\"name\": \"%s\", \"increment\": 5, \"goalReps\": [%d, %d, %d]}", name, 5 + index % 4,
+                    5 + index % 4, 5 + index % 4));
+            json.append(String.format(Locale.US, ",\n  {\"name\": \"%s light\", \"exercise\": \"%s\", "
+                            + "\"multiplier\": %.2f, \"round\": true, \"percentage\": 1, \"goalReps\": [10, 10, 8, 8]}",
+                    name, name, .7 + (index % 10) / 100.0));
+        }
+
+        json.append("],\n \"workouts\": [");
+        for (int w = 0; w < WORKOUTS; w++) {
+            json.append(w == 0 ? "\n  [" : ",\n  [");
+            for (int i = w, e = 0; i < exerciseNames.length; i += WORKOUTS, e++) {
+                json.append(e == 0 ? "\"" : ", \"").append(exerciseNames[i]).append(w % 2 == 0 ? "\"" : " light\"");
+            }
+            json.append(']');
+        }
+        return json.append("]}").toString();
+    }
+
+    // EFFECTS: returns a stream of the catalog that writes every program only when it is read
+    public InputStream open(final int programs) {
+        return new InputStream() {
+            private int next = 0;
+            private byte[] chunk = "[".getBytes(UTF_8);
+            private int position;
+
+            @Override
+            public int read() {
+                if (!fill()) {
+                    return -1;
+                }
+                return chunk[position++] & 0xff;
+            }
+
+            @Override
+            public int read(byte[] buffer, int offset, int length) {
+                if (length == 0) {
+                    return 0;
+                }
+                if (!fill()) {
+                    return -1;
+                }
+                int count = Math.min(length, chunk.length - position);
+                System.arraycopy(chunk, position, buffer, offset, count);
+                position += count;
+                return count;
+            }
+
+            //Moves on to the next program once the current chunk has been read
+            private boolean fill() {
+                while (chunk != null && position == chunk.length) {
+                    next++;
+                    if (next <= programs) {
+                        chunk = ((next == 1 ? "\n" : ",\n") + program(next)).getBytes(UTF_8);
+                    } else {
+                        chunk = next == programs + 1 ? "\n]\n".getBytes(UTF_8) : null;
+                    }
+                    position = 0;
+                }
+                return chunk != null;
+            }
+        };
+    }
+
+    // EFFECTS: returns the whole catalog, for measuring the parser without writing the programs
+    public byte[] toBytes(int programs) throws IOException {
+        InputStream in = open(programs);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        byte[] buffer = new byte[8192];
+        int count;
+
+        while ((count = in.read(buffer, 0, buffer.length)) != -1) {
+            out.write(buffer, 0, count);
+        }
+        return out.toByteArray();
+    }
+}
@@ -0,0 +1,73 @@
+package com.example.fitnesslog;
+
+import android.content.Context;
+
+import androidx.test.core.app.ApplicationProvider;
+
+import com.example.fitnesslog.parsers.ExerciseParser;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+// The catalog is compiled from programs.json by compileProgramCatalog before the unit tests run
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 28)
+public class ProgramCatalogTest {
+
+    @Test
+    public void catalogMatchesTheParsedDefinitions() throws IOException {
+        Context context = ApplicationProvider.getApplicationContext();
+        List<RoutineTemplate> compiled = ProgramCatalog.read(ProgramCatalog.open(context.getAssets()));
+        List<RoutineTemplate> parsed;
+        InputStream in = context.getAssets().open(FitnessLogApplication.PROGRAMS_ASSET);
+
+        try {
+            parsed = new ExerciseParser().parse(in);
+        } finally {
+            in.close();
+        }
+
+        assertEquals(parsed.size(), compiled.size());
+        for (int i = 0; i < parsed.size(); i++) {
+            ExerciseParserTest.assertSameProgram(parsed.get(i), compiled.get(i));
+        }
+    }
+
+    @Test
+    public void corruptCatalogsAreRejected() throws IOException {
+        Context context = ApplicationProvider.getApplicationContext();
+        ByteBuffer catalog = ProgramCatalog.open(context.getAssets());
+
+        ByteBuffer truncated = catalog.duplicate();
+        truncated.limit(catalog.limit() / 2);
+        assertRejected(truncated.slice());
+
+        ByteBuffer otherVersion = ByteBuffer.allocate(catalog.limit());
+        otherVersion.put(catalog.duplicate());
+        otherVersion.putInt(4, ProgramCatalog.VERSION + 1);
+        assertRejected(otherVersion);
+
+        ByteBuffer negativeCount = ByteBuffer.allocate(12);
+        negativeCount.putInt(0, ProgramCatalog.MAGIC).putInt(4, ProgramCatalog.VERSION).putInt(8, -1);
+        assertRejected(negativeCount);
+    }
+
+    private static void assertRejected(ByteBuffer buffer) {
+        try {
+            ProgramCatalog.read(buffer);
+            fail();
+        } catch (IOException expected) {
+            //Expected
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package com.example.fitnesslog;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+// Measures projecting 10k sessions of every routine with its registered engine, and of a wave with
+// deloads on top of the beginner routine. Runs with -Pbenchmark like DatabaseBenchmark and writes
+// app/build/benchmark/progression.json
+public class ProgressionBenchmark {
+
+    private static final int SESSIONS = 10000;
+    private static final int WARMUP = 20;
+    private static final int ITERATIONS = 200;
+
+    @Test
+    public void benchmarkProjectBlock() throws Exception {
+        BenchmarkResults results = new BenchmarkResults();
+        results.addParameter("sessions", SESSIONS);
+
+        for (int routineID = 1; routineID <= 3; routineID++) {
+            final int id = routineID;
+            final double[] weights = createWeights(routineID);
+
+            results.measure("projectBlock_routine" + routineID, WARMUP, ITERATIONS, new BenchmarkResults.Operation() {
+                @Override
+                public Object run(int iteration) {
+                    return ProgressionEngines.projectBlock(id, weights, SESSIONS);
+                }
+            });
+        }
+
+        ProgressionEngine linear = ProgressionEngines.get(1);
+        ProgressionEngines.register(1, new DeloadProgression(
+                new PercentageWaveProgression(linear, new double[]{.85, .9, .95}), 4, .9));
+        try {
+            final double[] weights = createWeights(1);
+
+            results.measure("projectBlock_waveWithDeload", WARMUP, ITERATIONS, new BenchmarkResults.Operation() {
+                @Override
+                public Object run(int iteration) {
+                    return ProgressionEngines.projectBlock(1, weights, SESSIONS);
+                }
+            });
+        } finally {
+            ProgressionEngines.register(1, linear);
+        }
+
+        results.write("progression");
+        System.out.println(results.toJson());
+
+        assertEquals(SESSIONS * ProgressionTable.ADVANCED.size(),
+                ProgressionEngines.projectBlock(3, createWeights(3), SESSIONS).length);
+    }
+
+    private static double[] createWeights(int routineID) {
+        double[] weights = new double[new Routine(routineID).getExerciseNames().length];
+
+        for (int i = 0; i < weights.length; i++) {
+            weights[i] = 100 + 10 * i;
+        }
+        return weights;
+    }
+}
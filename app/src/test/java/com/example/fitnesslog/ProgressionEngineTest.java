@@ -0,0 +1,85 @@
+package com.example.fitnesslog;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class ProgressionEngineTest {
+
+    @Test
+    public void tablesMatchTheRoutinesExerciseNames() {
+        for (int routineID = 1; routineID <= 3; routineID++) {
+            Routine routine = new Routine(routineID);
+            ProgressionTable table = ProgressionTable.forRoutine(routineID);
+
+            for (int slot = 0; slot < table.size(); slot++) {
+                String name = routine.getExerciseNames()[table.getNameIndex(slot)];
+                assertTrue(table.getName(slot).startsWith(name));
+            }
+        }
+    }
+
+    @Test
+    public void tablesCannotBeChangedThroughTheirGoalReps() {
+        ProgressionTable table = ProgressionTable.BEGINNER;
+        table.getGoalReps(0)[0] = 1;
+        assertArrayEquals(new int[]{5, 5, 5}, table.getGoalReps(0));
+
+        int[] reps = {3, 3};
+        ProgressionTable built = new ProgressionTable.Builder(1).add("Squat", 0, 1, false, 5, 1, reps).build();
+        reps[0] = 1;
+        assertArrayEquals(new int[]{3, 3}, built.getGoalReps(0));
+    }
+
+    @Test
+    public void intermediateVolumeAndLightDaysFollowTheIntensityDay() {
+        double[] weights = {200, 100, 300, 400, 150};
+        double[] goals = ProgressionEngines.projectBlock(2, weights, 2);
+        int slots = ProgressionTable.INTERMEDIATE.size();
+
+        //Bench Press, Bench Press1 (90%) and Bench Press2 (81%) in the first and second session
+        assertEquals(205, goals[0], 0);
+        assertEquals(180, goals[1], 0);
+        assertEquals(160, goals[2], 0);
+        assertEquals(210, goals[slots], 0);
+        assertEquals(185, goals[slots + 1], 0);
+        assertEquals(165, goals[slots + 2], 0);
+    }
+
+    @Test
+    public void advancedStartsCompoundLiftsLower() {
+        ProgressionEngine engine = ProgressionEngines.get(3);
+
+        assertEquals(200, engine.getStartingWeight(0, 225), 0);
+        assertEquals(45, engine.getStartingWeight(5, 45), 0);
+        assertEquals(225, ProgressionEngines.get(1).getStartingWeight(0, 225), 0);
+    }
+
+    @Test
+    public void waveMovesOnAfterTheLastSessionOfAWave() {
+        ProgressionEngine engine = new PercentageWaveProgression(new LinearProgression(), new double[]{.8, .9, 1});
+        ProgressionTable table = ProgressionTable.BEGINNER;
+        double capable = 100;
+        double[] expected = {85, 95, 105, 90, 100, 110};
+
+        for (int session = 0; session < expected.length; session++) {
+            assertEquals(expected[session], engine.getGoalWeight(table, 0, capable, session), 0);
+            capable = engine.getNextCapableWeight(table, 0, capable, true, session);
+        }
+    }
+
+    @Test
+    public void deloadSessionsDoNotMoveTheCapableWeight() {
+        ProgressionEngine engine = new DeloadProgression(new LinearProgression(), 4, .9);
+        ProgressionTable table = ProgressionTable.BEGINNER;
+        double capable = 100;
+        double[] expected = {105, 110, 115, 110, 120};
+
+        for (int session = 0; session < expected.length; session++) {
+            assertEquals(expected[session], engine.getGoalWeight(table, 0, capable, session), 0);
+            capable = engine.getNextCapableWeight(table, 0, capable, true, session);
+        }
+    }
+}
@@ -0,0 +1,174 @@
+package com.example.fitnesslog;
+
+import android.app.AlarmManager;
+import android.app.Notification;
+import android.app.NotificationManager;
+import android.content.Context;
+import android.content.Intent;
+import android.os.SystemClock;
+
+import androidx.test.core.app.ApplicationProvider;
+
+import org.junit.After;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.Robolectric;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.android.controller.ServiceController;
+import org.robolectric.annotation.Config;
+import org.robolectric.shadows.ShadowAlarmManager;
+
+import java.util.List;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.robolectric.Shadows.shadowOf;
+
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 28)
+public class RestTimerServiceTest {
+
+    @After
+    public void tearDown() {
+        DatabaseHelper.releaseInstance();
+    }
+
+    @Test
+    public void stopwatchSurvivesTheServiceBeingKilled() {
+        ServiceController<RestTimerService> controller = Robolectric.buildService(RestTimerService.class).create();
+        controller.get().start();
+        SystemClock.sleep(1500);
+        controller.destroy();
+
+        RestTimerService restarted = Robolectric.buildService(RestTimerService.class).create().get();
+        assertTrue(restarted.isRunning());
+        assertEquals(1500, restarted.getElapsed());
+
+        restarted.stop();
+        SystemClock.sleep(1000);
+        RestTimerService stopped = Robolectric.buildService(RestTimerService.class).create().get();
+        assertFalse(stopped.isRunning());
+        assertEquals(1500, stopped.getElapsed());
+    }
+
+    @Test
+    public void stopwatchStopsAfterReboot() {
+        Context context = ApplicationProvider.getApplicationContext();
+        context.getSharedPreferences(RestTimerService.PREFERENCES, Context.MODE_PRIVATE).edit()
+                .putLong(RestTimerService.KEY_ACCUMULATED, 2000)
+                .putLong(RestTimerService.KEY_STARTED_AT, SystemClock.elapsedRealtime() + 60000)
+                .putBoolean(RestTimerService.KEY_RUNNING, true)
+                .commit();
+
+        RestTimerService service = Robolectric.buildService(RestTimerService.class).create().get();
+        assertFalse(service.isRunning());
+        assertEquals(2000, service.getElapsed());
+    }
+
+    @Test
+    public void foregroundOnlyWhileRunningAndUnbound() {
+        ServiceController<RestTimerService> controller = Robolectric.buildService(RestTimerService.class).create();
+        RestTimerService service = controller.get();
+
+        controller.bind();
+        service.start();
+        controller.startCommand(0, 1);
+        assertNull(shadowOf(service).getLastForegroundNotification());
+
+        controller.unbind();
+        Notification notification = shadowOf(service).getLastForegroundNotification();
+        assertNotNull(notification);
+        assertEquals(RestTimerService.STOPWATCH_CHANNEL_ID, notification.getChannelId());
+
+        controller.rebind();
+        assertTrue(shadowOf(service).isForegroundStopped());
+
+        service.stop();
+        assertTrue(shadowOf(service).isStoppedBySelf());
+    }
+
+    @Test
+    public void restSchedulesAnAlarmForItsEnd() {
+        RestTimerService service = Robolectric.buildService(RestTimerService.class).create().get();
+        AlarmManager alarmManager = (AlarmManager) service.getSystemService(Context.ALARM_SERVICE);
+        ShadowAlarmManager shadowAlarmManager = shadowOf(alarmManager);
+        long restEndsAt = SystemClock.elapsedRealtime() + 90000;
+
+        service.startRest("Squat", 2, 90000);
+        ShadowAlarmManager.ScheduledAlarm alarm = shadowAlarmManager.getNextScheduledAlarm();
+        assertEquals(AlarmManager.ELAPSED_REALTIME_WAKEUP, alarm.type);
+        assertEquals(restEndsAt, alarm.triggerAtTime);
+        assertEquals(90000, service.getRestRemaining());
+        assertEquals("Squat", service.getRestExercise());
+        assertEquals(2, service.getRestSet());
+
+        //A new rest replaces the alarm of the last one
+        service.startRest("Squat", 3, 90000);
+        assertEquals(1, shadowAlarmManager.getScheduledAlarms().size());
+
+        SystemClock.sleep(30000);
+        assertEquals(60000, Robolectric.buildService(RestTimerService.class).create().get().getRestRemaining());
+
+        service.cancelRest();
+        assertEquals(0, service.getRestRemaining());
+        assertTrue(shadowAlarmManager.getScheduledAlarms().isEmpty());
+    }
+
+    @Test
+    public void restAlarmNotifiesTheNextSet() {
+        Context context = ApplicationProvider.getApplicationContext();
+        Intent intent = new Intent(context, RestAlarmReceiver.class);
+        intent.putExtra(RestAlarmReceiver.EXTRA_EXERCISE, "Bench Press");
+        intent.putExtra(RestAlarmReceiver.EXTRA_SET, 1);
+
+        new RestAlarmReceiver().onReceive(context, intent);
+
+        NotificationManager notificationManager =
+                (NotificationManager) context.getSystemService(Context.NOTIFICATION_SERVICE);
+        List<Notification> notifications = shadowOf(notificationManager).getAllNotifications();
+        assertEquals(1, notifications.size());
+        assertEquals(context.getString(R.string.rest_over),
+                notifications.get(0).extras.getString(Notification.EXTRA_TITLE));
+        assertEquals("Bench Press: set 2", notifications.get(0).extras.getString(Notification.EXTRA_TEXT));
+        assertEquals(RestTimerService.REST_CHANNEL_ID, notifications.get(0).getChannelId());
+    }
+
+    @Test
+    public void resetForgetsTheLaps() {
+        RestTimerService service = Robolectric.buildService(RestTimerService.class).create().get();
+
+        service.start();
+        SystemClock.sleep(1000);
+        assertEquals(1000, service.addLap());
+        SystemClock.sleep(250);
+        assertEquals(250, service.addLap());
+        assertEquals(2, service.getLaps().size());
+        assertEquals(1250, service.getLaps().getSplit(0));
+
+        service.reset();
+        assertEquals(0, service.getLaps().size());
+    }
+
+    @Test
+    public void restIntervalsBelongToTheSessionOfTheirDate() {
+        Context context = ApplicationProvider.getApplicationContext();
+        DatabaseHelper databaseHelper = DatabaseHelper.getInstance(context);
+        String today = new CurrentDate().getDateString();
+
+        //Nothing was logged yet, so there is no session to link the rest to
+        assertFalse(databaseHelper.insertRestInterval(1000, today, 90000));
+
+        databaseHelper.insertData(1000, today, 2, 1, 135, 5, 135);
+        assertTrue(databaseHelper.insertRestInterval(2000, today, 90000));
+        assertTrue(databaseHelper.insertRestInterval(3000, today, 120000));
+        assertArrayEquals(new long[]{90000, 120000}, databaseHelper.getRestIntervals(today, 2));
+        assertEquals(0, databaseHelper.getRestIntervals(today, 1).length);
+
+        databaseHelper.deleteTodaysData(today);
+        assertEquals(0, databaseHelper.getRestIntervals(today, 2).length);
+    }
+}
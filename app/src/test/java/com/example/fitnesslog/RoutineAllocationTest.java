@@ -0,0 +1,79 @@
+package com.example.fitnesslog;
+
+import org.junit.Assume;
+import org.junit.Test;
+
+import java.lang.management.ManagementFactory;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class RoutineAllocationTest {
+
+    private static final int ROUTINES = 10000;
+
+    @Test
+    public void metadataOnlyRoutinesDoNotBuildExercises() {
+        Routine routine = new Routine(3);
+        routine.setExerciseWeights(DefaultWeights.ADVANCED.clone());
+
+        assertEquals("AdvancedTable", routine.getTable());
+        assertEquals(RoutineTemplate.ADVANCED.getExerciseNames().length, routine.getExerciseNames().length);
+        assertEquals(3, routine.getRoutineID());
+        assertFalse(routine.hasBuiltWorkouts());
+
+        routine.getWorkouts();
+        assertTrue(routine.hasBuiltWorkouts());
+    }
+
+    //Only reports the allocation, since the size of an object depends on the JVM
+    @Test
+    public void reportMetadataRoutineAllocation() {
+        Assume.assumeTrue(ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean);
+        com.sun.management.ThreadMXBean threads =
+                (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        Assume.assumeTrue(threads.isThreadAllocatedMemorySupported());
+
+        long threadID = Thread.currentThread().getId();
+        int nameLength = 0;
+
+        //Loads the templates before measuring
+        nameLength += new Routine(3).getTable().length();
+
+        long before = threads.getThreadAllocatedBytes(threadID);
+        for (int i = 0; i < ROUTINES; i++) {
+            Routine routine = new Routine(i % 3 + 1);
+            nameLength += routine.getTable().length() + routine.getExerciseNames().length;
+        }
+        long bytesPerRoutine = (threads.getThreadAllocatedBytes(threadID) - before) / ROUTINES;
+
+        System.out.println("bytes per metadata routine: " + bytesPerRoutine);
+        assertTrue(nameLength > 0);
+    }
+
+    @Test
+    public void workoutsAreBuiltOnceWhenFirstNeeded() {
+        Routine routine = new Routine(2);
+        assertEquals(0, routine.getWorkouts().size());
+
+        routine.setExerciseWeights(new double[]{200, 100, 300, 400, 150});
+        List<Workout> workouts = routine.getWorkouts();
+
+        assertEquals(6, workouts.size());
+        assertSame(workouts, routine.getWorkouts());
+        assertEquals("Squat1", workouts.get(0).getExerciseAtIndex(0).getName());
+        assertSame(workouts.get(0).getExerciseAtIndex(2), workouts.get(3).getExerciseAtIndex(2));
+    }
+
+    @Test
+    public void templateLookupsIgnoreCase() {
+        RoutineTemplate template = RoutineTemplate.ADVANCED;
+
+        assertEquals(10, template.indexOfExerciseName("overhead tricep extension"));
+        assertEquals(6, RoutineTemplate.INTERMEDIATE.indexOfSlot("SQUAT"));
+        assertEquals(-1, template.indexOfExerciseName("Squat1"));
+    }
+}
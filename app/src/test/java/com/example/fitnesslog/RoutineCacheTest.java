@@ -0,0 +1,169 @@
+package com.example.fitnesslog;
+
+import android.content.Context;
+
+import androidx.test.core.app.ApplicationProvider;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 28)
+public class RoutineCacheTest {
+
+    private static final String PROGRAM_DATE = "2019-09-01";
+    private static final String WORKOUT_DATE = "2019-09-02";
+
+    private DatabaseHelper databaseHelper;
+    private Routine routine;
+    private int squat;
+
+    @Before
+    public void setUp() {
+        Context context = ApplicationProvider.getApplicationContext();
+        context.deleteDatabase("fitness.db");
+        databaseHelper = DatabaseHelper.getInstance(context);
+
+        //A Beginner program and the Squat sets of its first workout the day after
+        String[] exerciseNames = RoutineTemplate.BEGINNER.getExerciseNames();
+        int[] ids = new int[exerciseNames.length];
+        for (int i = 0; i < exerciseNames.length; i++) {
+            databaseHelper.insertBeginnerRoutineData(-1, exerciseNames[i]);
+            ids[i] = databaseHelper.getWorkoutExerciseID("BeginnerTable", exerciseNames[i], -1);
+        }
+        databaseHelper.insertNewProgram(1000, PROGRAM_DATE, 1, ids, DefaultWeights.BEGINNER.clone());
+
+        databaseHelper.insertBeginnerRoutineData(0, "Squat");
+        squat = databaseHelper.getWorkoutExerciseID("BeginnerTable", "Squat", 0);
+        for (int set = 0; set < 3; set++) {
+            databaseHelper.insertData(2000 + set, WORKOUT_DATE, 1, squat, 95, 5, 95);
+        }
+
+        routine = new Routine(1);
+        routine.setExerciseWeights(DefaultWeights.BEGINNER.clone());
+        RoutineCache.invalidate();
+    }
+
+    @After
+    public void tearDown() {
+        DatabaseHelper.releaseInstance();
+    }
+
+    @Test
+    public void workoutLogIsLoadedOnce() {
+        int hits = RoutineCache.getHitCount();
+        int misses = RoutineCache.getMissCount();
+
+        WorkoutLog first = RoutineCache.getWorkoutLog(databaseHelper, routine, WORKOUT_DATE, true);
+        assertEquals(misses + 1, RoutineCache.getMissCount());
+        assertEquals(hits, RoutineCache.getHitCount());
+        assertEquals(0, first.getWorkoutNum());
+        assertTrue(first.hasLoggedSets(0));
+        assertEquals(Arrays.asList(5, 5, 5), first.getReps(0));
+        assertEquals(Arrays.asList(95.0, 95.0, 95.0), first.getWeights(0));
+
+        //Opening the log again, as after a rotation, runs none of the queries
+        Routine reopened = new Routine(1);
+        reopened.setExerciseWeights(DefaultWeights.BEGINNER.clone());
+        assertSame(first, RoutineCache.getWorkoutLog(databaseHelper, reopened, WORKOUT_DATE, true));
+        assertEquals(misses + 1, RoutineCache.getMissCount());
+        assertEquals(hits + 1, RoutineCache.getHitCount());
+    }
+
+    @Test
+    public void newProgramLogIsCachedApart() {
+        WorkoutLog logged = RoutineCache.getWorkoutLog(databaseHelper, routine, WORKOUT_DATE, true);
+        int misses = RoutineCache.getMissCount();
+
+        WorkoutLog afterNewProgram = RoutineCache.getWorkoutLog(databaseHelper, routine, WORKOUT_DATE, false);
+        assertEquals(misses + 1, RoutineCache.getMissCount());
+        assertNotSame(logged, afterNewProgram);
+        assertFalse(afterNewProgram.hasLoggedSets(0));
+    }
+
+    @Test
+    public void writesInvalidateTheWorkoutLog() {
+        RoutineCache.getWorkoutLog(databaseHelper, routine, WORKOUT_DATE, true);
+        int misses = RoutineCache.getMissCount();
+
+        databaseHelper.upsertSets(3, WORKOUT_DATE, 1, squat, new double[]{95, 95, 95}, new int[]{5, 5, 4}, 95);
+
+        WorkoutLog updated = RoutineCache.getWorkoutLog(databaseHelper, routine, WORKOUT_DATE, true);
+        assertEquals(misses + 1, RoutineCache.getMissCount());
+        assertEquals(Arrays.asList(5, 5, 4), updated.getReps(0));
+
+        databaseHelper.deleteTodaysData(WORKOUT_DATE);
+
+        WorkoutLog deleted = RoutineCache.getWorkoutLog(databaseHelper, routine, WORKOUT_DATE, true);
+        assertEquals(misses + 2, RoutineCache.getMissCount());
+        assertFalse(deleted.hasLoggedSets(0));
+    }
+
+    @Test
+    public void writesInvalidateTheRoutines() {
+        Routine byDate = RoutineCache.getRoutineByDate(databaseHelper, WORKOUT_DATE);
+        Routine recent = RoutineCache.getRecentRoutine(databaseHelper, 1, WORKOUT_DATE);
+        int hits = RoutineCache.getHitCount();
+        int misses = RoutineCache.getMissCount();
+
+        assertSame(byDate, RoutineCache.getRoutineByDate(databaseHelper, WORKOUT_DATE));
+        assertSame(recent, RoutineCache.getRecentRoutine(databaseHelper, 1, WORKOUT_DATE));
+        assertEquals(hits + 2, RoutineCache.getHitCount());
+
+        databaseHelper.insertData(3000, WORKOUT_DATE, 1, squat, 100, 5, 100);
+
+        assertNotSame(byDate, RoutineCache.getRoutineByDate(databaseHelper, WORKOUT_DATE));
+        assertNotSame(recent, RoutineCache.getRecentRoutine(databaseHelper, 1, WORKOUT_DATE));
+        assertEquals(misses + 2, RoutineCache.getMissCount());
+    }
+
+    @Test
+    public void sharedRoutineBuildsItsWorkoutsOnce() throws InterruptedException {
+        final Routine shared = RoutineCache.getRecentRoutine(databaseHelper, 1, WORKOUT_DATE);
+        final List<List<Workout>> built = Collections.synchronizedList(new ArrayList<List<Workout>>());
+        final CountDownLatch start = new CountDownLatch(1);
+        Thread[] threads = new Thread[3];
+
+        //As many threads as the repository reads on, all building the workouts of the same routine
+        for (int t = 0; t < threads.length; t++) {
+            threads[t] = new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    try {
+                        start.await();
+                    } catch (InterruptedException e) {
+                        return;
+                    }
+                    built.add(shared.getWorkouts());
+                }
+            });
+            threads[t].start();
+        }
+        start.countDown();
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        assertEquals(threads.length, built.size());
+        for (List<Workout> workouts : built) {
+            assertSame(built.get(0), workouts);
+        }
+        assertFalse(built.get(0).isEmpty());
+    }
+}
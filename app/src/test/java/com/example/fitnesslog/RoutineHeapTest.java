@@ -0,0 +1,95 @@
+package com.example.fitnesslog;
+
+import android.content.Intent;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertSame;
+
+// Opens the Advanced routine the way WorkoutLogActivity does 1,000 times and checks that the program
+// structure is shared by all of them, so each open only pays for the user's own state
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 28)
+public class RoutineHeapTest {
+
+    private static final int OPENS = 1000;
+
+    @Test
+    public void openingTheLogScreenSharesTheTemplate() {
+        Routine original = new Routine(3);
+        RoutineTemplate template = RoutineTemplate.forRoutine(3);
+        original.setExerciseWeights(DefaultWeights.ADVANCED.clone());
+        Intent intent = new Intent();
+        original.putInto(intent);
+
+        List<Routine> opened = new ArrayList<>(OPENS);
+        ProgressionTable table = template.getProgressionTable();
+
+        //Warms up class loading so it is not counted
+        openLogScreen(intent);
+
+        long usedBefore = usedHeap();
+        long allocatedBefore = allocatedBytes();
+        for (int i = 0; i < OPENS; i++) {
+            opened.add(openLogScreen(intent));
+        }
+        long allocatedAfter = allocatedBytes();
+        long retainedPerOpen = (usedHeap() - usedBefore) / OPENS;
+
+        //Only reported, since object sizes depend on the JVM. Each open builds 13 exercises and
+        //3 workouts without any copies of names, goal reps or set arrays
+        System.out.println("allocated bytes per open: "
+                + (allocatedBefore < 0 ? "unsupported" : String.valueOf((allocatedAfter - allocatedBefore) / OPENS))
+                + ", retained bytes per open: " + retainedPerOpen);
+
+        int[] goalReps = opened.get(0).getWorkouts().get(0).getExerciseAtIndex(0).getGoalReps();
+        assertArrayEquals(table.getGoalReps(0), goalReps);
+        for (Routine routine : opened) {
+            Workout workout = routine.getWorkouts().get(0);
+            Exercise bench = workout.getExerciseAtIndex(0);
+
+            assertSame(template.getExerciseNames(), routine.getExerciseNames());
+            assertSame(table.getName(0), bench.getName());
+            assertSame(goalReps, bench.getGoalReps());
+        }
+    }
+
+    //What WorkoutLogActivity does with its intent before it shows the current workout
+    private static Routine openLogScreen(Intent intent) {
+        Routine routine = Routine.fromIntent(intent);
+        routine.getWorkouts();
+        return routine;
+    }
+
+    //Returns the bytes allocated by this thread so far, or -1 if the JVM does not count them
+    private static long allocatedBytes() {
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+
+        if (!(threads instanceof com.sun.management.ThreadMXBean)) {
+            return -1;
+        }
+        com.sun.management.ThreadMXBean allocations = (com.sun.management.ThreadMXBean) threads;
+        if (!allocations.isThreadAllocatedMemorySupported()) {
+            return -1;
+        }
+        return allocations.getThreadAllocatedBytes(Thread.currentThread().getId());
+    }
+
+    private static long usedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
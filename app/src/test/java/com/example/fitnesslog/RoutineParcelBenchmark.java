@@ -0,0 +1,104 @@
+package com.example.fitnesslog;
+
+import android.content.Intent;
+import android.os.Bundle;
+import android.os.Parcel;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+// Compares passing the Advanced routine between activities as a Parcelable with passing it through
+// Routine.putInto. Both are marshalled the way startActivity does it, as the bundle of extras.
+// Runs with -Pbenchmark like DatabaseBenchmark and writes app/build/benchmark/routine_parcel.json
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 28)
+public class RoutineParcelBenchmark {
+
+    private static final int WARMUP = 200;
+    private static final int ITERATIONS = 2000;
+
+    @Test
+    public void benchmarkRoutineExtras() throws Exception {
+        final Routine routine = new Routine(3);
+        routine.setExerciseWeights(new double[routine.getExerciseNames().length]);
+
+        final Intent parcelableIntent = new Intent();
+        parcelableIntent.putExtra("ROUTINE", routine);
+        final Intent handleIntent = new Intent();
+        routine.putInto(handleIntent);
+
+        final byte[] parcelableBytes = marshall(parcelableIntent);
+        final byte[] handleBytes = marshall(handleIntent);
+        BenchmarkResults results = new BenchmarkResults();
+
+        results.addParameter("routineID", routine.getRoutineID());
+        results.addParameter("parcelableBytes", parcelableBytes.length);
+        results.addParameter("handleBytes", handleBytes.length);
+
+        results.measure("parcelable_marshall", WARMUP, ITERATIONS, new BenchmarkResults.Operation() {
+            @Override
+            public Object run(int iteration) {
+                return marshall(parcelableIntent);
+            }
+        });
+
+        results.measure("parcelable_unmarshall", WARMUP, ITERATIONS, new BenchmarkResults.Operation() {
+            @Override
+            public Object run(int iteration) {
+                return unmarshall(parcelableBytes).getParcelableExtra("ROUTINE");
+            }
+        });
+
+        results.measure("handle_marshall", WARMUP, ITERATIONS, new BenchmarkResults.Operation() {
+            @Override
+            public Object run(int iteration) {
+                return marshall(handleIntent);
+            }
+        });
+
+        results.measure("handle_unmarshall", WARMUP, ITERATIONS, new BenchmarkResults.Operation() {
+            @Override
+            public Object run(int iteration) {
+                return Routine.fromIntent(unmarshall(handleBytes));
+            }
+        });
+
+        results.write("routine_parcel");
+        System.out.println(results.toJson());
+
+        Routine copy = Routine.fromIntent(unmarshall(handleBytes));
+        assertEquals(routine.getWorkouts().size(), copy.getWorkouts().size());
+        assertTrue(handleBytes.length < parcelableBytes.length);
+    }
+
+    private static byte[] marshall(Intent intent) {
+        Parcel parcel = Parcel.obtain();
+
+        try {
+            parcel.writeBundle(intent.getExtras());
+            return parcel.marshall();
+        } finally {
+            parcel.recycle();
+        }
+    }
+
+    //Reads every extra, like the receiving activity does when it first asks for one
+    private static Intent unmarshall(byte[] bytes) {
+        Parcel parcel = Parcel.obtain();
+
+        try {
+            parcel.unmarshall(bytes, 0, bytes.length);
+            parcel.setDataPosition(0);
+            Bundle extras = parcel.readBundle(Routine.class.getClassLoader());
+            extras.size();
+            return new Intent().putExtras(extras);
+        } finally {
+            parcel.recycle();
+        }
+    }
+}
@@ -0,0 +1,110 @@
+package com.example.fitnesslog;
+
+import android.os.Parcel;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 28)
+public class RoutineParcelTest {
+
+    @Test
+    public void sharedExercisesStaySharedAfterParcel() {
+        Routine copy = parcelAndRead(createRoutine(1));
+        List<Workout> workouts = copy.getWorkouts();
+
+        //Squat is the first exercise of both beginner workouts
+        Exercise squatA = workouts.get(0).getExerciseAtIndex(0);
+        Exercise squatB = workouts.get(1).getExerciseAtIndex(0);
+        assertEquals("Squat", squatA.getName());
+        assertSame(squatA, squatB);
+
+        //Sets logged through one workout are seen by the other
+        for (int set = 0; set < 3; set++) {
+            squatA.addRepsDone(squatA.getGoalWeight(), 5);
+        }
+        assertTrue(squatB.passOrFail());
+    }
+
+    @Test
+    public void everyRoutineIsReadBackWithOneInstancePerExercise() {
+        for (int routineID = 1; routineID <= 3; routineID++) {
+            Routine routine = createRoutine(routineID);
+            Routine copy = parcelAndRead(routine);
+
+            assertEquals(countExercises(routine), countExercises(copy));
+            assertEquals(routine.getWorkouts().size(), copy.getWorkouts().size());
+
+            for (int w = 0; w < routine.getWorkouts().size(); w++) {
+                List<Exercise> expected = routine.getWorkouts().get(w).getExercises();
+                List<Exercise> actual = copy.getWorkouts().get(w).getExercises();
+
+                assertEquals(expected.size(), actual.size());
+                for (int e = 0; e < expected.size(); e++) {
+                    assertEquals(expected.get(e).getName(), actual.get(e).getName());
+                    assertEquals(expected.get(e).getGoalWeight(), actual.get(e).getGoalWeight(), 0);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void intermediateExercisesAreAllocatedOnce() {
+        Routine copy = parcelAndRead(createRoutine(2));
+        int references = 0;
+
+        for (Workout workout : copy.getWorkouts()) {
+            references += workout.getExercises().size();
+        }
+
+        //16 exercise slots in the six workouts are filled by 11 distinct exercises
+        assertEquals(16, references);
+        assertEquals(11, countExercises(copy));
+    }
+
+    private static Routine createRoutine(int routineID) {
+        Routine routine = new Routine(routineID);
+        double[] weights = new double[routine.getExerciseNames().length];
+
+        for (int i = 0; i < weights.length; i++) {
+            weights[i] = 100 + 10 * i;
+        }
+        routine.setExerciseWeights(weights);
+        return routine;
+    }
+
+    private static Routine parcelAndRead(Routine routine) {
+        Parcel parcel = Parcel.obtain();
+
+        try {
+            routine.writeToParcel(parcel, 0);
+            parcel.setDataPosition(0);
+            return Routine.CREATOR.createFromParcel(parcel);
+        } finally {
+            parcel.recycle();
+        }
+    }
+
+    //Number of distinct Exercise instances that the workouts refer to
+    private static int countExercises(Routine routine) {
+        Map<Exercise, Boolean> distinct = new IdentityHashMap<>();
+
+        for (Workout workout : routine.getWorkouts()) {
+            for (Exercise exercise : workout.getExercises()) {
+                distinct.put(exercise, true);
+            }
+        }
+        return distinct.size();
+    }
+}
@@ -0,0 +1,157 @@
+package com.example.fitnesslog;
+
+import android.content.Context;
+import android.database.sqlite.SQLiteStatement;
+
+import androidx.test.core.app.ApplicationProvider;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.Calendar;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+
+// Measures the lookups of DatabaseHelper, which bind their values to statements that are compiled
+// once, against the same SQL with the values concatenated into it the way the queries were written
+// before. Concatenated SQL is different for every date, so SQLite parses and plans it on every call.
+// Besides the times, the CPU time per query of both is recorded. Run it with
+//     ./gradlew testDebugUnitTest -Pbenchmark
+// and optionally -Pbenchmark.users=N -Pbenchmark.years=N. The results are written to
+// app/build/benchmark/statements.json
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 28)
+public class StatementCacheBenchmark {
+
+    private static final int WARMUP = 200;
+    private static final int ITERATIONS = 2000;
+
+    private DatabaseHelper databaseHelper;
+    private HistoryGenerator history;
+
+    // One lookup written both ways
+    private interface Lookup {
+        long bound(String date);
+
+        long concatenated(String date);
+    }
+
+    @Before
+    public void setUp() {
+        Context context = ApplicationProvider.getApplicationContext();
+        context.deleteDatabase("fitness.db");
+        databaseHelper = DatabaseHelper.getInstance(context);
+
+        history = new HistoryGenerator(Integer.getInteger("benchmark.users", 3),
+                Integer.getInteger("benchmark.years", 3), 42);
+
+        Calendar end = Calendar.getInstance();
+        end.clear();
+        end.set(2019, Calendar.SEPTEMBER, 1);
+        history.generate(databaseHelper, end);
+    }
+
+    @After
+    public void tearDown() {
+        DatabaseHelper.releaseInstance();
+    }
+
+    @Test
+    public void benchmarkStatements() throws Exception {
+        BenchmarkResults results = new BenchmarkResults();
+        final HistoryGenerator.Day day = history.getSampleDay(1);
+        //Far more dates than the connection keeps compiled statements for
+        final List<String> dates = databaseHelper.returnAllDistinctDates();
+
+        results.addParameter("users", history.getUsers());
+        results.addParameter("years", history.getYears());
+        results.addParameter("rows", history.getRowCount());
+        results.addParameter("dates", dates.size());
+        results.addParameter("warmup", WARMUP);
+        results.addParameter("iterations", ITERATIONS);
+
+        measure(results, "haveEntriesBeenEntered", dates, new Lookup() {
+            @Override
+            public long bound(String date) {
+                return databaseHelper.haveEntriesBeenEntered(date, day.routineID, day.workoutExerciseID) ? 1 : 0;
+            }
+
+            @Override
+            public long concatenated(String date) {
+                return queryConcatenated("SELECT EXISTS(SELECT 1 FROM DataTable WHERE CurrentDate = '" + date
+                        + "' AND RoutineID = " + day.routineID + " AND WorkoutExerciseID = " + day.workoutExerciseID
+                        + ")");
+            }
+        });
+
+        measure(results, "getLatestRoutineByDate", dates, new Lookup() {
+            @Override
+            public long bound(String date) {
+                return databaseHelper.getLatestRoutineByDate(date);
+            }
+
+            @Override
+            public long concatenated(String date) {
+                return queryConcatenated("SELECT RoutineID FROM DataTable WHERE CurrentDate = '" + date
+                        + "' ORDER BY CurrentTime DESC LIMIT 1");
+            }
+        });
+
+        results.write("statements");
+        System.out.println(results.toJson());
+    }
+
+    // EFFECTS: times the lookup written both ways on every date in turn and records the CPU time of
+    //          one query of each as a parameter. Both have to give the same answers
+    private void measure(BenchmarkResults results, String name, final List<String> dates, final Lookup lookup) {
+        for (String date : dates) {
+            assertEquals(date, lookup.bound(date), lookup.concatenated(date));
+        }
+
+        results.measure(name + "_bound", WARMUP, ITERATIONS, new BenchmarkResults.Operation() {
+            @Override
+            public Object run(int iteration) {
+                return lookup.bound(dates.get(iteration % dates.size()));
+            }
+        });
+        results.measure(name + "_concatenated", WARMUP, ITERATIONS, new BenchmarkResults.Operation() {
+            @Override
+            public Object run(int iteration) {
+                return lookup.concatenated(dates.get(iteration % dates.size()));
+            }
+        });
+
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        long start = threads.getCurrentThreadCpuTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            lookup.bound(dates.get(i % dates.size()));
+        }
+        long boundCpu = threads.getCurrentThreadCpuTime() - start;
+
+        start = threads.getCurrentThreadCpuTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            lookup.concatenated(dates.get(i % dates.size()));
+        }
+        long concatenatedCpu = threads.getCurrentThreadCpuTime() - start;
+
+        results.addParameter(name + "_boundCpuNs", boundCpu / ITERATIONS);
+        results.addParameter(name + "_concatenatedCpuNs", concatenatedCpu / ITERATIONS);
+    }
+
+    //Compiles the SQL for this one query, as the old code did for every query
+    private long queryConcatenated(String sql) {
+        SQLiteStatement statement = databaseHelper.getReadableDatabase().compileStatement(sql);
+        try {
+            return statement.simpleQueryForLong();
+        } finally {
+            statement.close();
+        }
+    }
+}
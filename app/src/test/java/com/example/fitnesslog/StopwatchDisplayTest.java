@@ -0,0 +1,98 @@
+package com.example.fitnesslog;
+
+import org.junit.Assume;
+import org.junit.Test;
+
+import java.lang.management.ManagementFactory;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class StopwatchDisplayTest {
+
+    //Ten minutes of frames at 60 fps
+    private static final int FRAMES = 36000;
+
+    @Test
+    public void formatsMinutesSecondsAndMillis() {
+        StopwatchDisplay display = new StopwatchDisplay();
+        assertEquals("0:00:000", display.toString());
+
+        display.update(61005);
+        assertEquals("1:01:005", display.toString());
+
+        display.update(100 * 60000 + 59999);
+        assertEquals("100:59:999", display.toString());
+        assertEquals(10, display.getLength());
+    }
+
+    @Test
+    public void onlyChangesWhenTheShownTimeChanges() {
+        StopwatchDisplay display = new StopwatchDisplay();
+
+        assertFalse(display.update(0));
+        assertTrue(display.update(16));
+        assertFalse(display.update(16));
+    }
+
+    @Test
+    public void clockKeepsTheTimeOfEarlierRuns() {
+        StopwatchClock clock = new StopwatchClock();
+
+        clock.start(1000);
+        clock.start(1500);
+        assertEquals(500, clock.getElapsed(1500));
+
+        clock.stop(2000);
+        clock.stop(2500);
+        assertEquals(1000, clock.getElapsed(9000));
+
+        clock.start(10000);
+        assertEquals(1250, clock.getElapsed(10250));
+
+        StopwatchClock restored = new StopwatchClock();
+        restored.restore(clock.getAccumulated(), clock.getStartedAt(), clock.isRunning());
+        assertEquals(3000, restored.getElapsed(12000));
+
+        clock.reset();
+        assertFalse(clock.isRunning());
+        assertEquals(0, clock.getElapsed(20000));
+    }
+
+    @Test
+    public void framesDoNotAllocate() {
+        com.sun.management.ThreadMXBean threads =
+                (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        Assume.assumeTrue(threads.isThreadAllocatedMemorySupported());
+
+        long threadID = Thread.currentThread().getId();
+        StopwatchClock clock = new StopwatchClock();
+        StopwatchDisplay display = new StopwatchDisplay();
+        int changes = 0;
+
+        clock.start(0);
+        //Runs the frames once so the measured ones are compiled
+        changes += runFrames(clock, display);
+
+        long before = threads.getThreadAllocatedBytes(threadID);
+        changes += runFrames(clock, display);
+        long bytesPerFrame = (threads.getThreadAllocatedBytes(threadID) - before) / FRAMES;
+
+        System.out.println("bytes per stopwatch frame: " + bytesPerFrame);
+        assertEquals(2 * FRAMES, changes);
+        assertEquals(0, bytesPerFrame);
+    }
+
+    //What Stopwatch does on every frame, with frames 16.67 ms apart
+    private static int runFrames(StopwatchClock clock, StopwatchDisplay display) {
+        int changes = 0;
+
+        for (int frame = 1; frame <= FRAMES; frame++) {
+            if (display.update(clock.getElapsed(frame * 1000L / 60))) {
+                changes++;
+            }
+        }
+        return changes;
+    }
+}
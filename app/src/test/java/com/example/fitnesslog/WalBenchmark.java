@@ -0,0 +1,162 @@
+package com.example.fitnesslog;
+
+import android.content.Context;
+
+import androidx.test.core.app.ApplicationProvider;
+
+import org.junit.After;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.List;
+import java.util.Locale;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.Assert.assertTrue;
+
+// Measures the throughput of reads and writes running at the same time, as they do when a month of
+// the calendar loads while a workout is logged, with the rollback journal the app used before and
+// with write-ahead logging. Readers look up days of the history as fast as they can while a writer
+// logs sets on new dates, and the reads and writes finished per second are recorded for both. Run it
+// with
+//     ./gradlew testDebugUnitTest -Pbenchmark
+// and optionally -Pbenchmark.users=N -Pbenchmark.years=N. The results are written to
+// app/build/benchmark/wal.json
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 28)
+public class WalBenchmark {
+
+    //As many readers as DatabaseRepository has read threads
+    private static final int READERS = 3;
+    private static final long WARMUP_MILLIS = 1000;
+    private static final long DURATION_MILLIS = 5000;
+
+    private static final DatabaseConfig ROLLBACK_JOURNAL =
+            new DatabaseConfig(false, DatabaseConfig.SYNCHRONOUS_FULL, -2048, 0, 0);
+
+    private static final double[] WEIGHTS = {135, 135, 135};
+    private static final int[] REPS = {5, 5, 5};
+
+    @After
+    public void tearDown() {
+        DatabaseHelper.releaseInstance();
+    }
+
+    @Test
+    public void benchmarkMixedReadsAndWrites() throws Exception {
+        BenchmarkResults results = new BenchmarkResults();
+        int users = Integer.getInteger("benchmark.users", 3);
+        int years = Integer.getInteger("benchmark.years", 3);
+
+        results.addParameter("users", users);
+        results.addParameter("years", years);
+        results.addParameter("readers", READERS);
+        results.addParameter("durationMillis", DURATION_MILLIS);
+
+        measureMixed(results, "rollbackJournal", ROLLBACK_JOURNAL, users, years);
+        measureMixed(results, "wal", DatabaseConfig.DEFAULT, users, years);
+
+        results.write("wal");
+        System.out.println(results.toJson());
+    }
+
+    // EFFECTS: fills a new database opened with the config, then runs the readers and the writer for
+    //          the warmup and the duration and records what they finished in the duration
+    private void measureMixed(BenchmarkResults results, String name, DatabaseConfig config, int users, int years)
+            throws InterruptedException {
+        Context context = ApplicationProvider.getApplicationContext();
+        DatabaseHelper.releaseInstance();
+        context.deleteDatabase("fitness.db");
+        final DatabaseHelper databaseHelper = DatabaseHelper.getInstance(context, config);
+
+        HistoryGenerator history = new HistoryGenerator(users, years, 42);
+        Calendar end = Calendar.getInstance();
+        end.clear();
+        end.set(2019, Calendar.SEPTEMBER, 1);
+        history.generate(databaseHelper, end);
+        results.addParameter("rows_" + name, history.getRowCount());
+
+        final HistoryGenerator.Day day = history.getSampleDay(1);
+        final List<String> dates = databaseHelper.returnAllDistinctDates();
+        final AtomicLong reads = new AtomicLong();
+        final AtomicLong writes = new AtomicLong();
+        final AtomicBoolean running = new AtomicBoolean(true);
+        final Queue<Throwable> failures = new ConcurrentLinkedQueue<>();
+        final CountDownLatch start = new CountDownLatch(1);
+        List<Thread> threads = new ArrayList<>();
+
+        for (int reader = 0; reader < READERS; reader++) {
+            final int offset = reader * dates.size() / READERS;
+            threads.add(new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    try {
+                        start.await();
+                        for (int i = offset; running.get(); i++) {
+                            String date = dates.get(i % dates.size());
+                            databaseHelper.getCapableWeightArray(day.routineID, date);
+                            databaseHelper.getLatestRoutineByDate(date);
+                            reads.incrementAndGet();
+                        }
+                    } catch (Throwable e) {
+                        failures.add(e);
+                    }
+                }
+            }));
+        }
+
+        threads.add(new Thread(new Runnable() {
+            @Override
+            public void run() {
+                SimpleDateFormat sdf = new SimpleDateFormat("yyyy-MM-dd", Locale.US);
+                Calendar next = Calendar.getInstance();
+                next.clear();
+                next.set(2019, Calendar.SEPTEMBER, 2);
+
+                try {
+                    start.await();
+                    while (running.get()) {
+                        databaseHelper.upsertSets(REPS.length, sdf.format(next.getTime()), day.routineID,
+                                day.workoutExerciseID, WEIGHTS, REPS, 135);
+                        next.add(Calendar.DAY_OF_MONTH, 1);
+                        writes.incrementAndGet();
+                    }
+                } catch (Throwable e) {
+                    failures.add(e);
+                }
+            }
+        }));
+
+        for (Thread thread : threads) {
+            thread.start();
+        }
+        start.countDown();
+
+        Thread.sleep(WARMUP_MILLIS);
+        long readsBefore = reads.get();
+        long writesBefore = writes.get();
+        long startTime = System.nanoTime();
+        Thread.sleep(DURATION_MILLIS);
+        long readsDone = reads.get() - readsBefore;
+        long writesDone = writes.get() - writesBefore;
+        double seconds = (System.nanoTime() - startTime) / 1e9;
+
+        running.set(false);
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        assertTrue(failures.toString(), failures.isEmpty());
+
+        results.addParameter(name + "_readsPerSecond", Math.round(readsDone / seconds));
+        results.addParameter(name + "_writesPerSecond", Math.round(writesDone / seconds));
+    }
+}
@@ -0,0 +1,131 @@
+package com.example.fitnesslog;
+
+import android.content.Context;
+
+import androidx.test.core.app.ApplicationProvider;
+
+import com.example.fitnesslog.activities.WorkoutCalendar;
+import com.github.sundeepk.compactcalendarview.CompactCalendarView;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.Robolectric;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.android.controller.ActivityController;
+import org.robolectric.annotation.Config;
+import org.robolectric.shadows.ShadowLooper;
+
+import java.text.ParseException;
+import java.text.SimpleDateFormat;
+import java.util.Calendar;
+import java.util.Date;
+import java.util.Locale;
+
+import static org.junit.Assert.assertTrue;
+
+// Loads the months of WorkoutCalendar, including a month whose read fails and is loaded again when
+// it is scrolled back to
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 28)
+public class WorkoutCalendarTest {
+
+    private static final long TIMEOUT_MILLIS = 10000;
+
+    private DatabaseHelper databaseHelper;
+    private Date lastMonthDay;
+    private Date todayStart;
+
+    private interface Condition {
+        boolean isMet();
+    }
+
+    @Before
+    public void setUp() throws ParseException {
+        Context context = ApplicationProvider.getApplicationContext();
+        context.deleteDatabase("fitness.db");
+        databaseHelper = DatabaseHelper.getInstance(context);
+        SimpleDateFormat sdf = new SimpleDateFormat("yyyy-MM-dd", Locale.US);
+
+        //A workout today and one in the month before, which is loaded next to the current month
+        databaseHelper.insertBeginnerRoutineData(0, "Squat");
+        int squat = databaseHelper.getWorkoutExerciseID("BeginnerTable", "Squat", 0);
+        Calendar day = Calendar.getInstance();
+        String today = sdf.format(day.getTime());
+        todayStart = sdf.parse(today);
+        databaseHelper.insertData(day.getTimeInMillis(), today, 1, squat, 95, 5, 95);
+
+        day.add(Calendar.MONTH, -1);
+        day.set(Calendar.DAY_OF_MONTH, 15);
+        String lastMonth = sdf.format(day.getTime());
+        lastMonthDay = sdf.parse(lastMonth);
+        databaseHelper.insertData(day.getTimeInMillis(), lastMonth, 1, squat, 95, 5, 95);
+    }
+
+    @After
+    public void tearDown() {
+        DatabaseHelper.releaseInstance();
+    }
+
+    @Test
+    public void monthsAroundTheVisibleOneAreLoaded() throws InterruptedException {
+        ActivityController<WorkoutCalendar> controller = Robolectric.buildActivity(WorkoutCalendar.class).setup();
+        final CompactCalendarView calendar = controller.get().findViewById(R.id.compactcalendar_view);
+
+        awaitMainLooper(new Condition() {
+            @Override
+            public boolean isMet() {
+                return !calendar.getEvents(todayStart).isEmpty() && !calendar.getEvents(lastMonthDay).isEmpty();
+            }
+        });
+        controller.pause().stop().destroy();
+    }
+
+    @Test
+    public void failedMonthIsLoadedAgain() throws InterruptedException {
+        //Every read of the months fails while DataTable is gone
+        databaseHelper.getWritableDatabase().execSQL("ALTER TABLE DataTable RENAME TO DataTableMoved");
+
+        ActivityController<WorkoutCalendar> controller = Robolectric.buildActivity(WorkoutCalendar.class).setup();
+        final CompactCalendarView calendar = controller.get().findViewById(R.id.compactcalendar_view);
+        idleMainLooper(500);
+        assertTrue(calendar.getEvents(todayStart).isEmpty());
+
+        databaseHelper.getWritableDatabase().execSQL("ALTER TABLE DataTableMoved RENAME TO DataTable");
+
+        //The current month is next to the new one, so it is loaded again instead of staying stuck
+        calendar.showNextMonth();
+        awaitMainLooper(new Condition() {
+            @Override
+            public boolean isMet() {
+                return !calendar.getEvents(todayStart).isEmpty();
+            }
+        });
+        controller.pause().stop().destroy();
+    }
+
+    // EFFECTS: runs what the database threads posted to the main thread until the condition holds
+    private static void awaitMainLooper(Condition condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + TIMEOUT_MILLIS;
+
+        while (true) {
+            ShadowLooper.idleMainLooper();
+            if (condition.isMet()) {
+                return;
+            }
+            assertTrue("timed out waiting for the database threads", System.currentTimeMillis() < deadline);
+            Thread.sleep(10);
+        }
+    }
+
+    //Gives reads that were started without a result to wait for the time to finish
+    private static void idleMainLooper(long millis) throws InterruptedException {
+        long end = System.currentTimeMillis() + millis;
+
+        while (System.currentTimeMillis() < end) {
+            ShadowLooper.idleMainLooper();
+            Thread.sleep(10);
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package com.example.fitnesslog;
+
+import android.view.ContextThemeWrapper;
+import android.view.View;
+import android.widget.EditText;
+import android.widget.LinearLayout;
+
+import androidx.recyclerview.widget.LinearLayoutManager;
+import androidx.recyclerview.widget.RecyclerView;
+import androidx.test.core.app.ApplicationProvider;
+
+import com.example.fitnesslog.activities.WorkoutLogAdapter;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import java.util.Arrays;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 28)
+public class WorkoutLogAdapterTest {
+
+    private RecyclerView list;
+    private WorkoutLogAdapter adapter;
+    private final int[] submitted = {-1};
+
+    @Before
+    public void setUp() {
+        Routine routine = new Routine(3);
+        routine.setExerciseWeights(DefaultWeights.ADVANCED.clone());
+        Workout workout = routine.getWorkouts().get(0);
+        String[] names = new String[workout.getExercises().size()];
+
+        for (int i = 0; i < names.length; i++) {
+            names[i] = workout.getExerciseAtIndex(i).getName();
+        }
+
+        list = new RecyclerView(new ContextThemeWrapper(ApplicationProvider.getApplicationContext(), R.style.AppTheme));
+        list.setLayoutManager(new LinearLayoutManager(list.getContext()));
+        adapter = new WorkoutLogAdapter(workout, names, new WorkoutLogAdapter.SubmitListener() {
+            @Override
+            public void onSubmit(View view, int exerciseNum) {
+                submitted[0] = exerciseNum;
+            }
+        });
+    }
+
+    @Test
+    public void inputsSurviveRecycling() {
+        WorkoutLogAdapter.ExerciseHolder holder = adapter.createViewHolder(list, 0);
+        LinearLayout weights = holder.itemView.findViewById(R.id.set_weights);
+
+        adapter.bindViewHolder(holder, 0);
+        ((EditText) weights.getChildAt(1)).setText("135");
+        assertEquals("135", adapter.getWeightInputs(0)[0]);
+
+        adapter.bindViewHolder(holder, 1);
+        assertEquals("", ((EditText) weights.getChildAt(1)).getText().toString());
+        assertEquals("135", adapter.getWeightInputs(0)[0]);
+
+        adapter.bindViewHolder(holder, 0);
+        assertEquals("135", ((EditText) weights.getChildAt(1)).getText().toString());
+
+        //A header and one row per set, added once and reused for every exercise with three sets
+        assertEquals(4, weights.getChildCount());
+    }
+
+    @Test
+    public void onlyVisibleSetsAreShown() {
+        WorkoutLogAdapter.ExerciseHolder holder = adapter.createViewHolder(list, 0);
+        LinearLayout reps = holder.itemView.findViewById(R.id.set_reps);
+
+        adapter.bindViewHolder(holder, 2);
+        assertEquals(View.VISIBLE, reps.getChildAt(1).getVisibility());
+        assertEquals(View.GONE, reps.getChildAt(2).getVisibility());
+
+        adapter.showSets(2, 1);
+        adapter.bindViewHolder(holder, 2);
+        assertEquals(2, adapter.getVisibleSets(2));
+        assertEquals(View.VISIBLE, reps.getChildAt(2).getVisibility());
+        assertEquals(View.GONE, reps.getChildAt(3).getVisibility());
+    }
+
+    @Test
+    public void loggedSetsAreFilledOutAndShown() {
+        adapter.setLoggedSets(1, Arrays.asList(100.0, 95.0), Arrays.asList(7, 6));
+
+        assertEquals(2, adapter.getVisibleSets(1));
+        assertEquals("95.0", adapter.getWeightInputs(1)[1]);
+        assertEquals("6", adapter.getRepsInputs(1)[1]);
+        assertEquals("", adapter.getRepsInputs(1)[2]);
+    }
+
+    @Test
+    public void submitReportsTheBoundExercise() {
+        WorkoutLogAdapter.ExerciseHolder holder = adapter.createViewHolder(list, 0);
+
+        adapter.bindViewHolder(holder, 4);
+        holder.itemView.findViewById(R.id.submit_button).performClick();
+
+        assertEquals(4, submitted[0]);
+        assertTrue(adapter.hasStableIds());
+        assertEquals(4, adapter.getItemId(4));
+    }
+}
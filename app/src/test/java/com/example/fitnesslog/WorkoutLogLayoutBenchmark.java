@@ -0,0 +1,99 @@
+package com.example.fitnesslog;
+
+import android.content.Context;
+import android.view.ContextThemeWrapper;
+import android.view.View;
+import android.widget.ScrollView;
+
+import androidx.recyclerview.widget.LinearLayoutManager;
+import androidx.recyclerview.widget.RecyclerView;
+import androidx.test.core.app.ApplicationProvider;
+
+import com.example.fitnesslog.activities.WorkoutLogAdapter;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import static org.junit.Assert.assertTrue;
+
+// Measures creating and laying out the workout log of the first Advanced workout, six exercises with
+// three sets each, on a 1080x1920 screen. The tree the log used to build is compared with the
+// RecyclerView, both when it is first shown and when its items are rebound to recycled views. Runs
+// with -Pbenchmark like DatabaseBenchmark and writes app/build/benchmark/workout_log.json
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 28)
+public class WorkoutLogLayoutBenchmark {
+
+    private static final int WIDTH = 1080;
+    private static final int HEIGHT = 1920;
+    private static final int WARMUP = 20;
+    private static final int ITERATIONS = 200;
+
+    @Test
+    public void benchmarkLayout() throws Exception {
+        BenchmarkResults results = new BenchmarkResults();
+        final Context context = new ContextThemeWrapper(ApplicationProvider.getApplicationContext(), R.style.AppTheme);
+        Routine routine = new Routine(3);
+        routine.setExerciseWeights(DefaultWeights.ADVANCED.clone());
+        final Workout workout = routine.getWorkouts().get(0);
+        final String[] names = new String[workout.getExercises().size()];
+
+        for (int i = 0; i < names.length; i++) {
+            names[i] = workout.getExerciseAtIndex(i).getName();
+        }
+        results.addParameter("exercises", names.length);
+        results.addParameter("screen", WIDTH + "x" + HEIGHT);
+
+        results.measure("linearLayoutTree_inflateAndLayout", WARMUP, ITERATIONS, new BenchmarkResults.Operation() {
+            @Override
+            public Object run(int iteration) {
+                ScrollView scrollView = new ScrollView(context);
+                scrollView.addView(new LegacyWorkoutLogLayout(context).build(workout));
+                return layout(scrollView);
+            }
+        });
+
+        results.measure("recyclerView_inflateAndLayout", WARMUP, ITERATIONS, new BenchmarkResults.Operation() {
+            @Override
+            public Object run(int iteration) {
+                return layout(createList(context, workout, names));
+            }
+        });
+
+        final RecyclerView list = createList(context, workout, names);
+        layout(list);
+        results.measure("recyclerView_rebind", WARMUP, ITERATIONS, new BenchmarkResults.Operation() {
+            @Override
+            public Object run(int iteration) {
+                list.getAdapter().notifyDataSetChanged();
+                return layout(list);
+            }
+        });
+
+        results.write("workout_log");
+        System.out.println(results.toJson());
+
+        assertTrue(list.getChildCount() > 0);
+    }
+
+    private static RecyclerView createList(Context context, Workout workout, String[] names) {
+        RecyclerView list = new RecyclerView(context);
+
+        list.setLayoutManager(new LinearLayoutManager(context));
+        list.setAdapter(new WorkoutLogAdapter(workout, names, new WorkoutLogAdapter.SubmitListener() {
+            @Override
+            public void onSubmit(View view, int exerciseNum) {
+            }
+        }));
+        return list;
+    }
+
+    private static View layout(View view) {
+        view.measure(View.MeasureSpec.makeMeasureSpec(WIDTH, View.MeasureSpec.EXACTLY),
+                View.MeasureSpec.makeMeasureSpec(HEIGHT, View.MeasureSpec.EXACTLY));
+        view.layout(0, 0, WIDTH, HEIGHT);
+        return view;
+    }
+}
@@ -0,0 +1,153 @@
+package com.example.fitnesslog;
+
+import android.content.Context;
+
+import androidx.test.core.app.ApplicationProvider;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import java.util.Arrays;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 28)
+public class WorkoutStatsTest {
+
+    private static final String SUNDAY = "2019-09-01";
+    private static final String MONDAY = "2019-09-02";
+    private static final String WEDNESDAY = "2019-09-04";
+
+    //Beginner's Squat, Bench Press and Barbell Row of workout A
+    private static final int SQUAT = 1;
+    private static final int BENCH = 2;
+    private static final int ROW = 3;
+
+    private DatabaseHelper databaseHelper;
+
+    @Before
+    public void setUp() {
+        Context context = ApplicationProvider.getApplicationContext();
+        context.deleteDatabase("fitness.db");
+        databaseHelper = DatabaseHelper.getInstance(context);
+    }
+
+    @After
+    public void tearDown() {
+        DatabaseHelper.releaseInstance();
+    }
+
+    @Test
+    public void restsDurationAndDensityOfAWorkout() {
+        long start = 1567440000000L;
+        double volume = 135 * 5 * 3 + 95 * 5 * 2 + 95 * 4;
+
+        //Squat logged set by set 90 s apart, Bench Press 2 minutes later, then two sets of Barbell Row
+        //typed in and submitted together another 2 minutes later
+        for (int i = 0; i < 3; i++) {
+            databaseHelper.insertData(start + i * 90000, MONDAY, 1, SQUAT, 135, 5, 135);
+        }
+        databaseHelper.insertData(start + 300000, MONDAY, 1, BENCH, 95, 5, 95);
+        databaseHelper.insertData(start + 420000, MONDAY, 1, ROW, 95, 5, 95);
+        databaseHelper.insertData(start + 420000, MONDAY, 1, ROW, 95, 4, 95);
+        //Marks a new program, not a set
+        databaseHelper.insertData(start + 500000, MONDAY, 1, ROW, -1, 0, 95);
+
+        databaseHelper.updateWorkoutStats();
+        WorkoutStats stats = databaseHelper.getWorkoutStats(MONDAY, 1);
+
+        assertEquals(6, stats.getSetCount());
+        assertEquals(volume, stats.getVolume(), 0);
+        assertEquals(start, stats.getStartTime());
+        assertEquals(420000, stats.getDuration());
+        assertEquals(4, stats.getRestCount());
+        assertEquals(420000, stats.getTotalRest());
+        assertEquals(120000, stats.getLongestRest());
+        assertEquals(volume / 7, stats.getDensity(), 1e-9);
+        assertNull(databaseHelper.getWorkoutStats(MONDAY, 2));
+    }
+
+    @Test
+    public void setsLoggedOneByOneKeepTheirTimes() {
+        long start = 1567440000000L;
+        databaseHelper.insertBeginnerRoutineData(0, "Squat");
+        int squat = databaseHelper.getWorkoutExerciseID("BeginnerTable", "Squat", 0);
+        databaseHelper.insertData(start - 60000, MONDAY, 1, squat, -1, 0, 135);
+
+        //The log writes the sets filled out so far whenever another one is filled out
+        double[] weights = {135, 135, 135};
+        int[] reps = {5, 5, 5};
+        databaseHelper.upsertSets(start, 1, MONDAY, 1, squat, weights, reps, 135);
+        databaseHelper.upsertSets(start + 90000, 2, MONDAY, 1, squat, weights, reps, 135);
+        databaseHelper.upsertSets(start + 240000, 3, MONDAY, 1, squat, weights, reps, 135);
+
+        databaseHelper.updateWorkoutStats();
+        WorkoutStats stats = databaseHelper.getWorkoutStats(MONDAY, 1);
+
+        assertEquals(3, stats.getSetCount());
+        assertEquals(start, stats.getStartTime());
+        assertEquals(240000, stats.getDuration());
+        assertEquals(2, stats.getRestCount());
+        assertEquals(150000, stats.getLongestRest());
+
+        //Correcting the sets later changes the volume but none of the times
+        databaseHelper.upsertSets(start + 600000, 3, MONDAY, 1, squat, weights, new int[]{5, 4, 3}, 135);
+        assertEquals(1, databaseHelper.updateWorkoutStats());
+        stats = databaseHelper.getWorkoutStats(MONDAY, 1);
+
+        assertEquals(135 * 12, stats.getVolume(), 0);
+        assertEquals(start, stats.getStartTime());
+        assertEquals(240000, stats.getDuration());
+        assertEquals(150000, stats.getLongestRest());
+        assertEquals(Arrays.asList(3, 4, 5), databaseHelper.getRepsByExerciseAndDate("BeginnerTable", "Squat", 0, 1, MONDAY));
+    }
+
+    @Test
+    public void entriesBeforeTheWatermarkAreProcessed() {
+        long start = 1567440000000L;
+
+        databaseHelper.insertData(start, MONDAY, 1, SQUAT, 135, 5, 135);
+        assertEquals(1, databaseHelper.updateWorkoutStats());
+
+        //A workout entered for the day before, with times before the watermark
+        databaseHelper.insertData(start - 86400000, SUNDAY, 1, BENCH, 100, 5, 100);
+        databaseHelper.insertData(start - 86340000, SUNDAY, 1, BENCH, 100, 5, 100);
+        assertEquals(1, databaseHelper.updateWorkoutStats());
+
+        WorkoutStats sunday = databaseHelper.getWorkoutStats(SUNDAY, 1);
+        assertEquals(2, sunday.getSetCount());
+        assertEquals(60000, sunday.getLongestRest());
+        assertEquals(0, databaseHelper.updateWorkoutStats());
+    }
+
+    @Test
+    public void onlyChangedDatesAreProcessedAgain() {
+        long start = 1567440000000L;
+
+        databaseHelper.insertData(start, MONDAY, 1, SQUAT, 135, 5, 135);
+        databaseHelper.insertData(start + 90000, MONDAY, 1, SQUAT, 135, 5, 135);
+        assertEquals(1, databaseHelper.updateWorkoutStats());
+        assertEquals(0, databaseHelper.updateWorkoutStats());
+
+        databaseHelper.insertData(start + 172800000, WEDNESDAY, 1, BENCH, 100, 5, 100);
+        databaseHelper.insertData(start + 172860000, WEDNESDAY, 1, BENCH, 100, 5, 100);
+        assertEquals(1, databaseHelper.updateWorkoutStats());
+
+        WorkoutStats monday = databaseHelper.getWorkoutStats(MONDAY, 1);
+        assertEquals(90000, monday.getDuration());
+        assertEquals(1350 * 60000.0 / 90000, monday.getDensity(), 1e-9);
+        assertEquals(60000, databaseHelper.getWorkoutStats(WEDNESDAY, 1).getAverageRest());
+
+        //Deleting keeps the times of the other entries, so the date is marked instead
+        databaseHelper.deleteTodaysData(MONDAY);
+        assertEquals(1, databaseHelper.updateWorkoutStats());
+        assertNull(databaseHelper.getWorkoutStats(MONDAY, 1));
+        assertEquals(1000, databaseHelper.getWorkoutStats(WEDNESDAY, 1).getVolume(), 0);
+    }
+}